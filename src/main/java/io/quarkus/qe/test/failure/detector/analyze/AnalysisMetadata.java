@@ -21,7 +21,12 @@ public record AnalysisMetadata(
         /** Failures grouped by test class */
         BY_CLASS,
         /** Failures grouped by module path */
-        BY_MODULE
+        BY_MODULE,
+        /**
+         * Failures grouped across modules because their normalized messages and stack frames are similar.
+         * The relationship is inferred, so such root causes have the {@link RootCause.ConfidenceLevel#LOW} confidence.
+         */
+        BY_SIMILARITY
     }
 
     /**
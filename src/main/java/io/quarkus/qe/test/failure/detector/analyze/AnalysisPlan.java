@@ -0,0 +1,184 @@
+package io.quarkus.qe.test.failure.detector.analyze;
+
+import io.quarkus.qe.test.failure.detector.analyze.AnalysisMetadata.DeduplicationStrategy;
+import io.quarkus.qe.test.failure.detector.find.Failure;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Grouping of the complete set of failures into root causes, made before any upstream change is looked up.
+ * Failures are in the same group when they share the test class or the module, also transitively,
+ * so the groups don't depend on the order in which the failures were found. Then the groups whose representatives
+ * have the same fingerprint are merged, the other failures of the groups don't link them, so one shared fingerprint
+ * doesn't chain all the failures of many modules into one group. Then the groups with similar representatives
+ * are merged, so that one upstream regression breaking tests in many modules is looked up once, even if its failures
+ * differ in the test-specific parts (see {@link FailureSimilarity}). Only the representative failure
+ * of every group is looked up, so there is exactly one upstream change lookup (bisect) per group.
+ */
+public final class AnalysisPlan {
+
+    private final List<Group> groups;
+
+    private AnalysisPlan(List<Group> groups) {
+        this.groups = List.copyOf(groups);
+    }
+
+    /**
+     * @param failures all the failures, groups and their failures keep this order
+     */
+    public static AnalysisPlan of(List<Failure> failures) {
+        int[] parents = new int[failures.size()];
+        Map<String, Integer> firstFailureByKey = new HashMap<>();
+        for (int i = 0; i < failures.size(); i++) {
+            parents[i] = i;
+            Failure failure = failures.get(i);
+            for (String key : List.of("CLASS:" + failure.testClassName(), "MODULE:" + failure.modulePath())) {
+                Integer first = firstFailureByKey.putIfAbsent(key, i);
+                if (first != null) {
+                    union(parents, first, i);
+                }
+            }
+        }
+
+        // groups of the test class and module keys, their failures are linked to each other
+        int[] linkedGroups = new int[failures.size()];
+        Map<Integer, Integer> representativeByLinkedGroup = new LinkedHashMap<>();
+        for (int i = 0; i < failures.size(); i++) {
+            linkedGroups[i] = find(parents, i);
+            Integer representative = representativeByLinkedGroup.get(linkedGroups[i]);
+            if (representative == null || (failures.get(representative).flaky() && !failures.get(i).flaky())) {
+                representativeByLinkedGroup.put(linkedGroups[i], i);
+            }
+        }
+        Map<String, Integer> firstRepresentativeByFingerprint = new HashMap<>();
+        for (int representative : representativeByLinkedGroup.values()) {
+            Integer first = firstRepresentativeByFingerprint.putIfAbsent(failures.get(representative).fingerprint(),
+                    representative);
+            if (first != null) {
+                union(parents, first, representative);
+            }
+        }
+
+        // groups of the exact keys, a group that contains more of them was only merged because of the similarity
+        int[] exactGroups = new int[failures.size()];
+        for (int i = 0; i < failures.size(); i++) {
+            exactGroups[i] = find(parents, i);
+        }
+        // only the representatives are compared, like the fingerprints
+        List<Integer> representatives = List.copyOf(representativeByLinkedGroup.values());
+        FailureSimilarity.findSimilarPairs(representatives.stream().map(failures::get).toList(),
+                (first, second) -> union(parents, representatives.get(first), representatives.get(second)),
+                (first, second) -> find(parents, representatives.get(first))
+                        == find(parents, representatives.get(second)));
+
+        Map<Integer, List<Integer>> failuresByGroup = new LinkedHashMap<>();
+        for (int i = 0; i < failures.size(); i++) {
+            failuresByGroup.computeIfAbsent(find(parents, i), _ -> new ArrayList<>()).add(i);
+        }
+        List<Group> groups = new ArrayList<>(failuresByGroup.size());
+        for (List<Integer> groupIndexes : failuresByGroup.values()) {
+            List<Failure> groupFailures = groupIndexes.stream().map(failures::get).toList();
+            boolean similarOnly = groupIndexes.stream()
+                    .anyMatch(i -> exactGroups[i] != exactGroups[groupIndexes.getFirst()]);
+            Failure representative = selectRepresentative(groupFailures);
+            int representativeGroup = linkedGroups[groupIndexes.get(groupFailures.indexOf(representative))];
+            List<Failure> linkedFailures = groupIndexes.stream()
+                    .filter(i -> linkedGroups[i] == representativeGroup)
+                    .map(failures::get)
+                    .toList();
+            groups.add(new Group(representative, groupFailures, linkedFailures,
+                    similarOnly ? DeduplicationStrategy.BY_SIMILARITY : DeduplicationStrategy.BY_CLASS));
+        }
+        return new AnalysisPlan(groups);
+    }
+
+    public List<Group> groups() {
+        return groups;
+    }
+
+    /**
+     * @return number of the upstream change lookups (bisects) this plan needs
+     */
+    public int lookups() {
+        return groups.size();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder plan = new StringBuilder()
+                .append(System.lineSeparator())
+                .append("=== Analysis Plan ===")
+                .append(System.lineSeparator())
+                .append(groups.stream().mapToInt(group -> group.failures().size()).sum())
+                .append(" failure(s) in ").append(lookups()).append(" group(s), ")
+                .append(lookups()).append(" upstream change lookup(s)")
+                .append(System.lineSeparator());
+        for (int i = 0; i < groups.size(); i++) {
+            Group group = groups.get(i);
+            plan.append(System.lineSeparator())
+                    .append(i + 1).append(". ").append(testName(group.representative()))
+                    .append(" (").append(group.failures().size()).append(" failure(s)")
+                    .append(group.strategy() == DeduplicationStrategy.BY_SIMILARITY ? ", grouped by similarity)" : ")")
+                    .append(System.lineSeparator())
+                    .append("   Module: ").append(group.representative().modulePath())
+                    .append(System.lineSeparator());
+            for (Failure failure : group.failures()) {
+                if (failure != group.representative()) {
+                    plan.append("   - ").append(testName(failure)).append(System.lineSeparator());
+                }
+            }
+        }
+        return plan.toString();
+    }
+
+    /**
+     * A failure of a test that passed on rerun is most likely flaky, so the first failure that is not flaky
+     * represents the group if there is any.
+     */
+    private static Failure selectRepresentative(List<Failure> failures) {
+        return failures.stream().filter(failure -> !failure.flaky()).findFirst().orElse(failures.getFirst());
+    }
+
+    private static String testName(Failure failure) {
+        return failure.testClassName() + "#" + failure.testMethodName() + (failure.flaky() ? " [FLAKY]" : "");
+    }
+
+    private static int find(int[] parents, int i) {
+        while (parents[i] != i) {
+            // path halving keeps the trees flat
+            parents[i] = parents[parents[i]];
+            i = parents[i];
+        }
+        return i;
+    }
+
+    private static void union(int[] parents, int first, int second) {
+        int firstRoot = find(parents, first);
+        int secondRoot = find(parents, second);
+        if (firstRoot != secondRoot) {
+            // the earlier failure stays the root, so that the groups keep the order of the failures
+            parents[Math.max(firstRoot, secondRoot)] = Math.min(firstRoot, secondRoot);
+        }
+    }
+
+    /**
+     * @param representative the failure whose upstream change is looked up for the whole group
+     * @param failures all the failures of the group, including the representative
+     * @param linkedFailures the failures that share the test class or the module with the representative, also
+     *                       transitively; the other failures only joined the group through its representative
+     * @param strategy {@link DeduplicationStrategy#BY_SIMILARITY} if some failures of the group only share
+     *                 the similarity with the others, {@link DeduplicationStrategy#BY_CLASS} otherwise
+     */
+    public record Group(Failure representative, List<Failure> failures, List<Failure> linkedFailures,
+                        DeduplicationStrategy strategy) {
+
+        public Group {
+            failures = List.copyOf(failures);
+            linkedFailures = List.copyOf(linkedFailures);
+        }
+    }
+}
@@ -16,6 +16,7 @@ public record FailureDetails(
 
     /**
      * Create FailureDetails from a Failure object.
+     * The strings of the found failures are already canonicalized, so the details share them.
      *
      * @param failure the failure to convert
      * @param isPrimary whether this is the primary (first) failure in a group
@@ -33,18 +33,26 @@ public interface FailureHistory {
             Instant lastRun,
             String quarkusCommit,
             List<TrackedFailure> failures,
-            List<String> testedCommits) {
+            List<String> testedCommits,
+            List<TestVerdict> verdicts) {
 
         public HistoryData {
             failures = List.copyOf(failures);
             testedCommits = List.copyOf(testedCommits);
+            // histories saved before the verdicts were tracked don't have them
+            verdicts = verdicts == null ? List.of() : List.copyOf(verdicts);
+        }
+
+        public HistoryData(Instant lastRun, String quarkusCommit, List<TrackedFailure> failures,
+                           List<String> testedCommits) {
+            this(lastRun, quarkusCommit, failures, testedCommits, List.of());
         }
 
         /**
          * Create an empty history.
          */
         public static HistoryData empty() {
-            return new HistoryData(Instant.now(), null, List.of(), List.of());
+            return new HistoryData(Instant.now(), null, List.of(), List.of(), List.of());
         }
 
         /**
@@ -65,6 +73,53 @@ public interface FailureHistory {
         }
     }
 
+    /**
+     * Result of a test run (or of the Quarkus build) during a bisect, so that later bisects don't need to build
+     * Quarkus and run the test at the same commits again.
+     * A test verdict is only valid for the same Quarkus commit, test suite commit, module, test and mode,
+     * a build verdict ({@link Verdict#BUILD_FAILED}) only depends on the Quarkus commit and has no test.
+     */
+    @RegisterForReflection
+    record TestVerdict(
+            String quarkusCommit,
+            String testSuiteCommit,
+            String moduleRelativePath,
+            String testClassName,
+            String testMethodName,
+            String mode,
+            Verdict verdict,
+            Instant recordedAt) {
+
+        /**
+         * Result of the test at the commit.
+         */
+        @RegisterForReflection
+        public enum Verdict {
+            /** Test passed */
+            PASS,
+            /** Test failed */
+            FAIL,
+            /** Quarkus failed to build, so no test can run at the commit */
+            BUILD_FAILED
+        }
+
+        /**
+         * Create a verdict of the test run.
+         */
+        public static TestVerdict ofTest(String quarkusCommit, String testSuiteCommit, String moduleRelativePath,
+                                         String testClassName, String testMethodName, String mode, boolean passed) {
+            return new TestVerdict(quarkusCommit, testSuiteCommit, moduleRelativePath, testClassName, testMethodName,
+                    mode, passed ? Verdict.PASS : Verdict.FAIL, Instant.now());
+        }
+
+        /**
+         * Create a verdict of the failed Quarkus build.
+         */
+        public static TestVerdict ofBuildFailure(String quarkusCommit) {
+            return new TestVerdict(quarkusCommit, null, null, null, null, null, Verdict.BUILD_FAILED, Instant.now());
+        }
+    }
+
     /**
      * Represents a tracked failure across multiple runs.
      */
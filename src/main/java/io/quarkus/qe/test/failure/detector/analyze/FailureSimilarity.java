@@ -0,0 +1,172 @@
+package io.quarkus.qe.test.failure.detector.analyze;
+
+import io.quarkus.qe.test.failure.detector.find.Failure;
+import io.quarkus.qe.test.failure.detector.find.FailureFingerprint;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.BiPredicate;
+
+/**
+ * Finds pairs of similar failures with MinHash and locality-sensitive hashing (LSH), so that failures with the same
+ * root cause are grouped even if they differ in the test-specific parts of the message or the top stack frames.
+ * Each failure is reduced to the set of shingles of its normalized throwable class, message and top stack frames
+ * and the set is summarized by a MinHash signature. The message is split to word shingles, while the throwable class
+ * and every frame are one shingle each, so that the frames don't outweigh the message. The frames of the assertion
+ * libraries, HTTP clients and reflection are not there at all (see {@link FailureFingerprint}), they are the same
+ * for all the failures of a kind. Signatures are split into bands and only the failures
+ * with an equal band are compared, so not every failure is compared with every other failure and the clustering
+ * stays close to linear in the number of failures.
+ */
+final class FailureSimilarity {
+
+    /**
+     * Minimal estimated Jaccard similarity of the shingles of two failures to consider them caused by the same problem.
+     */
+    static final double SIMILARITY_THRESHOLD = 0.7;
+    // 16 bands of 4 rows find pairs with the similarity of 0.7 with the probability of 98.8 %
+    private static final int BANDS = 16;
+    private static final int ROWS = 4;
+    private static final int SIGNATURE_LENGTH = BANDS * ROWS;
+    private static final int SHINGLE_WORDS = 3;
+
+    private FailureSimilarity() {
+    }
+
+    /**
+     * @param failures the failures to compare
+     * @param similarPairs called with the indexes of the failures that are similar, the earlier failure goes first;
+     *                     not all similar pairs are reported if {@code sameGroup} says they are grouped already
+     * @param sameGroup whether the failures with the indexes are already known to be in the same group
+     */
+    static void findSimilarPairs(List<Failure> failures, BiConsumer<Integer, Integer> similarPairs,
+                                 BiPredicate<Integer, Integer> sameGroup) {
+        long[][] signatures = new long[failures.size()][];
+        Map<BandKey, List<Integer>> failuresByBand = new HashMap<>();
+        for (int i = 0; i < failures.size(); i++) {
+            Failure failure = failures.get(i);
+            signatures[i] = signature(shingles(FailureFingerprint.normalizedLines(failure.throwableClass(),
+                    failure.failureMessage(), failure.testRunLog())));
+            if (signatures[i] == null) {
+                // nothing to compare
+                continue;
+            }
+            for (int band = 0; band < BANDS; band++) {
+                List<Integer> candidates = failuresByBand.computeIfAbsent(new BandKey(band, signatures[i]),
+                        _ -> new ArrayList<>());
+                for (int candidate : candidates) {
+                    if (!sameGroup.test(candidate, i) && similarity(signatures[candidate], signatures[i])
+                            >= SIMILARITY_THRESHOLD) {
+                        similarPairs.accept(candidate, i);
+                    }
+                }
+                candidates.add(i);
+            }
+        }
+    }
+
+    /**
+     * @return estimated Jaccard similarity of the shingle sets the signatures were computed from
+     */
+    static double similarity(long[] first, long[] second) {
+        int equal = 0;
+        for (int i = 0; i < SIGNATURE_LENGTH; i++) {
+            if (first[i] == second[i]) {
+                equal++;
+            }
+        }
+        return (double) equal / SIGNATURE_LENGTH;
+    }
+
+    /**
+     * @return MinHash signature of the shingles, null if there are no shingles
+     */
+    static long[] signature(Set<String> shingles) {
+        if (shingles.isEmpty()) {
+            return null;
+        }
+        long[] signature = new long[SIGNATURE_LENGTH];
+        Arrays.fill(signature, Long.MAX_VALUE);
+        for (String shingle : shingles) {
+            long shingleHash = mix(shingle.hashCode());
+            for (int i = 0; i < SIGNATURE_LENGTH; i++) {
+                // every row uses a different hash function, derived from the shingle hash with a different seed
+                long hash = mix(shingleHash ^ (0x9E3779B97F4A7C15L * (i + 1)));
+                if (hash < signature[i]) {
+                    signature[i] = hash;
+                }
+            }
+        }
+        return signature;
+    }
+
+    /**
+     * @param normalizedLines the throwable class, the message lines and the frames
+     *                        as returned by {@link FailureFingerprint#normalizedLines(String, String, String)}
+     * @return the throwable class, the frames and the shingles of {@link #SHINGLE_WORDS} consecutive words
+     *         of the message, or the words themselves if there are not enough of them
+     */
+    static Set<String> shingles(List<String> normalizedLines) {
+        Set<String> shingles = new HashSet<>();
+        List<String> words = new ArrayList<>();
+        for (int i = 0; i < normalizedLines.size(); i++) {
+            String line = normalizedLines.get(i);
+            if (i == 0 || line.startsWith("at ")) {
+                if (!line.isEmpty()) {
+                    shingles.add(line);
+                }
+                continue;
+            }
+            for (String word : line.split("[^\\p{Alnum}_$#<>]+")) {
+                if (!word.isEmpty()) {
+                    words.add(word);
+                }
+            }
+        }
+        if (words.size() < SHINGLE_WORDS) {
+            shingles.addAll(words);
+            return shingles;
+        }
+        for (int i = 0; i + SHINGLE_WORDS <= words.size(); i++) {
+            shingles.add(String.join(" ", words.subList(i, i + SHINGLE_WORDS)));
+        }
+        return shingles;
+    }
+
+    private static long mix(long value) {
+        // finalizer of the MurmurHash3, spreads the bits of the value over the whole hash
+        value ^= value >>> 33;
+        value *= 0xFF51AFD7ED558CCDL;
+        value ^= value >>> 33;
+        value *= 0xC4CEB9FE1A85EC53L;
+        value ^= value >>> 33;
+        return value;
+    }
+
+    private record BandKey(int band, long[] signature) {
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof BandKey(int otherBand, long[] otherSignature)) || band != otherBand) {
+                return false;
+            }
+            return Arrays.equals(signature, band * ROWS, (band + 1) * ROWS,
+                    otherSignature, band * ROWS, (band + 1) * ROWS);
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = band;
+            for (int i = band * ROWS; i < (band + 1) * ROWS; i++) {
+                hash = 31 * hash + Long.hashCode(signature[i]);
+            }
+            return hash;
+        }
+    }
+}
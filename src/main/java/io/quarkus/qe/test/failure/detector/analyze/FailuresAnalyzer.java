@@ -2,8 +2,29 @@ package io.quarkus.qe.test.failure.detector.analyze;
 
 import io.quarkus.qe.test.failure.detector.find.Failure;
 
+import java.util.concurrent.CompletableFuture;
+
 public interface FailuresAnalyzer {
 
     RootCause analyze(Failure failure);
 
+    /**
+     * Assigns the failure to a root cause right away, in the order of the calls, but looks up the upstream change
+     * of a new root cause in the background, so that the caller doesn't wait for it. The lookups run one at a time,
+     * they share one Quarkus checkout and the local Maven repository.
+     *
+     * @return the root cause, completed once its upstream change is known
+     */
+    default CompletableFuture<RootCause> analyzeAsync(Failure failure) {
+        return CompletableFuture.completedFuture(analyze(failure));
+    }
+
+    /**
+     * Starts the upstream change lookups that wait until all the failures are known, so that they can share
+     * the work. Must be called after the last {@link #analyzeAsync(Failure)}, otherwise the returned root causes
+     * may never complete.
+     */
+    default void finishAnalysis() {
+    }
+
 }
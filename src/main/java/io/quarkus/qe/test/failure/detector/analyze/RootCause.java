@@ -32,7 +32,9 @@ public interface RootCause {
         /** Failure exists at oldest commit in lookback range (introduced before lookback) */
         OLDEST_COMMIT_FAILED,
         /** Test passes on all commits during bisect (flaky or environmental) */
-        CANNOT_REPRODUCE
+        CANNOT_REPRODUCE,
+        /** Test passed when it was rerun, so the bisect was skipped */
+        FLAKY
     }
 
     /**
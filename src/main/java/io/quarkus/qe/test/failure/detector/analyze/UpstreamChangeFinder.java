@@ -2,6 +2,9 @@ package io.quarkus.qe.test.failure.detector.analyze;
 
 import io.quarkus.qe.test.failure.detector.find.Failure;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Implementations of this interface must find what has changed upstream (in Quarkus main project).
  */
@@ -14,4 +17,29 @@ public interface UpstreamChangeFinder {
      */
     RootCause.UpstreamChange findUpstreamChange(Failure failure);
 
+    /**
+     * Find the upstream changes that caused all the failures.
+     * Implementations can share the work among the failures, for example build every upstream commit only once.
+     *
+     * @return upstream change or null for every failure, in the order of the failures
+     */
+    default List<RootCause.UpstreamChange> findUpstreamChanges(List<Failure> failures) {
+        List<RootCause.UpstreamChange> upstreamChanges = new ArrayList<>(failures.size());
+        for (Failure failure : failures) {
+            upstreamChanges.add(findUpstreamChange(failure));
+        }
+        return upstreamChanges;
+    }
+
+    /**
+     * Confirm that the upstream change found for other failure caused these failures too. It is used for the failures
+     * that were only inferred to have the same root cause, for example from their similarity.
+     * Implementations that can't check it confirm all the failures.
+     *
+     * @return whether the upstream change caused the failure, for every failure in the order of the failures
+     */
+    default List<Boolean> confirmUpstreamChange(RootCause.UpstreamChange upstreamChange, List<Failure> failures) {
+        return failures.stream().map(_ -> true).toList();
+    }
+
 }
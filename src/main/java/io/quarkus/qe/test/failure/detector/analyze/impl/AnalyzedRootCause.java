@@ -79,6 +79,24 @@ record AnalyzedRootCause(
         );
     }
 
+    /**
+     * Set what has changed upstream, once the lookup started for the primary failure finishes.
+     *
+     * @param upstreamChange what has changed upstream
+     * @return new AnalyzedRootCause with the upstream change
+     */
+    AnalyzedRootCause withUpstreamChange(UpstreamChange upstreamChange) {
+        return new AnalyzedRootCause(
+                this.identifier,
+                this.modulePath,
+                this.summary,
+                this.confidence,
+                this.failures,
+                this.metadata,
+                upstreamChange
+        );
+    }
+
     @Override
     public String toString() {
         return "AnalyzedRootCause[" +
@@ -1,6 +1,7 @@
 package io.quarkus.qe.test.failure.detector.analyze.impl;
 
 import io.quarkus.qe.test.failure.detector.analyze.AnalysisMetadata;
+import io.quarkus.qe.test.failure.detector.analyze.AnalysisPlan;
 import io.quarkus.qe.test.failure.detector.analyze.AnalysisMetadata.DeduplicationStrategy;
 import io.quarkus.qe.test.failure.detector.analyze.FailureDetails;
 import io.quarkus.qe.test.failure.detector.analyze.FailuresAnalyzer;
@@ -10,80 +11,305 @@ import io.quarkus.qe.test.failure.detector.find.Failure;
 import io.quarkus.qe.test.failure.detector.logger.Logger;
 import jakarta.enterprise.context.Dependent;
 
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Dependent // this bean is stateful, so keep it in "command execution scope"
 final class FailuresAnalyzerImpl implements FailuresAnalyzer {
 
     private final Logger logger;
 
-    private final Map<String, AnalyzedRootCause> rootCausesByClass;
+    // root causes are immutable, so the lookup maps only keep identifiers and this map keeps the latest version
+    private final Map<String, AnalyzedRootCause> rootCausesByIdentifier;
 
-    private final Map<String, AnalyzedRootCause> rootCausesByModule;
+    private final Map<String, String> rootCauseIdentifiersByClass;
+
+    private final Map<String, String> rootCauseIdentifiersByModule;
+
+    private final Map<String, String> rootCauseIdentifiersByFingerprint;
+
+    // single-flight: one upstream change lookup per root cause, the failures added to the root cause wait for it
+    private final Map<String, CompletableFuture<Void>> upstreamChangeLookupsByIdentifier;
+
+    // failures that are grouped and looked up together in finishAnalysis()
+    private final List<PlannedFailure> plannedFailures;
+
+    // a failure is assigned to a root cause by three lookups, they must not interleave with a new root cause creation
+    private final Object assignmentLock = new Object();
 
     private final UpstreamChangeFinder upstreamChangeFinder;
 
-    FailuresAnalyzerImpl(Logger logger, UpstreamChangeFinder upstreamChangeFinder) {
+    private final UpstreamChangeLookups upstreamChangeLookups;
+
+    FailuresAnalyzerImpl(Logger logger, UpstreamChangeFinder upstreamChangeFinder,
+                         UpstreamChangeLookups upstreamChangeLookups) {
         this.logger = logger;
         this.upstreamChangeFinder = upstreamChangeFinder;
-        this.rootCausesByClass = new HashMap<>();
-        this.rootCausesByModule = new HashMap<>();
+        this.upstreamChangeLookups = upstreamChangeLookups;
+        this.rootCausesByIdentifier = new ConcurrentHashMap<>();
+        this.rootCauseIdentifiersByClass = new ConcurrentHashMap<>();
+        this.rootCauseIdentifiersByModule = new ConcurrentHashMap<>();
+        this.rootCauseIdentifiersByFingerprint = new ConcurrentHashMap<>();
+        this.upstreamChangeLookupsByIdentifier = new ConcurrentHashMap<>();
+        this.plannedFailures = new ArrayList<>();
     }
 
     @Override
     public RootCause analyze(Failure failure) {
+        CompletableFuture<RootCause> rootCause = analyzeAsync(failure);
+        finishAnalysis();
+        try {
+            return rootCause.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * With the joint lookups, the failure is only planned, it is assigned to a root cause in
+     * {@link #finishAnalysis()} together with all the other failures, so the assignment does not depend on the order
+     * of the failures. Otherwise, the failure is assigned to a root cause right away.
+     */
+    @Override
+    public CompletableFuture<RootCause> analyzeAsync(Failure failure) {
         logger.info("Analyzing test failure: " + failure);
 
-        if (rootCausesByClass.containsKey(failure.testClassName())) {
-            return addToExistingRootCause(rootCausesByClass, failure.testClassName(), failure);
+        if (upstreamChangeLookups.isJoint()) {
+            CompletableFuture<RootCause> rootCause = new CompletableFuture<>();
+            synchronized (assignmentLock) {
+                plannedFailures.add(new PlannedFailure(failure, rootCause));
+            }
+            return rootCause;
         }
 
-        if (rootCausesByModule.containsKey(failure.modulePath())) {
-            return addToExistingRootCause(rootCausesByModule, failure.modulePath(), failure);
+        String identifier;
+        synchronized (assignmentLock) {
+            identifier = findExistingIdentifier(failure);
+            if (identifier != null) {
+                addToExistingRootCause(identifier, failure, true);
+            } else if ((identifier = findIdentifierByFingerprint(failure)) != null) {
+                // the other failures of the class and module are not linked to the root cause by this one
+                addToExistingRootCause(identifier, failure, false);
+            } else {
+                identifier = createNewRootCause(failure, DeduplicationStrategy.BY_CLASS);
+                lookUpUpstreamChange(identifier, upstreamChangeLookups
+                        .submit(() -> upstreamChangeFinder.findUpstreamChange(failure)));
+            }
         }
+        return latestRootCause(identifier);
+    }
 
-        return createNewRootCause(failure);
+    /**
+     * Groups all the planned failures with the {@link AnalysisPlan} and looks up the upstream changes
+     * of the representatives of the new groups together.
+     */
+    @Override
+    public void finishAnalysis() {
+        List<PlannedFailure> planned;
+        synchronized (assignmentLock) {
+            planned = List.copyOf(plannedFailures);
+            plannedFailures.clear();
+        }
+        lookUpPlannedFailures(planned, true);
     }
 
-    private AnalyzedRootCause addToExistingRootCause(
-            Map<String, AnalyzedRootCause> trackingMap,
-            String key,
-            Failure failure) {
+    /**
+     * Failures that only joined a new group by similarity are added to its root cause once the upstream change
+     * of the representative is confirmed for them. The failures it is not confirmed for are planned again,
+     * so that they get their own lookups instead of inheriting a culprit that doesn't break them.
+     *
+     * @param joinExisting whether the groups can join the root causes created earlier
+     */
+    private void lookUpPlannedFailures(List<PlannedFailure> planned, boolean joinExisting) {
+        if (planned.isEmpty()) {
+            return;
+        }
+
+        Map<Failure, CompletableFuture<RootCause>> rootCausesByFailure = new IdentityHashMap<>();
+        planned.forEach(plannedFailure -> rootCausesByFailure.put(plannedFailure.failure(), plannedFailure.rootCause()));
+        AnalysisPlan plan = AnalysisPlan.of(planned.stream().map(PlannedFailure::failure).toList());
+
+        List<Failure> representatives = new ArrayList<>();
+        List<String> identifiers = new ArrayList<>();
+        List<List<Failure>> inferredFailures = new ArrayList<>();
+        List<CompletableFuture<RootCause.UpstreamChange>> lookups = new ArrayList<>();
+        synchronized (assignmentLock) {
+            for (AnalysisPlan.Group group : plan.groups()) {
+                Set<Failure> linkedFailures = Collections.newSetFromMap(new IdentityHashMap<>());
+                linkedFailures.addAll(group.linkedFailures());
+                // a group of a batch can belong to a root cause created for an earlier batch
+                String identifier = !joinExisting ? null : group.linkedFailures().stream()
+                        .map(this::findExistingIdentifier)
+                        .filter(Objects::nonNull)
+                        .findFirst()
+                        .orElse(null);
+                boolean linkedToRootCause = true;
+                if (joinExisting && identifier == null
+                        && (identifier = findIdentifierByFingerprint(group.representative())) != null) {
+                    linkedToRootCause = false;
+                }
+                Failure primaryFailure = null;
+                List<Failure> inferred = List.of();
+                if (identifier == null) {
+                    primaryFailure = group.representative();
+                    identifier = createNewRootCause(primaryFailure, group.strategy());
+                    CompletableFuture<RootCause.UpstreamChange> lookup = new CompletableFuture<>();
+                    lookUpUpstreamChange(identifier, lookup);
+                    if (group.strategy() == DeduplicationStrategy.BY_SIMILARITY) {
+                        inferred = group.failures().stream()
+                                .filter(failure -> !linkedFailures.contains(failure))
+                                .toList();
+                    }
+                    representatives.add(primaryFailure);
+                    identifiers.add(identifier);
+                    inferredFailures.add(inferred);
+                    lookups.add(lookup);
+                }
+                for (Failure failure : group.failures()) {
+                    if (inferred.contains(failure)) {
+                        continue;
+                    }
+                    if (failure != primaryFailure) {
+                        addToExistingRootCause(identifier, failure,
+                                linkedToRootCause && linkedFailures.contains(failure));
+                    }
+                    completeWithRootCause(rootCausesByFailure.get(failure), identifier);
+                }
+            }
+        }
+        if (representatives.isEmpty()) {
+            return;
+        }
 
-        AnalyzedRootCause existing = trackingMap.get(key);
+        logger.info("Looking up upstream changes of " + representatives.size() + " new root causes together ("
+                + planned.size() + " failures)");
+        upstreamChangeLookups.submit(() -> {
+                    List<RootCause.UpstreamChange> upstreamChanges =
+                            upstreamChangeFinder.findUpstreamChanges(representatives);
+                    List<List<Boolean>> confirmations = new ArrayList<>(upstreamChanges.size());
+                    for (int i = 0; i < upstreamChanges.size(); i++) {
+                        List<Failure> inferred = inferredFailures.get(i);
+                        confirmations.add(inferred.isEmpty() ? List.of()
+                                : upstreamChangeFinder.confirmUpstreamChange(upstreamChanges.get(i), inferred));
+                    }
+                    return new ConfirmedUpstreamChanges(upstreamChanges, confirmations);
+                })
+                .whenComplete((confirmed, error) -> {
+                    try {
+                        if (error != null) {
+                            throw error;
+                        }
+                        List<PlannedFailure> unconfirmed = new ArrayList<>();
+                        for (int i = 0; i < lookups.size(); i++) {
+                            List<Failure> inferred = inferredFailures.get(i);
+                            synchronized (assignmentLock) {
+                                for (int j = 0; j < inferred.size(); j++) {
+                                    Failure failure = inferred.get(j);
+                                    if (confirmed.confirmations().get(i).get(j)) {
+                                        addToExistingRootCause(identifiers.get(i), failure, false);
+                                        completeWithRootCause(rootCausesByFailure.get(failure), identifiers.get(i));
+                                    } else {
+                                        logger.info("Upstream change of " + identifiers.get(i)
+                                                + " is not confirmed for " + failure.testClassName() + "#"
+                                                + failure.testMethodName() + ", looking it up separately");
+                                        unconfirmed.add(new PlannedFailure(failure, rootCausesByFailure.get(failure)));
+                                    }
+                                }
+                            }
+                            lookups.get(i).complete(confirmed.upstreamChanges().get(i));
+                        }
+                        lookUpPlannedFailures(unconfirmed, false);
+                    } catch (Throwable e) {
+                        // nothing else completes them and the command waits for every root cause
+                        lookups.forEach(lookup -> lookup.completeExceptionally(e));
+                        inferredFailures.forEach(inferred -> inferred.forEach(
+                                failure -> rootCausesByFailure.get(failure).completeExceptionally(e)));
+                    }
+                });
+    }
+
+    private void completeWithRootCause(CompletableFuture<RootCause> rootCause, String identifier) {
+        latestRootCause(identifier).whenComplete((latest, error) -> {
+            if (error != null) {
+                rootCause.completeExceptionally(error);
+            } else {
+                rootCause.complete(latest);
+            }
+        });
+    }
+
+    private String findExistingIdentifier(Failure failure) {
+        String identifier = rootCauseIdentifiersByClass.get(failure.testClassName());
+        if (identifier == null) {
+            identifier = rootCauseIdentifiersByModule.get(failure.modulePath());
+        }
+        return identifier;
+    }
+
+    /**
+     * Same throwable thrown from the same place as the primary failure of a root cause, most likely a shared
+     * dependency broke in other module. Only the fingerprints of the primary failures are compared, so one shared
+     * fingerprint doesn't chain the root causes of many modules.
+     */
+    private String findIdentifierByFingerprint(Failure failure) {
+        return rootCauseIdentifiersByFingerprint.get(failure.fingerprint());
+    }
+
+    /**
+     * @return the root cause once its upstream change is known, with all the failures added until then
+     */
+    private CompletableFuture<RootCause> latestRootCause(String identifier) {
+        return upstreamChangeLookupsByIdentifier.get(identifier)
+                .thenApply(_ -> rootCausesByIdentifier.get(identifier));
+    }
+
+    private void lookUpUpstreamChange(String identifier, CompletableFuture<RootCause.UpstreamChange> lookup) {
+        // the identifier is new and the assignment lock is held, so this is the only lookup of the root cause
+        upstreamChangeLookupsByIdentifier.put(identifier, lookup
+                .thenAccept(upstreamChange -> rootCausesByIdentifier.computeIfPresent(identifier,
+                        (_, analyzed) -> analyzed.withUpstreamChange(upstreamChange))));
+    }
+
+    /**
+     * @param linked whether the failure shares the test class or the module with the root cause, then later
+     *               failures of its class and module join the root cause too, like they do in the analysis plan
+     */
+    private void addToExistingRootCause(String identifier, Failure failure, boolean linked) {
         FailureDetails newFailureDetails = FailureDetails.from(failure, false);
-        AnalyzedRootCause updated = existing.addFailure(newFailureDetails);
-
-        // Update tracking maps
-        trackingMap.put(key, updated);
-        if (trackingMap == rootCausesByClass) {
-            // Also update module map to keep them in sync
-            rootCausesByModule.put(failure.modulePath(), updated);
-        } else {
-            // Module map was updated, sync class map if the primary failure class matches
-            String primaryFailureClass = existing.failures().get(0).testClassName();
-            rootCausesByClass.put(primaryFailureClass, updated);
+        AnalyzedRootCause updated = rootCausesByIdentifier.compute(identifier,
+                (_, existing) -> existing.addFailure(newFailureDetails));
+        if (linked) {
+            rootCauseIdentifiersByClass.putIfAbsent(failure.testClassName(), identifier);
+            rootCauseIdentifiersByModule.putIfAbsent(failure.modulePath(), identifier);
         }
 
         logger.info("Added failure to existing root cause: " + updated.identifier() +
                 " (now " + updated.failures().size() + " failures)");
-
-        return updated;
     }
 
-    private AnalyzedRootCause createNewRootCause(Failure failure) {
-        // First occurrence = HIGH confidence (we're confident this is the primary failure)
-        AnalyzedRootCause.ConfidenceLevel confidence = AnalyzedRootCause.ConfidenceLevel.HIGH;
-        DeduplicationStrategy deduplicationStrategy = DeduplicationStrategy.BY_CLASS;
+    private String createNewRootCause(Failure failure, DeduplicationStrategy deduplicationStrategy) {
+        // First occurrence = HIGH confidence (we're confident this is the primary failure),
+        // unless the other failures were only inferred to have the same root cause from their similarity
+        AnalyzedRootCause.ConfidenceLevel confidence = deduplicationStrategy == DeduplicationStrategy.BY_SIMILARITY
+                ? AnalyzedRootCause.ConfidenceLevel.LOW : AnalyzedRootCause.ConfidenceLevel.HIGH;
 
         String identifier = createIdentifier(failure, deduplicationStrategy);
         String summary = createSummary(failure);
         FailureDetails primaryFailure = FailureDetails.from(failure, true);
         AnalysisMetadata metadata = AnalysisMetadata.create(deduplicationStrategy);
 
-        RootCause.UpstreamChange upstreamChange = upstreamChangeFinder.findUpstreamChange(failure);
-
+        // the upstream change is set once the lookup finishes, other failures can be added to the root cause meanwhile
         AnalyzedRootCause rootCause = AnalyzedRootCause.create(
                 identifier,
                 failure.modulePath(),
@@ -91,15 +317,17 @@ final class FailuresAnalyzerImpl implements FailuresAnalyzer {
                 confidence,
                 primaryFailure,
                 metadata,
-                upstreamChange
+                null
         );
 
-        rootCausesByClass.put(failure.testClassName(), rootCause);
-        rootCausesByModule.put(failure.modulePath(), rootCause);
+        rootCausesByIdentifier.put(identifier, rootCause);
+        rootCauseIdentifiersByClass.put(failure.testClassName(), identifier);
+        rootCauseIdentifiersByModule.put(failure.modulePath(), identifier);
+        rootCauseIdentifiersByFingerprint.put(failure.fingerprint(), identifier);
 
         logger.info("Created new root cause: " + identifier);
 
-        return rootCause;
+        return identifier;
     }
 
     /**
@@ -109,6 +337,7 @@ final class FailuresAnalyzerImpl implements FailuresAnalyzer {
         return switch (strategy) {
             case BY_CLASS -> "CLASS:" + failure.testClassName();
             case BY_MODULE -> "MODULE:" + failure.modulePath();
+            case BY_SIMILARITY -> "SIMILAR:" + failure.testClassName();
             case NONE -> "FAILURE:" + failure.testClassName() + "#" + failure.testMethodName();
         };
     }
@@ -133,4 +362,11 @@ final class FailuresAnalyzerImpl implements FailuresAnalyzer {
         int lastDot = fullyQualifiedName.lastIndexOf('.');
         return lastDot >= 0 ? fullyQualifiedName.substring(lastDot + 1) : fullyQualifiedName;
     }
+
+    private record PlannedFailure(Failure failure, CompletableFuture<RootCause> rootCause) {
+    }
+
+    private record ConfirmedUpstreamChanges(List<RootCause.UpstreamChange> upstreamChanges,
+                                            List<List<Boolean>> confirmations) {
+    }
 }
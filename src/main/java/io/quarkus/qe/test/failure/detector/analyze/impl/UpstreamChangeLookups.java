@@ -0,0 +1,46 @@
+package io.quarkus.qe.test.failure.detector.analyze.impl;
+
+import io.quarkus.qe.test.failure.detector.configuration.AppConfig;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Singleton;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * Runs upstream change lookups in the background, one at a time and in the order in which they are submitted.
+ * All the bisects share the local Quarkus and test suite checkouts and the local Maven repository, so lookups
+ * of independent root causes can't overlap. The executor is shared by all the analyzers of the command.
+ */
+@Singleton
+final class UpstreamChangeLookups {
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(Thread.ofVirtual()
+            .name("upstream-change-lookup")
+            .factory());
+    private volatile AppConfig.BisectMode bisectMode = AppConfig.BisectMode.JOINT;
+
+    void updateConfiguration(@Observes AppConfig appConfig) {
+        this.bisectMode = appConfig.bisectMode();
+    }
+
+    /**
+     * @return whether the lookups should wait until all the failures are known and look up all the new root causes
+     *         at once
+     */
+    boolean isJoint() {
+        return bisectMode == AppConfig.BisectMode.JOINT;
+    }
+
+    <T> CompletableFuture<T> submit(Supplier<T> lookup) {
+        return CompletableFuture.supplyAsync(lookup, executor);
+    }
+
+    @PreDestroy
+    void close() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,102 @@
+package io.quarkus.qe.test.failure.detector.analyze.upstream.change.finder;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reads verdicts of the tests run during the bisect from the FailSafe {@code TEST-<test class>.xml} reports.
+ * A test passed if its {@code <testcase>} has neither {@code <failure>} nor {@code <error>}, so a test that
+ * only passed when it was rerun (with {@code <flakyFailure>} or {@code <flakyError>}) passed as well.
+ * A {@code <testcase>} with {@code <skipped>} has no verdict, the test did not run.
+ * Invocations of a parameterized test are combined, the test passed if every invocation that ran passed.
+ */
+final class FailsafeTestVerdicts {
+
+    private static final String TESTCASE = "testcase";
+    private static final String FAILURE = "failure";
+    private static final String ERROR = "error";
+    private static final String SKIPPED = "skipped";
+
+    private static final XMLInputFactory XML_INPUT_FACTORY = createXmlInputFactory();
+
+    private FailsafeTestVerdicts() {
+    }
+
+    /**
+     * @param reportsDir the 'failsafe-reports' directory of the module
+     * @param testClassName fully qualified name of the test class
+     * @return whether the test passed by the test method name without parameters, empty if the test class
+     *         report does not exist, skipped tests are not included
+     */
+    static Map<String, Boolean> read(Path reportsDir, String testClassName) {
+        Path report = reportsDir.resolve("TEST-" + testClassName + ".xml");
+        Map<String, Boolean> verdicts = new HashMap<>();
+        if (!Files.isRegularFile(report)) {
+            return verdicts;
+        }
+        try (InputStream input = Files.newInputStream(report)) {
+            XMLStreamReader reader = XML_INPUT_FACTORY.createXMLStreamReader(input);
+            try {
+                String testMethodName = null;
+                boolean passed = true;
+                boolean skipped = false;
+                while (reader.hasNext()) {
+                    int event = reader.next();
+                    if (event == XMLStreamConstants.START_ELEMENT) {
+                        switch (reader.getLocalName()) {
+                            case TESTCASE -> {
+                                testMethodName = toTestMethodName(reader.getAttributeValue(null, "name"));
+                                passed = true;
+                                skipped = false;
+                            }
+                            case FAILURE, ERROR -> passed = false;
+                            case SKIPPED -> skipped = true;
+                            default -> {
+                                // not interested
+                            }
+                        }
+                    } else if (event == XMLStreamConstants.END_ELEMENT && TESTCASE.equals(reader.getLocalName())) {
+                        // only complete test cases that ran have a verdict
+                        if (!skipped) {
+                            verdicts.merge(testMethodName, passed, Boolean::logicalAnd);
+                        }
+                        testMethodName = null;
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (IOException | XMLStreamException e) {
+            // an incomplete report, e.g. the test JVM crashed, the tests without a verdict are considered failed
+            return verdicts;
+        }
+        return verdicts;
+    }
+
+    /**
+     * Strips parameterized test suffixes like "(QuarkusVersionAwareCliClient)[1]" the same way the FailSafe
+     * report parser does, so that the verdicts are keyed like {@code Failure#testMethodName()}.
+     */
+    private static String toTestMethodName(String testCaseName) {
+        int paramStart = testCaseName == null ? -1 : testCaseName.indexOf('(');
+        if (paramStart > 0) {
+            return testCaseName.substring(0, paramStart);
+        }
+        return testCaseName;
+    }
+
+    private static XMLInputFactory createXmlInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    }
+}
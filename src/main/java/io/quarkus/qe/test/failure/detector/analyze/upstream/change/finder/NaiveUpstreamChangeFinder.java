@@ -2,6 +2,7 @@ package io.quarkus.qe.test.failure.detector.analyze.upstream.change.finder;
 
 import io.quarkus.qe.test.failure.detector.analyze.FailureHistory;
 import io.quarkus.qe.test.failure.detector.analyze.FailureHistory.HistoryData;
+import io.quarkus.qe.test.failure.detector.analyze.FailureHistory.TestVerdict;
 import io.quarkus.qe.test.failure.detector.analyze.FailureHistory.TrackedFailure;
 import io.quarkus.qe.test.failure.detector.analyze.RootCause;
 import io.quarkus.qe.test.failure.detector.analyze.UpstreamChangeFinder;
@@ -12,6 +13,7 @@ import io.quarkus.qe.test.failure.detector.logger.Logger;
 import io.quarkus.runtime.Shutdown;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
 
 import java.io.BufferedReader;
 import java.io.IOException;
@@ -22,13 +24,19 @@ import java.nio.file.Paths;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 /**
  * Finds upstream changes (in Quarkus repository) that caused test failures.
@@ -36,10 +44,11 @@ import java.util.regex.Pattern;
  * Uses brute-force git bisect approach:
  * 1. Loads previous failure history
  * 2. Identifies NEW failures (not seen in previous run)
- * 3. For each NEW failure, runs git bisect on Quarkus repo:
+ * 3. For NEW failures, runs git bisect on Quarkus repo:
  *    - Builds each commit with `mvn -Dquickly`
  *    - Runs the failing test
  *    - Finds the first commit that introduced the failure
+ *    NEW failures looked up together are bisected jointly, every commit is built once for all of them
  * 4. Updates failure history with results
  * <p>
  * NOTE: This implementation has a design limitation - the UpstreamChangeFinder interface
@@ -51,13 +60,19 @@ class NaiveUpstreamChangeFinder implements UpstreamChangeFinder {
 
     private static final String QUARKUS_REPO_URL = "https://github.com/quarkusio/quarkus.git";
     private static final String TEST_SUITE_REPO_URL = "https://github.com/quarkus-qe/quarkus-test-suite.git";
+    private static final int MAX_VERDICTS = 10_000;
+    // a failed build can be caused by the environment (e.g. an unavailable Maven repository), so it is retried later
+    private static final Duration BUILD_FAILURE_TTL = Duration.ofDays(7);
 
     protected final Logger logger;
     protected final FailureHistory failureHistory;
+    protected final QuarkusBuildCache quarkusBuildCache;
 
     protected int lookbackDays;
     protected Instant from;
     protected AppConfig.BisectStrategy bisectStrategy;
+    protected AppConfig.FlakyFailurePolicy flakyFailurePolicy = AppConfig.FlakyFailurePolicy.SKIP;
+    protected AppConfig.QuarkusBuildMode quarkusBuildMode = AppConfig.QuarkusBuildMode.INCREMENTAL;
 
     // Stateful tracking for the current analysis session
     protected HistoryData previousHistory;
@@ -67,6 +82,21 @@ class NaiveUpstreamChangeFinder implements UpstreamChangeFinder {
     protected Path quarkusRepo;
     protected Path testSuiteRepo;
     protected boolean initialized = false;
+    // the same test can fail in more inputs of a batch, it is only bisected once per session and sessionKey()
+    protected final Map<String, RootCause.UpstreamChange> sessionVerdicts = new HashMap<>();
+    // commit installed in the local Maven repository, every bisect starts with building the same oldest commit
+    protected String lastBuiltCommit;
+    // modules of the last built commit installed by a targeted build, null when all the modules are installed
+    protected Set<String> lastBuiltModules;
+    protected final Set<String> unbuildableCommits = new HashSet<>();
+    // test verdicts of the previous runs and of this session by verdictKey(), so that no test runs twice at a commit
+    protected final Map<String, TestVerdict> knownVerdicts = new HashMap<>();
+    protected final List<TestVerdict> buildVerdicts = new ArrayList<>();
+    protected String testSuiteCommit;
+    // artifact IDs of the Quarkus dependencies by the test suite commit, module and mode, empty if unresolvable
+    protected final Map<String, Set<String>> dependencyClosures = new HashMap<>();
+    // relative paths of the Quarkus modules by their artifact IDs, by the Quarkus commit
+    protected final Map<String, Map<String, String>> quarkusModules = new HashMap<>();
 
     // For testing: allow overriding repository paths
     protected String quarkusRepoUrl = QUARKUS_REPO_URL;
@@ -76,8 +106,17 @@ class NaiveUpstreamChangeFinder implements UpstreamChangeFinder {
 
     NaiveUpstreamChangeFinder(Logger logger,
                                    FailureHistory failureHistory) {
+        // the cache is never configured, so it stays disabled
+        this(logger, failureHistory, new QuarkusBuildCache(logger));
+    }
+
+    @Inject
+    NaiveUpstreamChangeFinder(Logger logger,
+                              FailureHistory failureHistory,
+                              QuarkusBuildCache quarkusBuildCache) {
         this.logger = logger;
         this.failureHistory = failureHistory;
+        this.quarkusBuildCache = quarkusBuildCache;
         this.lookbackDays = -1;
     }
 
@@ -86,78 +125,182 @@ class NaiveUpstreamChangeFinder implements UpstreamChangeFinder {
         this.from = appConfig.from();
         this.bisectStrategy = appConfig.bisectStrategy();
         this.testSuiteRepoUrl = appConfig.testSuiteRepoUrl();
+        this.flakyFailurePolicy = appConfig.flakyFailurePolicy();
+        this.quarkusBuildMode = appConfig.quarkusBuildMode();
     }
 
+    // all the lookups share one Quarkus checkout, one test suite checkout and the local Maven repository,
+    // so the bisects must not overlap even if the finder is called from more threads
     @Override
-    public RootCause.UpstreamChange findUpstreamChange(Failure failure) {
-        Objects.requireNonNull(failure);
+    public synchronized RootCause.UpstreamChange findUpstreamChange(Failure failure) {
+        return findUpstreamChanges(List.of(failure)).getFirst();
+    }
 
-        // Initialize on first call
-        if (!initialized) {
-            initialize();
-        }
+    /**
+     * All NEW failures share the same range of untested commits, so they are bisected together:
+     * every Quarkus commit is built once and all the NEW failures whose range contains it are tested against it.
+     */
+    @Override
+    public synchronized List<RootCause.UpstreamChange> findUpstreamChanges(List<Failure> failures) {
+        // NEW failures by the sessionKey(), the same test of the same module can fail in more inputs
+        Map<String, Failure> newFailures = new LinkedHashMap<>();
+        for (Failure failure : failures) {
+            Objects.requireNonNull(failure);
+            if (isSkippedFlakyFailure(failure)) {
+                continue;
+            }
 
-        // Check if this failure is NEW or EXISTING
-        Optional<TrackedFailure> existing = previousHistory.findFailure(
-                failure.testClassName(), failure.testMethodName());
+            // Initialize on first call
+            if (!initialized) {
+                initialize();
+            }
 
-        TrackedFailure trackedFailure;
-        RootCause.UpstreamChange upstreamChange = null;
+            String testKey = testKey(failure);
+            String sessionKey = sessionKey(failure);
+            if (sessionVerdicts.containsKey(sessionKey) || newFailures.containsKey(sessionKey)) {
+                logger.info("Failure " + testKey + " [" + testMode(failure) + " mode] was already analyzed"
+                        + " in this session, reusing the result");
+                continue;
+            }
 
-        if (existing.isPresent()) {
-            logger.info("EXISTING failure: " + failure.testClassName() + "#" + failure.testMethodName() +
-                    " - using previous upstream commit info");
-            TrackedFailure previous = existing.get();
-            trackedFailure = previous.markSeen();
-
-            if (previous.upstreamCommit() != null) {
-                // not sure if this is ever non-null as we try to only check out the new commits (not saved in history)
-                String commitMessage = getCommitMessage(quarkusRepo, previous.upstreamCommit());
-
-                upstreamChange = new RootCause.UpstreamChange(
-                        previous.upstreamCommit(),
-                        previous.upstreamPullRequest(),
-                        commitMessage,
-                        RootCause.FailureReason.FOUND
-                );
+            // Check if this failure is NEW or EXISTING
+            Optional<TrackedFailure> existing = previousHistory.findFailure(
+                    failure.testClassName(), failure.testMethodName());
+            if (existing.isPresent()) {
+                recordExistingFailure(failure, existing.get());
+            } else {
+                logger.info("NEW failure detected: " + testKey + " - starting bisect");
+                newFailures.put(sessionKey, failure);
             }
-        } else {
-            logger.info("NEW failure detected: " + failure.testClassName() + "#" + failure.testMethodName() +
-                    " - starting bisect");
-
-            // Create new tracked failure
-            trackedFailure = TrackedFailure.createNew(
-                    failure.testClassName(),
-                    failure.testMethodName(),
-                    failure.modulePath()
-            );
+        }
 
+        if (newFailures.size() == 1) {
+            Failure failure = newFailures.values().iterator().next();
             // For NEW failures, test commits since last run
             // If this test was passing in the last run and failing now,
             // it must have broken in the new commits since then
-            // All NEW failures share the same commit range (untestedCommits)
-            BisectResult result = bisectFailure(failure, untestedCommits);
-
-            if (result.foundCommit()) {
-                logger.info("Found culprit commit: " + result.commit() + " (PR: " + result.pullRequest() + ")");
-                trackedFailure = trackedFailure.withUpstreamCommit(result.commit(), result.pullRequest());
-                upstreamChange = new RootCause.UpstreamChange(
-                        result.commit(),
-                        result.pullRequest(),
-                        result.commitMessage(),
-                        RootCause.FailureReason.FOUND
-                );
-                testedCommitsThisSession.addAll(result.testedCommits());
-            } else {
-                logger.info("Could not identify upstream commit for failure - reason: " + result.reason());
-                upstreamChange = new RootCause.UpstreamChange(null, null, null, result.reason());
+            recordNewFailure(failure, bisectFailure(failure, untestedCommits));
+        } else if (newFailures.size() > 1) {
+            Map<Failure, BisectResult> results = bisectFailuresJointly(List.copyOf(newFailures.values()), untestedCommits);
+            for (Failure failure : newFailures.values()) {
+                recordNewFailure(failure, results.get(failure));
             }
         }
 
+        List<RootCause.UpstreamChange> upstreamChanges = new ArrayList<>(failures.size());
+        for (Failure failure : failures) {
+            upstreamChanges.add(isSkippedFlakyFailure(failure)
+                    ? new RootCause.UpstreamChange(null, null, null, RootCause.FailureReason.FLAKY)
+                    : sessionVerdicts.get(sessionKey(failure)));
+        }
+        return upstreamChanges;
+    }
+
+    /**
+     * The upstream change caused the failure if its test fails at the culprit commit and passes at its parent.
+     * Both commits were usually built during the bisect that found the change, so it costs about one build.
+     */
+    @Override
+    public synchronized List<Boolean> confirmUpstreamChange(RootCause.UpstreamChange upstreamChange,
+                                                            List<Failure> failures) {
+        if (upstreamChange == null || upstreamChange.gitCommitSHA() == null) {
+            // there is no culprit the failures could wrongly inherit
+            return failures.stream().map(_ -> true).toList();
+        }
+        if (!initialized) {
+            initialize();
+        }
+        String commit = upstreamChange.gitCommitSHA();
+        Map<Failure, Boolean> atCommit;
+        Map<Failure, Boolean> atParent;
+        try {
+            String parent = runCommand(quarkusRepo, "git", "rev-parse", commit + "^").trim();
+            atCommit = testAtCommit(failures, commit);
+            atParent = atCommit == null ? null : testAtCommit(failures, parent);
+        } catch (RuntimeException e) {
+            logger.error("Failed to confirm upstream change " + commit + ": " + e.getMessage());
+            return failures.stream().map(_ -> false).toList();
+        }
+        List<Boolean> confirmed = new ArrayList<>(failures.size());
+        for (Failure failure : failures) {
+            boolean caused = atParent != null && !atCommit.get(failure) && atParent.get(failure);
+            logger.info("Upstream change " + commit + (caused ? " caused " : " did not cause ") + testKey(failure));
+            confirmed.add(caused);
+        }
+        return confirmed;
+    }
+
+    private boolean isSkippedFlakyFailure(Failure failure) {
+        if (failure.flaky() && flakyFailurePolicy == AppConfig.FlakyFailurePolicy.SKIP) {
+            // the test passed on rerun, bisect would most likely end with CANNOT_REPRODUCE after many builds
+            logger.info("FLAKY failure: " + testKey(failure) + " - passed on rerun, skipping bisect");
+            return true;
+        }
+        return false;
+    }
+
+    private void recordExistingFailure(Failure failure, TrackedFailure previous) {
+        logger.info("EXISTING failure: " + testKey(failure) + " - using previous upstream commit info");
+        RootCause.UpstreamChange upstreamChange = null;
+
+        if (previous.upstreamCommit() != null) {
+            // not sure if this is ever non-null as we try to only check out the new commits (not saved in history)
+            String commitMessage = getCommitMessage(quarkusRepo, previous.upstreamCommit());
+
+            upstreamChange = new RootCause.UpstreamChange(
+                    previous.upstreamCommit(),
+                    previous.upstreamPullRequest(),
+                    commitMessage,
+                    RootCause.FailureReason.FOUND
+            );
+        }
+
+        // Track this failure for the current session
+        currentSessionFailures.add(previous.markSeen());
+        sessionVerdicts.put(sessionKey(failure), upstreamChange);
+    }
+
+    private void recordNewFailure(Failure failure, BisectResult result) {
+        // Create new tracked failure
+        TrackedFailure trackedFailure = TrackedFailure.createNew(
+                failure.testClassName(),
+                failure.testMethodName(),
+                failure.modulePath()
+        );
+        RootCause.UpstreamChange upstreamChange;
+
+        if (result.foundCommit()) {
+            logger.info("Found culprit commit for " + testKey(failure) + ": " + result.commit() +
+                    " (PR: " + result.pullRequest() + ")");
+            trackedFailure = trackedFailure.withUpstreamCommit(result.commit(), result.pullRequest());
+            upstreamChange = new RootCause.UpstreamChange(
+                    result.commit(),
+                    result.pullRequest(),
+                    result.commitMessage(),
+                    RootCause.FailureReason.FOUND
+            );
+            testedCommitsThisSession.addAll(result.testedCommits());
+        } else {
+            logger.info("Could not identify upstream commit for failure " + testKey(failure) +
+                    " - reason: " + result.reason());
+            upstreamChange = new RootCause.UpstreamChange(null, null, null, result.reason());
+        }
+
         // Track this failure for the current session
         currentSessionFailures.add(trackedFailure);
+        sessionVerdicts.put(sessionKey(failure), upstreamChange);
+    }
 
-        return upstreamChange;
+    private static String testKey(Failure failure) {
+        return failure.testClassName() + "#" + failure.testMethodName();
+    }
+
+    /**
+     * A native failure of a test must not get the verdict of the JVM failure of the same test (and vice versa),
+     * so the failures are told apart the same way as the test verdicts, see {@link #verdictKey(String, Failure)}.
+     */
+    private String sessionKey(Failure failure) {
+        return String.join("|", extractModuleRelativePath(failure), testKey(failure), testMode(failure));
     }
 
     /**
@@ -165,7 +308,7 @@ class NaiveUpstreamChangeFinder implements UpstreamChangeFinder {
      * This should be called after all failures have been analyzed.
      * It marks previous failures that are no longer failing as RESOLVED.
      */
-    void finalizeAndSaveHistory(@Observes OnCommandExit ignored) {
+    synchronized void finalizeAndSaveHistory(@Observes OnCommandExit ignored) {
         if (!initialized) {
             logger.info("Not initialized, skipping history save");
             return;
@@ -204,18 +347,27 @@ class NaiveUpstreamChangeFinder implements UpstreamChangeFinder {
         }
 
         // Get current Quarkus commit
-        String currentQuarkusCommit = getQuarkusHeadCommit(quarkusRepo);
+        String currentQuarkusCommit = getHeadCommit(quarkusRepo);
 
         // Combine tested commits
         List<String> allTestedCommits = new ArrayList<>(previousHistory.testedCommits());
         allTestedCommits.addAll(testedCommitsThisSession);
 
+        // Keep the most recent verdicts, the old ones are unlikely to be in a bisect range again
+        List<TestVerdict> allVerdicts = new ArrayList<>(buildVerdicts);
+        allVerdicts.addAll(knownVerdicts.values());
+        allVerdicts.sort(Comparator.comparing(TestVerdict::recordedAt));
+        if (allVerdicts.size() > MAX_VERDICTS) {
+            allVerdicts = new ArrayList<>(allVerdicts.subList(allVerdicts.size() - MAX_VERDICTS, allVerdicts.size()));
+        }
+
         // Save updated history
         HistoryData updatedHistory = new HistoryData(
                 Instant.now(),
                 currentQuarkusCommit,
                 allFailures,
-                allTestedCommits
+                allTestedCommits,
+                allVerdicts
         );
 
         failureHistory.save(updatedHistory);
@@ -226,9 +378,9 @@ class NaiveUpstreamChangeFinder implements UpstreamChangeFinder {
     }
 
     /**
-     * Get the current HEAD commit of the Quarkus repository.
+     * Get the current HEAD commit of the repository.
      */
-    private String getQuarkusHeadCommit(Path repoPath) {
+    private String getHeadCommit(Path repoPath) {
         return runCommand(repoPath, "git", "rev-parse", "HEAD").trim();
     }
 
@@ -254,6 +406,26 @@ class NaiveUpstreamChangeFinder implements UpstreamChangeFinder {
 
         // Set up test suite repository
         testSuiteRepo = setupTestSuiteRepository();
+        testSuiteCommit = getHeadCommit(testSuiteRepo);
+
+        // Verdicts of the previous runs, the test verdicts only apply to the same test suite commit
+        Instant buildFailuresSince = Instant.now().minus(BUILD_FAILURE_TTL);
+        for (TestVerdict verdict : previousHistory.verdicts()) {
+            if (verdict.verdict() == TestVerdict.Verdict.BUILD_FAILED) {
+                if (verdict.recordedAt().isBefore(buildFailuresSince)) {
+                    // expired, the commit is built again if it is needed
+                    continue;
+                }
+                unbuildableCommits.add(verdict.quarkusCommit());
+                buildVerdicts.add(verdict);
+            } else {
+                knownVerdicts.putIfAbsent(verdictKey(verdict.quarkusCommit(), verdict.testSuiteCommit(),
+                        verdict.moduleRelativePath(), verdict.testClassName(), verdict.testMethodName(),
+                        verdict.mode()), verdict);
+            }
+        }
+        logger.info("Loaded " + knownVerdicts.size() + " test verdicts and " + unbuildableCommits.size()
+                + " unbuildable commits from previous history");
 
         // Get commits to test (either last 50 if no history, or new commits since last run)
         untestedCommits = getUntestedCommits();
@@ -553,6 +725,143 @@ class NaiveUpstreamChangeFinder implements UpstreamChangeFinder {
         }
     }
 
+    /**
+     * Bisect more failures at once, so that every commit is built only once for all of them.
+     * Each failure keeps its own range of candidate commits, at every built commit all the failures
+     * whose range contains the commit are tested and their ranges are narrowed independently.
+     * With the BINARY strategy, the next commit is the middle of the most ranges, so failures introduced
+     * by the same commit are resolved with the same builds. With the LINEAR strategy, the next commit is
+     * the oldest untested one.
+     */
+    private Map<Failure, BisectResult> bisectFailuresJointly(List<Failure> failures, List<String> commitsToTest) {
+        logger.info("Using joint " + bisectStrategy + " search strategy for " + failures.size() + " failures");
+        Map<Failure, BisectResult> results = new HashMap<>();
+        List<String> testedCommits = new ArrayList<>();
+
+        if (commitsToTest.isEmpty()) {
+            logger.info("No commits to test for bisect");
+            for (Failure failure : failures) {
+                results.put(failure, new BisectResult(null, null, null, testedCommits, RootCause.FailureReason.CANNOT_REPRODUCE));
+            }
+            return results;
+        }
+
+        // VALIDATION: Test the oldest commit first to ensure we have a known-good baseline for all the failures
+        int oldest = commitsToTest.size() - 1;
+        String oldestCommit = commitsToTest.get(oldest);
+        logger.info("Validating oldest commit in range to establish known-good baseline: " + oldestCommit);
+        testedCommits.add(oldestCommit);
+        Map<Failure, Boolean> oldestResults = testAtCommit(failures, oldestCommit);
+        if (oldestResults == null) {
+            logger.error("Oldest commit failed to build - cannot establish baseline");
+            logger.error("Consider increasing the lookback period or checking commits before " + oldestCommit);
+            for (Failure failure : failures) {
+                results.put(failure, new BisectResult(null, null, null, testedCommits, RootCause.FailureReason.BUILD_FAILED));
+            }
+            return results;
+        }
+
+        List<BisectRange> ranges = new ArrayList<>();
+        for (Failure failure : failures) {
+            if (oldestResults.get(failure)) {
+                ranges.add(new BisectRange(failure, oldest, new ArrayList<>(testedCommits)));
+            } else {
+                logger.error("Test " + testKey(failure) + " FAILED at oldest commit: " + oldestCommit);
+                logger.error("The failure was likely introduced BEFORE our lookback range");
+                results.put(failure, new BisectResult(null, null, null, testedCommits, RootCause.FailureReason.OLDEST_COMMIT_FAILED));
+            }
+        }
+
+        Set<Integer> unbuildable = new HashSet<>();
+        while (true) {
+            List<BisectRange> unresolved = new ArrayList<>();
+            for (BisectRange range : ranges) {
+                if (!results.containsKey(range.failure)) {
+                    if (range.nextCommit(bisectStrategy, unbuildable) < 0) {
+                        results.put(range.failure, resolve(range, commitsToTest, unbuildable));
+                    } else {
+                        unresolved.add(range);
+                    }
+                }
+            }
+            if (unresolved.isEmpty()) {
+                return results;
+            }
+
+            int next = selectNextCommit(unresolved, unbuildable);
+            String commit = commitsToTest.get(next);
+            List<Failure> affected = unresolved.stream()
+                    .filter(range -> range.contains(next))
+                    .map(range -> range.failure)
+                    .toList();
+            logger.info("Joint bisect: testing commit at index " + next + " for " + affected.size() + " of "
+                    + unresolved.size() + " unresolved failures: " + commit);
+
+            testedCommits.add(commit);
+            Map<Failure, Boolean> testResults = testAtCommit(affected, commit);
+            for (BisectRange range : unresolved) {
+                if (range.contains(next)) {
+                    range.testedCommits.add(commit);
+                }
+            }
+            if (testResults == null) {
+                logger.info("Build failed for commit " + commit + ", skipping it for all the failures");
+                unbuildable.add(next);
+                continue;
+            }
+
+            for (BisectRange range : unresolved) {
+                if (range.contains(next)) {
+                    boolean testPassed = testResults.get(range.failure);
+                    logger.info("Test " + testKey(range.failure) + (testPassed ? " PASSED" : " FAILED") + " at commit: " + commit);
+                    range.narrow(next, testPassed);
+                }
+            }
+        }
+    }
+
+    /**
+     * Select the commit that is tested next for the most failures, so that failures with the same range
+     * share the builds. Ties are resolved in favor of the newer commit.
+     */
+    private int selectNextCommit(List<BisectRange> unresolved, Set<Integer> unbuildable) {
+        int selected = -1;
+        long selectedCount = 0;
+        for (BisectRange candidate : unresolved) {
+            int commit = candidate.nextCommit(bisectStrategy, unbuildable);
+            long count = unresolved.stream().filter(range -> range.contains(commit)).count();
+            if (count > selectedCount || (count == selectedCount && commit < selected)) {
+                selected = commit;
+                selectedCount = count;
+            }
+        }
+        return selected;
+    }
+
+    private BisectResult resolve(BisectRange range, List<String> commitsToTest, Set<Integer> unbuildable) {
+        if (range.firstFailing < 0 && range.lastPassing > 0) {
+            logger.error("Commits newer than " + commitsToTest.get(range.lastPassing) + " failed to build - cannot complete bisect of "
+                    + testKey(range.failure));
+            return new BisectResult(null, null, null, range.testedCommits, RootCause.FailureReason.BUILD_FAILED);
+        }
+        if (range.firstFailing < 0) {
+            logger.info("Cannot reproduce the failure " + testKey(range.failure) + " - test passes on all tested commits");
+            logger.info("This indicates the test is flaky or has environmental dependencies");
+            return new BisectResult(null, null, null, range.testedCommits, RootCause.FailureReason.CANNOT_REPRODUCE);
+        }
+        String commit = commitsToTest.get(range.firstFailing);
+        if (range.lastPassing - range.firstFailing > 1) {
+            // all the commits in between failed to build, the culprit can be any of them or the failing commit
+            logger.error("Commits between " + commitsToTest.get(range.lastPassing) + " and " + commit
+                    + " failed to build, the failure of " + testKey(range.failure) + " was introduced by one of "
+                    + String.join(", ", commitsToTest.subList(range.firstFailing, range.lastPassing)));
+            return new BisectResult(null, null, null, range.testedCommits, RootCause.FailureReason.BUILD_FAILED);
+        }
+        logger.info("Found first failing commit for " + testKey(range.failure) + ": " + commit);
+        return new BisectResult(commit, findPullRequest(commit), getCommitMessage(quarkusRepo, commit),
+                range.testedCommits, RootCause.FailureReason.FOUND);
+    }
+
     /**
      * Linear search from oldest to newest commit.
      * Slower but predictable - tests every commit in order.
@@ -571,13 +880,11 @@ class NaiveUpstreamChangeFinder implements UpstreamChangeFinder {
             boolean isOldestCommit = (i == commitsToTest.size() - 1);
             logger.info("Testing commit " + (commitsToTest.size() - i) + "/" + commitsToTest.size() + ": " + commit);
 
-            // Checkout commit
-            runCommand(quarkusRepo, "git", "checkout", commit);
             testedCommits.add(commit);
 
-            // Build Quarkus
-            boolean buildSuccess = buildQuarkus(commit);
-            if (!buildSuccess) {
+            // Build Quarkus and run the test, unless its verdict is already known
+            Map<Failure, Boolean> testResults = testAtCommit(List.of(failure), commit);
+            if (testResults == null) {
                 logger.info("Build failed for commit " + commit + ", skipping");
                 // If the oldest commit fails to build, we cannot establish a baseline
                 if (isOldestCommit) {
@@ -589,8 +896,7 @@ class NaiveUpstreamChangeFinder implements UpstreamChangeFinder {
                 continue;
             }
 
-            // Run the test
-            boolean testPassed = runTest(failure);
+            boolean testPassed = testResults.get(failure);
 
             if (!testPassed) {
                 // If this is the oldest commit, and it fails, we cannot determine when failure was introduced
@@ -649,18 +955,17 @@ class NaiveUpstreamChangeFinder implements UpstreamChangeFinder {
         String oldestCommit = commitsToTest.get(low);
         logger.info("Testing oldest commit at index " + low + ": " + oldestCommit);
 
-        runCommand(quarkusRepo, "git", "checkout", oldestCommit);
         testedCommits.add(oldestCommit);
 
-        boolean oldestBuildSuccess = buildQuarkus(oldestCommit);
-        if (!oldestBuildSuccess) {
+        Map<Failure, Boolean> oldestResults = testAtCommit(List.of(failure), oldestCommit);
+        if (oldestResults == null) {
             logger.error("Oldest commit failed to build - cannot establish baseline");
             logger.error("The failure may have been introduced before our lookback range, or there's a build issue");
             logger.error("Consider increasing the lookback period or checking commits before " + oldestCommit);
             return new BisectResult(null, null, null, testedCommits, RootCause.FailureReason.BUILD_FAILED);
         }
 
-        boolean oldestTestPassed = runTest(failure);
+        boolean oldestTestPassed = oldestResults.get(failure);
         if (!oldestTestPassed) {
             logger.error("Test FAILED at oldest commit: " + oldestCommit);
             logger.error("Cannot determine failure-introducing commit - failure exists at oldest commit in range");
@@ -705,13 +1010,11 @@ class NaiveUpstreamChangeFinder implements UpstreamChangeFinder {
 
             logger.info("Binary search: testing commit at index " + mid + " (range: " + high + "-" + low + "): " + commit);
 
-            // Checkout commit
-            runCommand(quarkusRepo, "git", "checkout", commit);
             testedCommits.add(commit);
 
-            // Build Quarkus
-            boolean buildSuccess = buildQuarkus(commit);
-            if (!buildSuccess) {
+            // Build Quarkus and run the test, unless its verdict is already known
+            Map<Failure, Boolean> testResults = testAtCommit(List.of(failure), commit);
+            if (testResults == null) {
                 logger.info("Build failed for commit " + commit);
                 buildFailureCount++;
 
@@ -740,19 +1043,17 @@ class NaiveUpstreamChangeFinder implements UpstreamChangeFinder {
 
                 commit = commitsToTest.get(mid);
                 logger.info("Testing adjacent commit at index " + mid + ": " + commit);
-                runCommand(quarkusRepo, "git", "checkout", commit);
                 testedCommits.add(commit);
 
-                buildSuccess = buildQuarkus(commit);
-                if (!buildSuccess) {
+                testResults = testAtCommit(List.of(failure), commit);
+                if (testResults == null) {
                     logger.info("Adjacent commit also failed to build, narrowing range");
                     low = mid - 1;
                     continue;
                 }
             }
 
-            // Run the test
-            boolean testPassed = runTest(failure);
+            boolean testPassed = testResults.get(failure);
 
             // Cache the test result to avoid retesting
             commitTestResults.put(commit, testPassed);
@@ -788,11 +1089,10 @@ class NaiveUpstreamChangeFinder implements UpstreamChangeFinder {
             String commit = commitsToTest.get(low);
             logger.info("Final commit to test at index " + low + ": " + commit);
 
-            runCommand(quarkusRepo, "git", "checkout", commit);
             testedCommits.add(commit);
 
-            boolean buildSuccess = buildQuarkus(commit);
-            if (!buildSuccess) {
+            Map<Failure, Boolean> testResults = testAtCommit(List.of(failure), commit);
+            if (testResults == null) {
                 logger.error("Build failed for commit " + commit + " - cannot complete bisect");
                 logger.error("This may indicate a build issue in Quarkus main branch at this commit");
                 logger.error("Check https://github.com/quarkusio/quarkus/commit/" + commit);
@@ -800,7 +1100,7 @@ class NaiveUpstreamChangeFinder implements UpstreamChangeFinder {
                 logger.info("Tested commits: " + String.join(", ", testedCommits));
                 return new BisectResult(null, null, null, testedCommits, RootCause.FailureReason.BUILD_FAILED);
             } else {
-                boolean testPassed = runTest(failure);
+                boolean testPassed = testResults.get(failure);
                 if (!testPassed) {
                     logger.info("Found first failing commit: " + commit);
                     String pullRequest = findPullRequest(commit);
@@ -816,13 +1116,347 @@ class NaiveUpstreamChangeFinder implements UpstreamChangeFinder {
         return new BisectResult(null, null, null, testedCommits, RootCause.FailureReason.CANNOT_REPRODUCE);
     }
 
+    /**
+     * Builds the commit, unless it is already installed in the local Maven repository, it can be restored
+     * from the {@link QuarkusBuildCache} or it already failed to build.
+     *
+     * @param failures the failures that will be tested at the commit, the targeted build only builds
+     *                 the modules they depend on
+     */
+    private boolean buildQuarkusOnce(String commit, List<Failure> failures) {
+        if (commit.equals(lastBuiltCommit) && lastBuiltModules == null) {
+            logger.info("Quarkus commit " + commit + " is already built, skipping the build");
+            return true;
+        }
+        if (unbuildableCommits.contains(commit)) {
+            logger.info("Quarkus commit " + commit + " already failed to build, skipping the build");
+            return false;
+        }
+        // null when all the modules need to be built
+        Set<String> targetModules = quarkusBuildMode == AppConfig.QuarkusBuildMode.TARGETED
+                ? findTargetModules(commit, failures) : null;
+        if (commit.equals(lastBuiltCommit) && targetModules != null && lastBuiltModules.containsAll(targetModules)) {
+            logger.info("Quarkus modules of commit " + commit + " are already built, skipping the build");
+            return true;
+        }
+        // the artifacts of a targeted build are cached separately, they don't contain all the modules
+        String cacheKey = targetModules == null || quarkusBuildCache.contains(commit)
+                ? commit : targetedCacheKey(commit, targetModules);
+        if (quarkusBuildCache.restore(cacheKey)) {
+            lastBuiltCommit = commit;
+            lastBuiltModules = cacheKey.equals(commit) ? null : targetModules;
+            return true;
+        }
+        try {
+            return buildQuarkusWithFallbacks(commit, targetModules, cacheKey);
+        } catch (BuildNotStartedException e) {
+            // not a verdict of the commit, it is built again when it is needed
+            logger.error(e.getMessage());
+            lastBuiltCommit = null;
+            return false;
+        }
+    }
+
+    /**
+     * Builds only the target modules or the modules changed since the last built commit if possible,
+     * and falls back to a full build if it fails. A commit whose full build fails is recorded as unbuildable.
+     */
+    private boolean buildQuarkusWithFallbacks(String commit, Set<String> targetModules, String cacheKey) {
+        if (targetModules != null) {
+            logger.info("Building " + targetModules.size() + " Quarkus modules the failing tests depend on"
+                    + " and the modules they depend on");
+            if (buildQuarkusWithDependencies(commit, List.copyOf(targetModules))) {
+                lastBuiltCommit = commit;
+                lastBuiltModules = targetModules;
+                quarkusBuildCache.store(cacheKey);
+                return true;
+            }
+            logger.info("Targeted build of commit " + commit + " failed, falling back to a full build");
+            // the failed build could have installed some of the modules
+            lastBuiltCommit = null;
+        }
+        boolean success = false;
+        // the changed modules can only be built on top of all the modules of the previously built commit
+        List<String> changedModules = quarkusBuildMode != AppConfig.QuarkusBuildMode.FULL && lastBuiltCommit != null
+                && lastBuiltModules == null ? findChangedModules(lastBuiltCommit, commit) : null;
+        if (changedModules != null) {
+            if (changedModules.isEmpty()) {
+                logger.info("No Quarkus module changed since commit " + lastBuiltCommit + ", skipping the build");
+                success = true;
+            } else {
+                logger.info("Building " + changedModules.size() + " Quarkus modules changed since commit "
+                        + lastBuiltCommit + " and the modules that depend on them");
+                success = buildQuarkusModules(commit, changedModules);
+                if (!success) {
+                    logger.info("Incremental build of commit " + commit + " failed, falling back to a full build");
+                }
+            }
+        }
+        if (!success) {
+            success = buildQuarkus(commit);
+        }
+        if (success) {
+            lastBuiltCommit = commit;
+            lastBuiltModules = null;
+            quarkusBuildCache.store(commit);
+        } else {
+            // the failed build could have installed some of the modules
+            lastBuiltCommit = null;
+            unbuildableCommits.add(commit);
+            buildVerdicts.add(TestVerdict.ofBuildFailure(commit));
+        }
+        return success;
+    }
+
+    private static String targetedCacheKey(String commit, Set<String> modules) {
+        return commit + "-" + Integer.toHexString(String.join(",", modules).hashCode());
+    }
+
+    /**
+     * Finds the Quarkus modules of the checked out commit that the test suite modules of the failures depend on.
+     * The dependencies of a test suite module are only resolved once per test suite commit and the Quarkus modules
+     * are only found once per commit.
+     *
+     * @param commit the checked out commit
+     * @return relative paths of the modules, null if all the modules need to be built
+     */
+    private Set<String> findTargetModules(String commit, List<Failure> failures) {
+        Map<String, String> modulesByArtifactId = quarkusModules.get(commit);
+        if (modulesByArtifactId == null) {
+            try {
+                modulesByArtifactId = QuarkusDependencyClosure.findModulesByArtifactId(quarkusRepo);
+            } catch (IOException e) {
+                logger.info("Failed to find the Quarkus modules: " + e.getMessage() + ", building all the modules");
+                return null;
+            }
+            quarkusModules.put(commit, modulesByArtifactId);
+        }
+        Set<String> modules = new TreeSet<>();
+        for (Failure failure : failures) {
+            String closureKey = String.join("|", testSuiteCommit, extractModuleRelativePath(failure), testMode(failure));
+            Set<String> artifactIds = dependencyClosures.computeIfAbsent(closureKey,
+                    _ -> resolveDependencyClosure(failure));
+            if (artifactIds.isEmpty()) {
+                logger.info("Quarkus dependencies of " + testKey(failure) + " are unknown, building all the modules");
+                return null;
+            }
+            modules.addAll(QuarkusDependencyClosure.toModules(artifactIds, modulesByArtifactId));
+        }
+        return modules.isEmpty() ? null : modules;
+    }
+
+    /**
+     * Resolves the Quarkus dependencies of the test suite module of the failure with 'mvn dependency:list',
+     * with the same properties as the test run, so that the same profiles and the built Quarkus version are used.
+     *
+     * @return artifact IDs of the dependencies, empty if they can't be resolved
+     */
+    protected Set<String> resolveDependencyClosure(Failure failure) {
+        String moduleRelativePath = extractModuleRelativePath(failure);
+        Path outputFile = null;
+        try {
+            outputFile = Files.createTempFile("quarkus-dependencies", ".txt");
+            List<String> mvnArgs = new ArrayList<>(List.of("mvn", "-B", "--no-transfer-progress", "dependency:list",
+                    "-DincludeGroupIds=io.quarkus", "-DoutputFile=" + outputFile.toAbsolutePath(),
+                    // an aggregator module lists the dependencies of every submodule
+                    "-DappendOutput=true"));
+            mvnArgs.addAll(testSuiteProperties(isNativeTest(failure)));
+            mvnArgs.add("-f");
+            mvnArgs.add(moduleRelativePath);
+            runCommand(testSuiteRepo, mvnArgs.toArray(new String[0]));
+            Set<String> artifactIds = QuarkusDependencyClosure.readQuarkusArtifactIds(outputFile);
+            logger.info("Test suite module " + moduleRelativePath + " depends on " + artifactIds.size()
+                    + " Quarkus artifacts");
+            return artifactIds;
+        } catch (IOException | RuntimeException e) {
+            logger.info("Failed to resolve the Quarkus dependencies of test suite module " + moduleRelativePath
+                    + ": " + e.getMessage());
+            return Set.of();
+        } finally {
+            if (outputFile != null) {
+                try {
+                    Files.deleteIfExists(outputFile);
+                } catch (IOException e) {
+                    logger.debug("Failed to delete " + outputFile + ": " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Tests the failures at the commit. Failures whose verdict at the commit is known from this or a previous run
+     * are not tested again, Quarkus is only checked out and built if some verdict is missing.
+     *
+     * @return whether the test passed for each failure, null if the commit failed to build
+     */
+    private Map<Failure, Boolean> testAtCommit(List<Failure> failures, String commit) {
+        Map<Failure, Boolean> results = new HashMap<>();
+        List<Failure> untested = new ArrayList<>();
+        for (Failure failure : failures) {
+            TestVerdict known = knownVerdicts.get(verdictKey(commit, failure));
+            if (known != null) {
+                logger.info("Test " + testKey(failure) + " already " + (known.verdict() == TestVerdict.Verdict.PASS
+                        ? "PASSED" : "FAILED") + " at commit " + commit + " (" + known.recordedAt() + "), skipping the test run");
+                results.put(failure, known.verdict() == TestVerdict.Verdict.PASS);
+            } else {
+                untested.add(failure);
+            }
+        }
+        if (untested.isEmpty()) {
+            return results;
+        }
+
+        runCommand(quarkusRepo, "git", "checkout", commit);
+        if (!buildQuarkusOnce(commit, untested)) {
+            return null;
+        }
+        Map<Failure, TestResult> testResults = runTests(untested);
+        for (Failure failure : untested) {
+            TestResult testResult = testResults.get(failure);
+            // an assumed failure is only good for this bisect, the test can get a verdict in a later run
+            if (testResult != TestResult.ASSUMED_FAILED) {
+                knownVerdicts.put(verdictKey(commit, failure), TestVerdict.ofTest(commit, testSuiteCommit,
+                        extractModuleRelativePath(failure), failure.testClassName(), failure.testMethodName(),
+                        testMode(failure), testResult.passed()));
+            }
+            results.put(failure, testResult.passed());
+        }
+        return results;
+    }
+
+    private String verdictKey(String quarkusCommit, Failure failure) {
+        return verdictKey(quarkusCommit, testSuiteCommit, extractModuleRelativePath(failure),
+                failure.testClassName(), failure.testMethodName(), testMode(failure));
+    }
+
+    private static String verdictKey(String quarkusCommit, String testSuiteCommit, String moduleRelativePath,
+                                     String testClassName, String testMethodName, String mode) {
+        return String.join("|", quarkusCommit, testSuiteCommit, moduleRelativePath,
+                testClassName + "#" + testMethodName, mode);
+    }
+
+    /**
+     * Finds the Quarkus modules that changed between the installed commit and the checked out commit,
+     * so that only they and the modules that depend on them need to be built.
+     * A full build is needed when the build infrastructure changed (the root POM, the BOM, the build parent
+     * or the Maven wrapper), when a module was added or removed, or when the changes can't be mapped to modules.
+     *
+     * @param installedCommit commit whose artifacts are installed in the local Maven repository
+     * @param commit the checked out commit
+     * @return relative paths of the changed modules, null if a full build is needed
+     */
+    List<String> findChangedModules(String installedCommit, String commit) {
+        String diff;
+        try {
+            diff = runCommand(quarkusRepo, "git", "diff", "--name-status", "--no-renames", installedCommit, commit);
+        } catch (CommandFailureException e) {
+            logger.info("Failed to diff commits " + installedCommit + " and " + commit + ", building all the modules");
+            return null;
+        }
+        Set<String> modules = new TreeSet<>();
+        for (String line : diff.split("\n")) {
+            String[] statusAndFile = line.trim().split("\t");
+            if (statusAndFile.length < 2) {
+                continue;
+            }
+            String status = statusAndFile[0];
+            String file = statusAndFile[1];
+            if (isBuildInfrastructure(file)) {
+                logger.info("Build infrastructure changed (" + file + "), building all the modules");
+                return null;
+            }
+            if (file.endsWith("/pom.xml") && !status.equals("M")
+                    && Path.of(file).getParent().equals(moduleSearchDir(file))) {
+                logger.info("Module " + file + " was added or removed, building all the modules");
+                return null;
+            }
+            String module = findModule(file);
+            if (module != null) {
+                modules.add(module);
+            } else if (!file.contains("/") || file.startsWith(".github/")) {
+                // files of the root directory that are not part of the build, e.g. README.md
+                logger.debug("Ignoring change of " + file + ", it is not in any module");
+            } else {
+                logger.info("Change of " + file + " is not in any module, building all the modules");
+                return null;
+            }
+        }
+        return List.copyOf(modules);
+    }
+
+    private static boolean isBuildInfrastructure(String file) {
+        return file.equals("pom.xml") || file.startsWith("bom/") || file.startsWith("build-parent/")
+                || file.startsWith(".mvn/") || file.startsWith("mvnw");
+    }
+
+    /**
+     * @return relative path of the nearest directory of the file with a POM (other than the root one),
+     *         that can be a reactor module, null if there is none
+     */
+    private String findModule(String file) {
+        Path dir = moduleSearchDir(file);
+        while (dir != null) {
+            if (Files.exists(quarkusRepo.resolve(dir.toString()).resolve("pom.xml"))) {
+                return dir.toString();
+            }
+            dir = dir.getParent();
+        }
+        return null;
+    }
+
+    /**
+     * The POMs of the test projects (e.g. under {@code src/test/resources}) are not reactor modules, the changes
+     * of their files belong to the module that contains them.
+     *
+     * @return the directory of the file outside of the directories that can't contain reactor modules,
+     *         null if there is none
+     */
+    private static Path moduleSearchDir(String file) {
+        Path dir = Path.of(file).getParent();
+        if (dir == null) {
+            return null;
+        }
+        for (int i = 0; i < dir.getNameCount(); i++) {
+            if (QuarkusDependencyClosure.isSkippedDir(dir.getName(i).toString())) {
+                return i == 0 ? null : dir.subpath(0, i);
+            }
+        }
+        return dir;
+    }
+
     /**
      * Build Quarkus with quick profile.
      */
     protected boolean buildQuarkus(String commit) {
         logger.info("Building Quarkus with 'MAVEN_OPTS=\"-Xmx4g\" ./mvnw -Dquickly' (as per CONTRIBUTING.md)");
+        return runQuarkusBuild(commit, List.of("./mvnw", "-Dquickly"));
+    }
+
+    /**
+     * Build the Quarkus modules and the modules that depend on them with quick profile, on top of the artifacts
+     * of the previously built commit installed in the local Maven repository.
+     *
+     * @param modules relative paths of the modules
+     */
+    protected boolean buildQuarkusModules(String commit, List<String> modules) {
+        List<String> command = List.of("./mvnw", "-Dquickly", "-pl", String.join(",", modules), "-amd");
+        logger.info("Building Quarkus with '" + String.join(" ", command) + "'");
+        return runQuarkusBuild(commit, command);
+    }
+
+    /**
+     * Build the Quarkus modules and the modules they depend on with quick profile.
+     *
+     * @param modules relative paths of the modules
+     */
+    protected boolean buildQuarkusWithDependencies(String commit, List<String> modules) {
+        List<String> command = List.of("./mvnw", "-Dquickly", "-pl", String.join(",", modules), "-am");
+        logger.info("Building Quarkus with '" + String.join(" ", command) + "'");
+        return runQuarkusBuild(commit, command);
+    }
 
-        ProcessBuilder pb = new ProcessBuilder("./mvnw", "-Dquickly");
+    private boolean runQuarkusBuild(String commit, List<String> command) {
+        ProcessBuilder pb = new ProcessBuilder(command);
         pb.directory(quarkusRepo.toFile());
         pb.redirectErrorStream(true);
         // Set MAVEN_OPTS as recommended in https://github.com/quarkusio/quarkus/blob/main/CONTRIBUTING.md
@@ -890,126 +1524,182 @@ class NaiveUpstreamChangeFinder implements UpstreamChangeFinder {
             }
             return success;
         } catch (IOException | InterruptedException e) {
-            logger.error("Build command failed to execute: " + e.getMessage());
             if (e instanceof InterruptedException) {
                 Thread.currentThread().interrupt();
             }
-            return false;
+            throw new BuildNotStartedException("Build command failed to execute: " + e.getMessage(), e);
         }
     }
 
     /**
-     * Run a specific test against the built Quarkus.
+     * Run the tests of all the failures against the built Quarkus.
+     * Failing tests of the same module run in one Maven invocation, so that the module is cleaned and built
+     * once, and the verdict of every test is read from the FailSafe reports.
+     *
+     * @return result of the test for each failure
      */
-    protected boolean runTest(Failure failure) {
-        // Extract test class simple name (outside try for use in catch block)
-        String testClass = failure.testClassName();
-        int lastDot = testClass.lastIndexOf('.');
-        String simpleClassName = lastDot >= 0 ? testClass.substring(lastDot + 1) : testClass;
-
-        try {
-
-            // Extract module path from the failure
-            // The modulePath is the absolute path to the module, we need relative path
-            String moduleRelativePath = extractModuleRelativePath(failure);
-
-            // Detect if this is a native mode test by checking if "native" appears in the module path
-            // Artifact names follow pattern: artifacts-native21-... or artifacts-jvm21-...
-            boolean isNativeTest = failure.modulePath().toLowerCase().contains("native");
-            String testMode = isNativeTest ? "NATIVE" : "JVM";
-
-            logger.info("Running test " + simpleClassName + " in module " + moduleRelativePath + " [" + testMode + " mode]");
-
-            // Get the Quarkus version that was built
-            String quarkusVersion = getQuarkusVersion();
-            logger.info("Using Quarkus version: " + quarkusVersion);
-
-            // Build Maven command arguments (matching quarkus-test-suite daily build)
-            List<String> mvnArgs = new ArrayList<>();
-            mvnArgs.add("mvn");
-            mvnArgs.add("-fae"); // fail at end
-            mvnArgs.add("-V"); // show version
-            mvnArgs.add("-B"); // batch mode (non-interactive)
-            mvnArgs.add("--no-transfer-progress"); // don't show download progress
-            mvnArgs.add("clean");
-            mvnArgs.add("verify");
-            mvnArgs.add("-Dit.test=" + simpleClassName);
-            mvnArgs.add("-Dquarkus.platform.version=" + quarkusVersion);
-
-            // Always add Quarkus CLI test args (needed for CLI-related tests)
-            mvnArgs.add("-Dinclude.quarkus-cli-tests");
-            // The quarkus-dev-cli script is created in the current working directory by the workflow
-            // Use absolute path from current working directory, not from test suite parent
-            Path quarkusCliPath = Paths.get("quarkus-dev-cli").toAbsolutePath();
-            mvnArgs.add("-Dts.quarkus.cli.cmd=" + quarkusCliPath);
-
-            // Add native-specific args if this is a native test
-            if (isNativeTest) {
-                mvnArgs.add("-Dnative");
-                mvnArgs.add("-Dquarkus.native.builder-image=quay.io/quarkus/ubi9-quarkus-mandrel-builder-image:jdk-21");
-            }
+    protected Map<Failure, TestResult> runTests(List<Failure> failures) {
+        Map<String, List<Failure>> failuresByModule = new LinkedHashMap<>();
+        for (Failure failure : failures) {
+            String module = extractModuleRelativePath(failure) + (isNativeTest(failure) ? " [NATIVE]" : " [JVM]");
+            failuresByModule.computeIfAbsent(module, _ -> new ArrayList<>()).add(failure);
+        }
 
-            mvnArgs.add("-f");
-            mvnArgs.add(moduleRelativePath);
+        Map<Failure, TestResult> results = new HashMap<>();
+        for (List<Failure> moduleFailures : failuresByModule.values()) {
+            results.putAll(runModuleTests(moduleFailures));
+        }
+        return results;
+    }
 
+    /**
+     * Run the tests of the failures from the same module in one Maven invocation and read their verdicts
+     * from the FailSafe reports of the module.
+     */
+    protected Map<Failure, TestResult> runModuleTests(List<Failure> failures) {
+        Failure first = failures.getFirst();
+        String moduleRelativePath = extractModuleRelativePath(first);
+        boolean isNativeTest = isNativeTest(first);
+        String testClasses = failures.stream()
+                .map(failure -> getSimpleClassName(failure.testClassName()))
+                .distinct()
+                .collect(Collectors.joining(","));
+        logger.info("Running tests " + testClasses + " in module " + moduleRelativePath + " ["
+                + (isNativeTest ? "NATIVE" : "JVM") + " mode]");
+
+        Map<Failure, TestResult> results = new HashMap<>();
+        String output;
+        boolean mavenFailed = false;
+        try {
+            List<String> mvnArgs = mavenTestCommand(testClasses, moduleRelativePath, isNativeTest);
             logger.info("Executing: " + String.join(" ", mvnArgs));
+            output = runTestCommand(mvnArgs);
+        } catch (CommandFailureException e) {
+            // failing tests fail the build, the verdicts are in the reports
+            output = e.getOutput();
+            mavenFailed = true;
+        } catch (Exception e) {
+            logger.error("Test execution failed: " + e.getMessage());
+            // Maven did not run, the tests failed for this bisect only
+            failures.forEach(failure -> results.put(failure, TestResult.ASSUMED_FAILED));
+            return results;
+        }
 
-            String output = runCommand(testSuiteRepo, mvnArgs.toArray(new String[0]));
-
-            // Check if test passed
-            boolean testPassed = output.contains("BUILD SUCCESS") && !output.contains("Failures: 0, Errors: 0");
-
-            if (!testPassed) {
-                logger.info("Test FAILED");
-
-                // Save full test output to file for debugging
-                String logFileName = "test-failed-" + simpleClassName + "-" +
-                    System.currentTimeMillis() + ".log";
-                Path logFile = Paths.get(logFileName);
-                try {
-                    Files.writeString(logFile, output);
-                    logger.info("Full test log saved to: " + logFile.toAbsolutePath());
-                } catch (IOException e) {
-                    logger.error("Failed to save test log: " + e.getMessage());
-                }
-
-                // Extract and log relevant failure information
-                logger.info("============ TEST FAILURE DETAILS ============");
-                String failureDetails = extractTestFailureDetails(output);
-                logger.info(failureDetails);
-                logger.info("==============================================");
+        Path reportsDir = testSuiteRepo.resolve(moduleRelativePath).resolve("target").resolve("failsafe-reports");
+        Map<String, Map<String, Boolean>> verdictsByClass = new HashMap<>();
+        for (Failure failure : failures) {
+            Boolean testPassed = verdictsByClass
+                    .computeIfAbsent(failure.testClassName(), testClass -> FailsafeTestVerdicts.read(reportsDir, testClass))
+                    .get(failure.testMethodName());
+            TestResult testResult;
+            if (testPassed != null) {
+                testResult = testPassed ? TestResult.PASSED : TestResult.FAILED;
+            } else if (mavenFailed) {
+                // the test did not run because the build failed, e.g. the module failed to compile
+                logger.info("No result of test " + testKey(failure) + " in " + reportsDir + ", Maven failed");
+                testResult = TestResult.FAILED;
             } else {
-                logger.info("Test PASSED");
+                // the test did not run or it was skipped, but nothing failed
+                logger.info("No result of test " + testKey(failure) + " in " + reportsDir + ", assuming it failed");
+                testResult = TestResult.ASSUMED_FAILED;
             }
+            logger.info("Test " + testKey(failure) + (testResult.passed() ? " PASSED" : " FAILED"));
+            results.put(failure, testResult);
+        }
 
-            return testPassed;
-
-        } catch (CommandFailureException e) {
-            logger.error("Test execution failed: " + e.getMessage());
-
+        if (!results.values().stream().allMatch(TestResult::passed)) {
             // Save full test output to file for debugging
-            String logFileName = "test-failed-" + simpleClassName + "-" +
-                System.currentTimeMillis() + ".log";
-            Path logFile = Paths.get(logFileName);
+            Path logFile = Paths.get("test-failed-" + moduleRelativePath.replace('/', '-') + "-" +
+                    System.currentTimeMillis() + ".log");
             try {
-                Files.writeString(logFile, e.getOutput());
+                Files.writeString(logFile, output);
                 logger.info("Full test log saved to: " + logFile.toAbsolutePath());
-            } catch (IOException ioEx) {
-                logger.error("Failed to save test log: " + ioEx.getMessage());
+            } catch (IOException e) {
+                logger.error("Failed to save test log: " + e.getMessage());
             }
 
             // Extract and log relevant failure information
             logger.info("============ TEST FAILURE DETAILS ============");
-            String failureDetails = extractTestFailureDetails(e.getOutput());
-            logger.info(failureDetails);
+            logger.info(extractTestFailureDetails(output));
             logger.info("==============================================");
+        }
+        return results;
+    }
 
-            return false;
-        } catch (Exception e) {
-            logger.error("Test execution failed: " + e.getMessage());
-            // If execution fails, assume test failed
-            return false;
+    /**
+     * Run the Maven command of the tests in the test suite repository.
+     *
+     * @return output of the command
+     */
+    protected String runTestCommand(List<String> mvnArgs) {
+        return runCommand(testSuiteRepo, mvnArgs.toArray(new String[0]));
+    }
+
+    /**
+     * Maven command that runs the test classes of the module against the built Quarkus.
+     *
+     * @param testClasses comma-separated simple names of the test classes
+     */
+    private List<String> mavenTestCommand(String testClasses, String moduleRelativePath, boolean isNativeTest) {
+        // Build Maven command arguments (matching quarkus-test-suite daily build)
+        List<String> mvnArgs = new ArrayList<>();
+        mvnArgs.add("mvn");
+        mvnArgs.add("-fae"); // fail at end
+        mvnArgs.add("-V"); // show version
+        mvnArgs.add("-B"); // batch mode (non-interactive)
+        mvnArgs.add("--no-transfer-progress"); // don't show download progress
+        mvnArgs.add("clean");
+        mvnArgs.add("verify");
+        mvnArgs.add("-Dit.test=" + testClasses);
+        mvnArgs.addAll(testSuiteProperties(isNativeTest));
+
+        mvnArgs.add("-f");
+        mvnArgs.add(moduleRelativePath);
+
+        return mvnArgs;
+    }
+
+    /**
+     * Properties of the Maven commands run in the test suite module against the built Quarkus.
+     */
+    private List<String> testSuiteProperties(boolean isNativeTest) {
+        // version of the checked out Quarkus commit, the one that is built
+        String quarkusVersion = getQuarkusVersion();
+        logger.info("Using Quarkus version: " + quarkusVersion);
+
+        List<String> mvnArgs = new ArrayList<>();
+        mvnArgs.add("-Dquarkus.platform.version=" + quarkusVersion);
+
+        // Always add Quarkus CLI test args (needed for CLI-related tests)
+        mvnArgs.add("-Dinclude.quarkus-cli-tests");
+        // The quarkus-dev-cli script is created in the current working directory by the workflow
+        // Use absolute path from current working directory, not from test suite parent
+        Path quarkusCliPath = Paths.get("quarkus-dev-cli").toAbsolutePath();
+        mvnArgs.add("-Dts.quarkus.cli.cmd=" + quarkusCliPath);
+
+        // Add native-specific args if this is a native test
+        if (isNativeTest) {
+            mvnArgs.add("-Dnative");
+            mvnArgs.add("-Dquarkus.native.builder-image=quay.io/quarkus/ubi9-quarkus-mandrel-builder-image:jdk-21");
         }
+        return mvnArgs;
+    }
+
+    /**
+     * Detect if this is a native mode test by checking if "native" appears in the module path.
+     * Artifact names follow pattern: artifacts-native21-... or artifacts-jvm21-...
+     */
+    private static boolean isNativeTest(Failure failure) {
+        return failure.modulePath().toLowerCase().contains("native");
+    }
+
+    private static String testMode(Failure failure) {
+        return isNativeTest(failure) ? "NATIVE" : "JVM";
+    }
+
+    private static String getSimpleClassName(String testClass) {
+        int lastDot = testClass.lastIndexOf('.');
+        return lastDot >= 0 ? testClass.substring(lastDot + 1) : testClass;
     }
 
     /**
@@ -1239,6 +1929,84 @@ class NaiveUpstreamChangeFinder implements UpstreamChangeFinder {
         }
     }
 
+    /**
+     * Maven did not build the commit, e.g. it could not be started or the build was interrupted,
+     * so the commit is not known to be unbuildable.
+     */
+    private static class BuildNotStartedException extends RuntimeException {
+
+        BuildNotStartedException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+
+    /**
+     * Result of a test run against a Quarkus commit.
+     */
+    enum TestResult {
+        /** The report of the test says it passed */
+        PASSED,
+        /** The report of the test says it failed, or Maven failed before the test could run */
+        FAILED,
+        /** The test has no verdict, e.g. Maven could not be started, it only counts as failed for the bisect */
+        ASSUMED_FAILED;
+
+        boolean passed() {
+            return this == PASSED;
+        }
+    }
+
+    /**
+     * Candidate commits of one failure in a joint bisect, the commits are indexes to the commit list,
+     * which is ordered from the newest commit (index 0) to the oldest one.
+     */
+    private static final class BisectRange {
+
+        private final Failure failure;
+        private final List<String> testedCommits;
+        // the newest commit where the test passed
+        private int lastPassing;
+        // the oldest commit where the test failed, -1 until the failure is reproduced
+        private int firstFailing = -1;
+
+        private BisectRange(Failure failure, int lastPassing, List<String> testedCommits) {
+            this.failure = failure;
+            this.lastPassing = lastPassing;
+            this.testedCommits = testedCommits;
+        }
+
+        private boolean contains(int commit) {
+            return commit > firstFailing && commit < lastPassing;
+        }
+
+        private void narrow(int commit, boolean testPassed) {
+            if (testPassed) {
+                lastPassing = commit;
+            } else {
+                firstFailing = commit;
+            }
+        }
+
+        /**
+         * @return the next buildable commit to test, or -1 if the range is resolved
+         */
+        private int nextCommit(AppConfig.BisectStrategy strategy, Set<Integer> unbuildable) {
+            int newest = firstFailing + 1;
+            int oldest = lastPassing - 1;
+            int preferred = strategy == AppConfig.BisectStrategy.LINEAR ? oldest : newest + (oldest - newest) / 2;
+            // the buildable commit closest to the preferred one
+            for (int distance = 0; distance <= oldest - newest; distance++) {
+                if (preferred + distance <= oldest && !unbuildable.contains(preferred + distance)) {
+                    return preferred + distance;
+                }
+                if (preferred - distance >= newest && !unbuildable.contains(preferred - distance)) {
+                    return preferred - distance;
+                }
+            }
+            return -1;
+        }
+    }
+
     /**
      * Result of git bisect operation.
      */
@@ -0,0 +1,301 @@
+package io.quarkus.qe.test.failure.detector.analyze.upstream.change.finder;
+
+import io.quarkus.qe.test.failure.detector.configuration.AppConfig;
+import io.quarkus.qe.test.failure.detector.lifecycle.OnCommandExit;
+import io.quarkus.qe.test.failure.detector.logger.Logger;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+
+import java.io.IOException;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Cache of the Quarkus artifacts built during the bisects, shared by all the runs of this tool, so that a Quarkus
+ * commit is never built twice. An entry is keyed by the commit SHA and contains all the {@code 999-SNAPSHOT}
+ * directories installed under {@code io/quarkus} in the local Maven repository, except for the test framework
+ * artifacts under {@code io/quarkus/qe}, which are not part of Quarkus:
+ * <pre>
+ * {cache dir}/{commit}/repository/io/quarkus/{artifact}/999-SNAPSHOT/...
+ * </pre>
+ * Files are copied between the local Maven repository and the cache, so a build that writes into an installed
+ * file never changes a cached file. The last-modified time of the entry directory is the time of the last use.
+ * When the cache grows over the {@link AppConfig#buildCacheSizeMb()}, the least recently used entries are deleted.
+ */
+@Singleton
+final class QuarkusBuildCache {
+
+    static final String SNAPSHOT_VERSION = "999-SNAPSHOT";
+    static final String REPOSITORY = "repository";
+    private static final Path QUARKUS_GROUP = Path.of("io", "quarkus");
+    private static final Path TEST_FRAMEWORK_GROUP = QUARKUS_GROUP.resolve("qe");
+    private static final String SIZE_FILE = REPOSITORY + ".size";
+    private static final String STAGING_DIR_PREFIX = ".staging-";
+    // staging directories of runs that were killed in the middle of storing an entry
+    private static final Duration ABANDONED_STAGING_DIR_AGE = Duration.ofDays(1);
+
+    private final Logger logger;
+    private final Path localRepository;
+    private Path cacheDir = null;
+    private long maxSizeBytes = 0;
+    private int hits = 0;
+    private int misses = 0;
+
+    @Inject
+    QuarkusBuildCache(Logger logger) {
+        this(logger, defaultLocalRepository());
+    }
+
+    QuarkusBuildCache(Logger logger, Path localRepository) {
+        this.logger = logger;
+        this.localRepository = localRepository;
+    }
+
+    void updateConfiguration(@Observes AppConfig appConfig) {
+        this.cacheDir = appConfig.buildCacheDir() == null ? null : Path.of(appConfig.buildCacheDir());
+        this.maxSizeBytes = appConfig.buildCacheSizeMb() * 1024 * 1024;
+    }
+
+    boolean isEnabled() {
+        return cacheDir != null && maxSizeBytes > 0;
+    }
+
+    /**
+     * @return whether the artifacts of the commit are cached
+     */
+    synchronized boolean contains(String commit) {
+        return isEnabled() && Files.exists(cacheDir.resolve(commit).resolve(SIZE_FILE));
+    }
+
+    /**
+     * Replaces the Quarkus snapshot artifacts in the local Maven repository with the cached artifacts of the commit.
+     *
+     * @return whether the commit was cached, if not, the local Maven repository is left as it was
+     */
+    synchronized boolean restore(String commit) {
+        if (!isEnabled()) {
+            return false;
+        }
+        Path entry = cacheDir.resolve(commit);
+        if (!Files.exists(entry.resolve(SIZE_FILE))) {
+            // the size file is written last, the entry without it is incomplete
+            misses++;
+            return false;
+        }
+        try {
+            deleteSnapshots(localRepository);
+            copyTree(entry.resolve(REPOSITORY), localRepository);
+        } catch (IOException e) {
+            logger.error("Failed to restore Quarkus commit " + commit + " from the build cache: " + e.getMessage());
+            try {
+                // don't leave a mix of the artifacts of different commits behind
+                deleteSnapshots(localRepository);
+            } catch (IOException deleteException) {
+                logger.error("Failed to delete the partially restored Quarkus artifacts: " + deleteException.getMessage());
+            }
+            misses++;
+            return false;
+        }
+        hits++;
+        use(entry);
+        logger.info("Restored Quarkus commit " + commit + " from the build cache");
+        return true;
+    }
+
+    /**
+     * Stores the Quarkus snapshot artifacts that are in the local Maven repository after a successful build
+     * of the commit.
+     */
+    synchronized void store(String commit) {
+        if (!isEnabled() || contains(commit)) {
+            return;
+        }
+        Path stagingDir = null;
+        try {
+            List<Path> snapshotDirs = findSnapshotDirs(localRepository);
+            if (snapshotDirs.isEmpty()) {
+                logger.info("No Quarkus " + SNAPSHOT_VERSION + " artifacts in " + localRepository
+                        + ", commit " + commit + " is not cached");
+                return;
+            }
+            // on the same file store as the cache, so that the move is atomic and other runs never see
+            // an incomplete entry
+            stagingDir = Files.createTempDirectory(Files.createDirectories(cacheDir), STAGING_DIR_PREFIX);
+            Path stagedRepository = stagingDir.resolve(REPOSITORY);
+            for (Path snapshotDir : snapshotDirs) {
+                copyTree(snapshotDir, stagedRepository.resolve(localRepository.relativize(snapshotDir).toString()));
+            }
+            long size = sizeOf(stagedRepository);
+            Path entry = Files.createDirectories(cacheDir.resolve(commit));
+            try {
+                Files.move(stagedRepository, entry.resolve(REPOSITORY), StandardCopyOption.ATOMIC_MOVE);
+                Files.writeString(entry.resolve(SIZE_FILE), Long.toString(size));
+                logger.info("Stored Quarkus commit " + commit + " in the build cache (" + size / 1024 / 1024 + " MB)");
+            } catch (FileAlreadyExistsException | DirectoryNotEmptyException e) {
+                // another run built the same commit in the meantime
+                logger.debug("Quarkus commit " + commit + " is already in the build cache");
+            }
+            use(entry);
+        } catch (IOException e) {
+            logger.error("Failed to store Quarkus commit " + commit + " in the build cache: " + e.getMessage());
+        } finally {
+            if (stagingDir != null) {
+                try {
+                    deleteRecursively(stagingDir);
+                } catch (IOException e) {
+                    logger.debug("Failed to delete build cache staging directory " + stagingDir + ": " + e.getMessage());
+                }
+            }
+        }
+        evict();
+    }
+
+    int hits() {
+        return hits;
+    }
+
+    int misses() {
+        return misses;
+    }
+
+    void logStatistics(@Observes OnCommandExit ignored) {
+        if (hits + misses > 0) {
+            logger.info("Quarkus build cache: " + hits + " hit(s), " + misses + " miss(es)");
+        }
+    }
+
+    /**
+     * Deletes the least recently used entries until the cache fits into the configured size.
+     */
+    private void evict() {
+        List<Entry> entries = new ArrayList<>();
+        long totalSize = 0;
+        try (Stream<Path> dirs = Files.list(cacheDir)) {
+            for (Path dir : dirs.filter(Files::isDirectory).toList()) {
+                if (dir.getFileName().toString().startsWith(STAGING_DIR_PREFIX)) {
+                    deleteAbandonedStagingDir(dir);
+                    continue;
+                }
+                Path sizeFile = dir.resolve(SIZE_FILE);
+                if (Files.exists(sizeFile)) {
+                    Entry entry = new Entry(dir, Files.getLastModifiedTime(dir),
+                            Long.parseLong(Files.readString(sizeFile).trim()));
+                    entries.add(entry);
+                    totalSize += entry.size();
+                }
+            }
+        } catch (IOException e) {
+            logger.error("Failed to list the build cache " + cacheDir + ": " + e.getMessage());
+            return;
+        }
+        entries.sort(Comparator.comparing(Entry::lastUsed));
+        for (Entry entry : entries) {
+            if (totalSize <= maxSizeBytes) {
+                break;
+            }
+            try {
+                deleteRecursively(entry.dir());
+                totalSize -= entry.size();
+                logger.debug("Evicted Quarkus commit " + entry.dir().getFileName() + " from the build cache");
+            } catch (IOException e) {
+                logger.error("Failed to evict " + entry.dir() + " from the build cache: " + e.getMessage());
+            }
+        }
+    }
+
+    private void use(Path entry) {
+        try {
+            Files.setLastModifiedTime(entry, FileTime.from(Instant.now()));
+        } catch (IOException e) {
+            logger.debug("Failed to mark build cache entry " + entry + " as used: " + e.getMessage());
+        }
+    }
+
+    private void deleteAbandonedStagingDir(Path dir) throws IOException {
+        Instant lastModified = Files.getLastModifiedTime(dir).toInstant();
+        if (lastModified.isBefore(Instant.now().minus(ABANDONED_STAGING_DIR_AGE))) {
+            deleteRecursively(dir);
+        }
+    }
+
+    private static List<Path> findSnapshotDirs(Path repository) throws IOException {
+        Path quarkusGroup = repository.resolve(QUARKUS_GROUP.toString());
+        if (!Files.isDirectory(quarkusGroup)) {
+            return List.of();
+        }
+        Path testFrameworkGroup = repository.resolve(TEST_FRAMEWORK_GROUP.toString());
+        try (Stream<Path> dirs = Files.walk(quarkusGroup)) {
+            return dirs.filter(dir -> dir.getFileName().toString().equals(SNAPSHOT_VERSION) && Files.isDirectory(dir))
+                    .filter(dir -> !dir.startsWith(testFrameworkGroup))
+                    .toList();
+        }
+    }
+
+    private static void deleteSnapshots(Path repository) throws IOException {
+        for (Path snapshotDir : findSnapshotDirs(repository)) {
+            deleteRecursively(snapshotDir);
+        }
+    }
+
+    /**
+     * Copies all the files of the source directory to the target directory, replacing the existing files.
+     */
+    private static void copyTree(Path source, Path target) throws IOException {
+        try (Stream<Path> files = Files.walk(source)) {
+            for (Path file : files.toList()) {
+                Path targetFile = target.resolve(source.relativize(file).toString());
+                if (Files.isDirectory(file)) {
+                    Files.createDirectories(targetFile);
+                } else {
+                    Files.copy(file, targetFile, StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+        }
+    }
+
+    private static long sizeOf(Path dir) throws IOException {
+        if (!Files.exists(dir)) {
+            return 0;
+        }
+        try (Stream<Path> files = Files.walk(dir)) {
+            long size = 0;
+            for (Path file : files.filter(Files::isRegularFile).toList()) {
+                size += Files.size(file);
+            }
+            return size;
+        }
+    }
+
+    private static void deleteRecursively(Path dir) throws IOException {
+        if (!Files.exists(dir)) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    private static Path defaultLocalRepository() {
+        String localRepository = System.getProperty("maven.repo.local");
+        if (localRepository != null) {
+            return Path.of(localRepository);
+        }
+        return Path.of(System.getProperty("user.home"), ".m2", "repository");
+    }
+
+    private record Entry(Path dir, FileTime lastUsed, long size) {
+    }
+}
@@ -0,0 +1,159 @@
+package io.quarkus.qe.test.failure.detector.analyze.upstream.change.finder;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Maps the Quarkus artifacts a test suite module depends on to the Quarkus modules that produce them,
+ * so that only these modules need to be built to run the test.
+ * The dependencies are read from the {@code mvn dependency:list -DoutputFile=...} output of the test suite module.
+ * It only lists the runtime artifacts, the deployment artifacts of the extensions are resolved by Quarkus
+ * when the application is built, so the deployment module of every extension is added as well.
+ */
+final class QuarkusDependencyClosure {
+
+    private static final String QUARKUS_GROUP_ID = "io.quarkus";
+    // the test suite framework is not part of Quarkus
+    private static final String TEST_FRAMEWORK_GROUP_ID = "io.quarkus.qe";
+    private static final String DEPLOYMENT_SUFFIX = "-deployment";
+    /**
+     * Artifacts that every test suite module needs, but that are not its dependencies.
+     */
+    private static final List<String> ALWAYS_BUILT_ARTIFACTS = List.of("quarkus-bom", "quarkus-maven-plugin");
+    // directories that never contain reactor modules, but can contain POMs of test projects
+    private static final Set<String> SKIPPED_DIRS = Set.of("src", "target", "node_modules");
+
+    private static final XMLInputFactory XML_INPUT_FACTORY = createXmlInputFactory();
+
+    private QuarkusDependencyClosure() {
+    }
+
+    /**
+     * @param dependencyListFile output file of the 'dependency:list' goal
+     * @return artifact IDs of the Quarkus dependencies
+     */
+    static Set<String> readQuarkusArtifactIds(Path dependencyListFile) throws IOException {
+        Set<String> artifactIds = new TreeSet<>();
+        for (String line : Files.readAllLines(dependencyListFile)) {
+            // groupId:artifactId:type[:classifier]:version:scope, newer versions append " -- module ..."
+            String[] coordinates = line.strip().split(":");
+            if (coordinates.length < 4) {
+                continue;
+            }
+            String groupId = coordinates[0];
+            if ((groupId.equals(QUARKUS_GROUP_ID) || groupId.startsWith(QUARKUS_GROUP_ID + "."))
+                    && !groupId.startsWith(TEST_FRAMEWORK_GROUP_ID)) {
+                artifactIds.add(coordinates[1]);
+            }
+        }
+        return artifactIds;
+    }
+
+    /**
+     * @param quarkusRepo checked out Quarkus repository
+     * @return relative path of the module by its artifact ID, the root module is not included
+     */
+    static Map<String, String> findModulesByArtifactId(Path quarkusRepo) throws IOException {
+        Map<String, String> modulesByArtifactId = new HashMap<>();
+        Files.walkFileTree(quarkusRepo, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                String name = dir.getFileName().toString();
+                if (!dir.equals(quarkusRepo) && isSkippedDir(name)) {
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+                Path pom = dir.resolve("pom.xml");
+                if (!dir.equals(quarkusRepo) && Files.isRegularFile(pom)) {
+                    String artifactId = readArtifactId(pom);
+                    if (artifactId != null) {
+                        modulesByArtifactId.putIfAbsent(artifactId, quarkusRepo.relativize(dir).toString());
+                    }
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        return modulesByArtifactId;
+    }
+
+    /**
+     * @return whether the directory can't contain reactor modules, e.g. the test projects under {@code src}
+     */
+    static boolean isSkippedDir(String name) {
+        return name.startsWith(".") || SKIPPED_DIRS.contains(name);
+    }
+
+    /**
+     * @param artifactIds artifact IDs of the Quarkus dependencies
+     * @param modulesByArtifactId relative path of the module by its artifact ID
+     * @return relative paths of the modules that produce the artifacts, their deployment artifacts
+     *         and the artifacts every test suite module needs; artifacts of other projects are ignored
+     */
+    static Set<String> toModules(Set<String> artifactIds, Map<String, String> modulesByArtifactId) {
+        Set<String> modules = new TreeSet<>();
+        for (String artifactId : artifactIds) {
+            for (String moduleArtifactId : List.of(artifactId, artifactId + DEPLOYMENT_SUFFIX)) {
+                String module = modulesByArtifactId.get(moduleArtifactId);
+                if (module != null) {
+                    modules.add(module);
+                }
+            }
+        }
+        for (String artifactId : ALWAYS_BUILT_ARTIFACTS) {
+            String module = modulesByArtifactId.get(artifactId);
+            if (module != null) {
+                modules.add(module);
+            }
+        }
+        return modules;
+    }
+
+    /**
+     * @return artifact ID of the project (not of its parent), null if the POM can't be read
+     */
+    private static String readArtifactId(Path pom) {
+        try (InputStream input = Files.newInputStream(pom)) {
+            XMLStreamReader reader = XML_INPUT_FACTORY.createXMLStreamReader(input);
+            try {
+                int depth = 0;
+                while (reader.hasNext()) {
+                    int event = reader.next();
+                    if (event == XMLStreamConstants.START_ELEMENT) {
+                        depth++;
+                        if (depth == 2 && "artifactId".equals(reader.getLocalName())) {
+                            return reader.getElementText().strip();
+                        }
+                    } else if (event == XMLStreamConstants.END_ELEMENT) {
+                        depth--;
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (IOException | XMLStreamException e) {
+            // not a valid POM, e.g. a template
+            return null;
+        }
+        return null;
+    }
+
+    private static XMLInputFactory createXmlInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    }
+}
@@ -1,7 +1,10 @@
 package io.quarkus.qe.test.failure.detector.cli;
 
+import io.quarkus.qe.test.failure.detector.analyze.AnalysisPlan;
 import io.quarkus.qe.test.failure.detector.analyze.FailuresAnalyzer;
+import io.quarkus.qe.test.failure.detector.analyze.RootCause;
 import io.quarkus.qe.test.failure.detector.configuration.AppConfig;
+import io.quarkus.qe.test.failure.detector.find.Failure;
 import io.quarkus.qe.test.failure.detector.find.FailuresFinder;
 import io.quarkus.qe.test.failure.detector.lifecycle.OnCommandExit;
 import io.quarkus.qe.test.failure.detector.output.Data;
@@ -10,15 +13,26 @@ import io.quarkus.qe.test.failure.detector.project.ProjectSource;
 import io.quarkus.qe.test.failure.detector.report.RootCauseReportBuilder;
 import io.quarkus.qe.test.failure.detector.report.RootCauseReportBuilderProvider;
 import jakarta.enterprise.event.Event;
+import jakarta.enterprise.inject.Instance;
 import jakarta.inject.Inject;
 import picocli.CommandLine;
 
+import java.io.Reader;
 import java.nio.file.Path;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import static io.quarkus.qe.test.failure.detector.cli.CommandUtils.parseDate;
 
@@ -28,19 +42,25 @@ public class ProcessTestFailuresCommand implements Runnable {
     @CommandLine.Spec
     CommandLine.Model.CommandSpec spec;
 
-    @CommandLine.Parameters(arity = "1", paramLabel = "PROJECT_SOURCE", description = """
+    @CommandLine.Parameters(index = "0", arity = "1", paramLabel = "PROJECT_SOURCE", description = """
             Source of a project with test results.
             By default, this command looks for the failures in the current directory with the 'LOCAL_DIRECTORY' source.
             If the 'GITHUB_ACTION_ARTIFACTS' project source is selected, you may also specify the specific workflow.
+            The 'GITHUB_ACTION_ARTIFACT_ZIPS' project source reads the reports from the artifacts without extracting them.
+            The 'GITHUB_ACTION_ARTIFACT_STREAM' project source reads the reports while the artifacts are downloaded,
+            without storing them, so failures are analyzed before all the artifacts are downloaded.
             """, defaultValue = "LOCAL_DIRECTORY")
     ProjectSource projectSource;
 
-    @CommandLine.Parameters(arity = "1", paramLabel = "PROJECT_SOURCE_ARGUMENT", description = """
+    @CommandLine.Parameters(index = "1..*", arity = "0..*", paramLabel = "PROJECT_SOURCE_ARGUMENT", description = """
             Arguments passed to the project source.
-            For the 'GITHUB_ACTION_ARTIFACTS' project source, this should be a link to the project workflow,
+            For the 'GITHUB_ACTION_ARTIFACTS', 'GITHUB_ACTION_ARTIFACT_ZIPS' and 'GITHUB_ACTION_ARTIFACT_STREAM' project sources, this should be a link to the project workflow,
             for example "https://github.com/quarkus-qe/quarkus-test-suite/actions/workflows/daily.yaml"
+            More arguments (workflows, workflow runs or directories) are analyzed in one session, which shares
+            the repository clones, the Quarkus builds and the bisect results. A report is created for each argument
+            (the output file name gets the '-<argument number>' suffix) and a combined report for all of them.
             """, defaultValue = ".")
-    String projectSourceArgument;
+    List<String> projectSourceArguments;
 
     @CommandLine.Option(order = 8, names = { "--debug" }, description = "Log debug messages", defaultValue = "false")
     boolean debug = false;
@@ -93,8 +113,112 @@ public class ProcessTestFailuresCommand implements Runnable {
             """, defaultValue = "https://github.com/quarkus-qe/quarkus-test-suite.git")
     String testSuiteRepoUrl = "https://github.com/quarkus-qe/quarkus-test-suite.git";
 
+    @CommandLine.Option(order = 15, names = { "--scan-parallelism" }, description = """
+            Maximum number of FailSafe reports that are parsed concurrently.
+            Reports of all the modules (and all the downloaded artifacts) are scanned in parallel,
+            the detected failures are always processed in the same order.
+            Default: number of available processors
+            """)
+    int scanParallelism = Runtime.getRuntime().availableProcessors();
+
+    @CommandLine.Option(order = 16, names = { "--scan-index" }, description = """
+            How to use the index of already parsed FailSafe reports (only for the 'LOCAL_DIRECTORY' project source):
+            - ENABLED: Parse only new reports and reports with a changed size or last modified time (default)
+            - CHECKSUM: Like ENABLED, but also parse reports with a changed content hash
+            - REBUILD: Parse all the reports and replace the index
+            - IGNORE: Parse all the reports, neither read nor write the index
+            """, defaultValue = "ENABLED")
+    AppConfig.ScanIndexMode scanIndexMode = AppConfig.ScanIndexMode.ENABLED;
+
+    @CommandLine.Option(order = 17, names = { "--scan-index-file" }, description = """
+            Where to store the index of already parsed FailSafe reports.
+            Test run logs of the indexed failures are stored next to it, in a file with the '.logs' suffix.
+            """, defaultValue = "${sys:user.home}/.test-failure-detector/scan-index.json")
+    String scanIndexFilePath;
+
+    @CommandLine.Option(order = 18, names = { "--flaky-failures" }, description = """
+            What to do with failures of tests that passed when they were rerun (see the 'rerunFailingTestsCount' option
+            of the Surefire and FailSafe plugins):
+            - SKIP: Report them, but don't bisect them (default)
+            - DEFER: Bisect them after all the other failures
+            - BISECT: Bisect them like any other failure
+            With SKIP and DEFER, the flaky failures are analyzed after all the other failures.
+            """, defaultValue = "SKIP")
+    AppConfig.FlakyFailurePolicy flakyFailurePolicy = AppConfig.FlakyFailurePolicy.SKIP;
+
+    @CommandLine.Option(order = 19, names = { "--download-parallelism" }, description = """
+            Maximum number of GitHub workflow artifacts that are downloaded concurrently.
+            Default: 4
+            """, defaultValue = "4")
+    int downloadParallelism = 4;
+
+    @CommandLine.Option(order = 20, names = { "--all-artifacts" }, description = """
+            Download all the GitHub workflow artifacts.
+            By default, only artifacts of the failed, timed out and cancelled jobs are downloaded.
+            Artifacts are matched to the jobs by their names, artifacts that don't match exactly one job
+            are always downloaded.
+            """, defaultValue = "false")
+    boolean allArtifacts = false;
+
+    @CommandLine.Option(order = 21, names = { "--artifact-cache-dir" }, description = """
+            Where to cache the downloaded GitHub workflow artifacts.
+            Cached artifacts are not downloaded again, the extracted artifacts are reused as they are.
+            """, defaultValue = "${sys:user.home}/.test-failure-detector/artifact-cache")
+    String artifactCacheDir;
+
+    @CommandLine.Option(order = 22, names = { "--artifact-cache-size" }, description = """
+            Maximum size of the GitHub workflow artifact cache in MB, the least recently used artifacts are deleted
+            when the cache grows over it. Artifacts of the current run are never deleted. Use 0 to disable the cache.
+            Default: 10240
+            """, defaultValue = "10240")
+    long artifactCacheSizeMb = 10240;
+
+    @CommandLine.Option(order = 23, names = { "--bisect-mode" }, description = """
+            How to bisect the new root causes:
+            - JOINT: Bisect all the new root causes together once all the failures are found (default).
+              Every Quarkus commit is built once and all the failing tests whose range contains it are run against it.
+              Nothing is bisected until the whole project is scanned.
+            - SEPARATE: Bisect every new root cause as soon as it is found, each bisect builds its own commits.
+              Bisects overlap with the scan, which pays off for a slow scan (e.g. many downloaded artifacts)
+              with few new root causes.
+            """, defaultValue = "JOINT")
+    AppConfig.BisectMode bisectMode = AppConfig.BisectMode.JOINT;
+
+    @CommandLine.Option(order = 24, names = { "--plan-only" }, description = """
+            Only print the analysis plan: how the failures are grouped into root causes and which failure
+            of every group would be bisected. No upstream changes are looked up.
+            """, defaultValue = "false")
+    boolean planOnly = false;
+
+    @CommandLine.Option(order = 25, names = { "--build-cache-dir" }, description = """
+            Where to cache the Quarkus artifacts built during the bisect, by the Quarkus commit.
+            Cached commits are not built again, their artifacts are copied to the local Maven repository.
+            """, defaultValue = "${sys:user.home}/.test-failure-detector/build-cache")
+    String buildCacheDir;
+
+    @CommandLine.Option(order = 26, names = { "--build-cache-size" }, description = """
+            Maximum size of the Quarkus build cache in MB, the least recently used commits are deleted
+            when the cache grows over it. Use 0 to disable the cache.
+            Default: 20480
+            """, defaultValue = "20480")
+    long buildCacheSizeMb = 20480;
+
+    @CommandLine.Option(order = 27, names = { "--quarkus-build-mode" }, description = """
+            How to build Quarkus at the bisected commits:
+            - INCREMENTAL: Build only the modules changed since the previously built commit and the modules that
+              depend on them (default). All the modules are built when the root POM, the BOM or the build parent
+              changes, when a module is added or removed, and when the incremental build fails.
+            - FULL: Build all the modules for every commit.
+            - TARGETED: Build only the Quarkus modules the failing test suite modules depend on and the modules
+              they depend on. The dependencies are resolved with 'mvn dependency:list' once per test suite commit.
+              Falls back to INCREMENTAL when the dependencies can't be resolved and to FULL when the targeted
+              build fails.
+              Dependencies that only Quarkus extensions add at build time are not resolved.
+            """, defaultValue = "INCREMENTAL")
+    AppConfig.QuarkusBuildMode quarkusBuildMode = AppConfig.QuarkusBuildMode.INCREMENTAL;
+
     @Inject
-    FailuresAnalyzer failuresAnalyzer;
+    Instance<FailuresAnalyzer> failuresAnalyzers;
 
     @Inject
     FailuresFinder failuresFinder;
@@ -118,21 +242,150 @@ public class ProcessTestFailuresCommand implements Runnable {
     public void run() {
         consoleLogger.setWriters(spec.commandLine().getOut(), spec.commandLine().getErr(), debug);
 
-        appConfigEvent.fire(new AppConfig(lookbackDays, parseDate(from), historyFilePath, outputFilePath, bisectStrategy, testSuiteRepoUrl, projectSource, projectSourceArgument));
+        if (planOnly) {
+            plan();
+        } else if (projectSourceArguments.size() == 1) {
+            String projectSourceArgument = projectSourceArguments.getFirst();
+            fireAppConfig(projectSourceArgument, outputFilePath);
+            outputChannel.process(analyze(projectSourceArgument, _ -> { }));
+        } else {
+            analyzeBatch();
+        }
+
+        // this is done as @Shutdown is happening after the command exited and ConsoleLog is empty
+        shutdownEvent.fire(new OnCommandExit());
+    }
 
-        Path projectWithPossibleTestFailures = projectSource.getTestedProjectDirectory(projectSourceArgument);
+    /**
+     * Analyzes all the project source arguments in one session. The upstream change finder is shared,
+     * so the repositories are cloned once and a failure that occurs in more inputs is bisected once.
+     * Every input has its own analyzer and report, the combined analyzer sees the failures of all the inputs,
+     * so that a root cause shared by more inputs is reported once.
+     */
+    private void analyzeBatch() {
+        FailuresAnalyzer combinedAnalyzer = failuresAnalyzers.get();
+        List<CompletableFuture<RootCause>> combinedAnalyses = new ArrayList<>();
+        for (int i = 0; i < projectSourceArguments.size(); i++) {
+            String projectSourceArgument = projectSourceArguments.get(i);
+            consoleLogger.info("Analyzing input " + (i + 1) + " of " + projectSourceArguments.size() + ": "
+                    + projectSourceArgument);
+            fireAppConfig(projectSourceArgument, inputOutputFilePath(i + 1));
+            outputChannel.process(analyze(projectSourceArgument,
+                    failure -> combinedAnalyses.add(combinedAnalyzer.analyzeAsync(failure))));
+        }
+        combinedAnalyzer.finishAnalysis();
+        // root causes are immutable, only the latest version of each one is reported
+        Map<String, RootCause> combinedRootCauses = new LinkedHashMap<>();
+        try {
+            for (CompletableFuture<RootCause> combinedAnalysis : combinedAnalyses) {
+                RootCause rootCause = await(combinedAnalysis);
+                combinedRootCauses.put(rootCause.identifier(), rootCause);
+            }
+        } finally {
+            failuresAnalyzers.destroy(combinedAnalyzer);
+        }
 
-        Data data = failuresFinder
-                .find(projectWithPossibleTestFailures)
-                .stream()
-                .map(failuresAnalyzer::analyze)
+        consoleLogger.info("Combined report of " + projectSourceArguments.size() + " inputs");
+        fireAppConfig(String.join(", ", projectSourceArguments), outputFilePath);
+        outputChannel.process(combinedRootCauses.values().stream()
                 .reduce(reportBuilderProvider.builder(), RootCauseReportBuilder::addRootCause, (b, _) -> b)
-                .build();
+                .build());
+    }
 
-        outputChannel.process(data);
+    /**
+     * Prints the analysis plan of every input and, in a batch, the combined plan of all the inputs.
+     */
+    private void plan() {
+        boolean batch = projectSourceArguments.size() > 1;
+        List<Failure> allFailures = new ArrayList<>();
+        for (int i = 0; i < projectSourceArguments.size(); i++) {
+            String projectSourceArgument = projectSourceArguments.get(i);
+            fireAppConfig(projectSourceArgument, batch ? inputOutputFilePath(i + 1) : outputFilePath);
+            try (Stream<Failure> failures = projectSource.streamFailures(projectSourceArgument, failuresFinder)) {
+                List<Failure> inputFailures = failures.toList();
+                allFailures.addAll(inputFailures);
+                AnalysisPlan plan = AnalysisPlan.of(inputFailures);
+                outputChannel.process(() -> Reader.of(plan.toString()));
+            }
+        }
+        if (batch) {
+            fireAppConfig(String.join(", ", projectSourceArguments), outputFilePath);
+            AnalysisPlan plan = AnalysisPlan.of(allFailures);
+            outputChannel.process(() -> Reader.of(plan.toString()));
+        }
+    }
 
-        // this is done as @Shutdown is happening after the command exited and ConsoleLog is empty
-        shutdownEvent.fire(new OnCommandExit());
+    /**
+     * @param batchAnalyzer also analyzes every failure, after the analyzer of this input
+     */
+    private Data analyze(String projectSourceArgument, Consumer<Failure> batchAnalyzer) {
+        FailuresAnalyzer failuresAnalyzer = failuresAnalyzers.get();
+        // failures are assigned to root causes as soon as they are found and the upstream changes are looked up
+        // in the background, one at a time; only the SEPARATE bisect mode starts them before the scan finishes,
+        // the JOINT mode waits for all the failures in finishAnalysis
+        try (Stream<Failure> failures = projectSource.streamFailures(projectSourceArgument, failuresFinder)) {
+            List<CompletableFuture<RootCause>> analyses = new ArrayList<>();
+            // failures of tests that passed on rerun are analyzed last, so that a root cause shared with other
+            // failures is created (and bisected) for a failure that is not flaky
+            List<Failure> flakyFailures = new ArrayList<>();
+            Iterator<Failure> foundFailures = failures.iterator();
+            while (foundFailures.hasNext()) {
+                Failure failure = foundFailures.next();
+                if (failure.flaky() && flakyFailurePolicy != AppConfig.FlakyFailurePolicy.BISECT) {
+                    flakyFailures.add(failure);
+                } else {
+                    analyses.add(analyze(failure, failuresAnalyzer, batchAnalyzer));
+                }
+            }
+            for (Failure flakyFailure : flakyFailures) {
+                analyses.add(analyze(flakyFailure, failuresAnalyzer, batchAnalyzer));
+            }
+            failuresAnalyzer.finishAnalysis();
+            return analyses.stream()
+                    .map(ProcessTestFailuresCommand::await)
+                    .reduce(reportBuilderProvider.builder(), RootCauseReportBuilder::addRootCause, (b, _) -> b)
+                    .build();
+        } finally {
+            failuresAnalyzers.destroy(failuresAnalyzer);
+        }
+    }
+
+    private static CompletableFuture<RootCause> analyze(Failure failure, FailuresAnalyzer failuresAnalyzer,
+                                                        Consumer<Failure> batchAnalyzer) {
+        CompletableFuture<RootCause> analysis = failuresAnalyzer.analyzeAsync(failure);
+        batchAnalyzer.accept(failure);
+        return analysis;
+    }
+
+    private static RootCause await(CompletableFuture<RootCause> analysis) {
+        try {
+            return analysis.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+    }
+
+    private void fireAppConfig(String projectSourceArgument, String outputFilePath) {
+        appConfigEvent.fire(new AppConfig(lookbackDays, parseDate(from), historyFilePath, outputFilePath, bisectStrategy, testSuiteRepoUrl, projectSource, projectSourceArgument, scanParallelism, scanIndexMode, scanIndexFilePath, flakyFailurePolicy, downloadParallelism, allArtifacts, artifactCacheDir, artifactCacheSizeMb, bisectMode, buildCacheDir, buildCacheSizeMb, quarkusBuildMode));
+    }
+
+    /**
+     * @return the output file with the input number before the extension, "report.txt" becomes "report-1.txt"
+     */
+    private String inputOutputFilePath(int input) {
+        if (outputFilePath == null || outputFilePath.isBlank()) {
+            return outputFilePath;
+        }
+        Path outputFile = Path.of(outputFilePath);
+        String fileName = outputFile.getFileName().toString();
+        int extension = fileName.lastIndexOf('.');
+        String inputFileName = extension > 0
+                ? fileName.substring(0, extension) + "-" + input + fileName.substring(extension)
+                : fileName + "-" + input;
+        return outputFile.resolveSibling(inputFileName).toString();
     }
 
 }
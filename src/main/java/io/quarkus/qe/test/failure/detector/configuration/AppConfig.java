@@ -6,7 +6,12 @@ import java.time.Instant;
 
 public record AppConfig(int lookbackDays, Instant from, String historyFilePath, String outputFilePath,
                         BisectStrategy bisectStrategy, String testSuiteRepoUrl,
-                        ProjectSource projectSource, String projectSourceArgument) {
+                        ProjectSource projectSource, String projectSourceArgument, int scanParallelism,
+                        ScanIndexMode scanIndexMode, String scanIndexFilePath,
+                        FlakyFailurePolicy flakyFailurePolicy, int downloadParallelism,
+                        boolean allArtifacts, String artifactCacheDir, long artifactCacheSizeMb,
+                        BisectMode bisectMode, String buildCacheDir,
+                        long buildCacheSizeMb, QuarkusBuildMode quarkusBuildMode) {
 
     public enum BisectStrategy {
         /** Binary search through commits (faster, default) */
@@ -14,4 +19,40 @@ public record AppConfig(int lookbackDays, Instant from, String historyFilePath,
         /** Linear search from oldest to newest (slower, more predictable) */
         LINEAR
     }
+
+    public enum BisectMode {
+        /** Bisect all the new root causes together once all the failures are found, every commit is built once (default) */
+        JOINT,
+        /** Bisect every new root cause as soon as it is found */
+        SEPARATE
+    }
+
+    public enum QuarkusBuildMode {
+        /** Build only the modules changed since the previously built commit and their dependents (default) */
+        INCREMENTAL,
+        /** Build all the modules for every commit */
+        FULL,
+        /** Build only the modules the failing tests depend on and the modules they depend on */
+        TARGETED
+    }
+
+    public enum ScanIndexMode {
+        /** Reuse reports with unchanged size and last modified time (default) */
+        ENABLED,
+        /** Like ENABLED, but also compare the report content hash (slower, but safe when timestamps are unreliable) */
+        CHECKSUM,
+        /** Parse all the reports and replace the index */
+        REBUILD,
+        /** Neither read nor write the index */
+        IGNORE
+    }
+
+    public enum FlakyFailurePolicy {
+        /** Don't bisect failures of tests that passed on rerun (default) */
+        SKIP,
+        /** Bisect failures of tests that passed on rerun after all the other failures */
+        DEFER,
+        /** Bisect failures of tests that passed on rerun like any other failure */
+        BISECT
+    }
 }
@@ -25,6 +25,25 @@ public interface Failure {
 
     String testRunLog();
 
+    /**
+     * Normalized hash of the throwable class, the message and the top stack frames.
+     * Failures with the same fingerprint most likely have the same root cause, even if they come from
+     * different test classes or modules.
+     *
+     * @see FailureFingerprint
+     */
+    default String fingerprint() {
+        return FailureFingerprint.of(throwableClass(), failureMessage(), testRunLog());
+    }
+
+    /**
+     * Whether the test failed, but passed when it was rerun by the Surefire / FailSafe plugin.
+     * Such failure is most likely caused by a flaky test and not by an upstream change.
+     */
+    default boolean flaky() {
+        return false;
+    }
+
     enum FailureType {
         FAILURE, ERROR
     }
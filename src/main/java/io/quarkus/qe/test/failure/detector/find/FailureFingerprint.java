@@ -0,0 +1,187 @@
+package io.quarkus.qe.test.failure.detector.find;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Compact fingerprint of what actually broke in a test failure.
+ * It is a hash of the throwable class, the exception message and the top stack frames,
+ * normalized so that failures caused by the same problem have the same fingerprint even if they differ
+ * in line numbers, ports, UUIDs, timestamps or object identity hash codes.
+ * Frames of the assertion libraries, HTTP clients and reflection are skipped, they are the same for all
+ * the failures of a kind (e.g. every {@code assertEquals}), so the top frames are the ones of the failing code.
+ * Small numbers like status codes and expected values are kept, they tell the failures apart.
+ */
+public final class FailureFingerprint {
+
+    /**
+     * Number of the stack frames of the top-level throwable that are included in the fingerprint,
+     * not counting the skipped framework frames.
+     */
+    static final int TOP_FRAMES = 5;
+    private static final List<String> FRAMEWORK_PACKAGES = List.of("org.junit.", "org.opentest4j.", "org.hamcrest.",
+            "org.assertj.", "io.restassured.", "org.codehaus.groovy.", "groovy.", "jdk.internal.", "sun.reflect.",
+            "java.lang.reflect.");
+    private static final int MAX_MESSAGE_LINES = 10;
+    // longer lines are typically huge assertion diffs, the beginning is enough to tell them apart
+    private static final int MAX_LINE_LENGTH = 512;
+    private static final int FINGERPRINT_BYTES = 8;
+
+    private static final Pattern UUID = Pattern.compile(
+            "\\b\\p{XDigit}{8}-\\p{XDigit}{4}-\\p{XDigit}{4}-\\p{XDigit}{4}-\\p{XDigit}{12}\\b");
+    private static final Pattern TIMESTAMP = Pattern.compile(
+            "\\d{4}-\\d{2}-\\d{2}(?:[T ]\\d{2}:\\d{2}(?::\\d{2}(?:[.,]\\d+)?)?(?:Z|[+-]\\d{2}:?\\d{2})?)?"
+                    + "|\\b\\d{2}:\\d{2}:\\d{2}(?:[.,]\\d+)?");
+    private static final Pattern IDENTITY_HASH_CODE = Pattern.compile("@\\p{XDigit}{4,}\\b");
+    // ports, durations, counters and so on, but not status codes or small expected values
+    private static final Pattern LARGE_NUMBER = Pattern.compile("\\d{4,}");
+    private static final Pattern LINE_NUMBER = Pattern.compile(":\\d+\\)$");
+    private static final Pattern LAMBDA = Pattern.compile("\\$\\$Lambda[^.(]*");
+
+    private FailureFingerprint() {
+    }
+
+    /**
+     * @param throwableClass fully qualified name of the throwable class
+     * @param failureMessage failure message, only used when the stack trace is empty
+     * @param stackTrace stack trace as it is printed in the test report
+     * @return the fingerprint as a hexadecimal string
+     */
+    public static String of(String throwableClass, String failureMessage, String stackTrace) {
+        Builder builder = new Builder(throwableClass, failureMessage);
+        if (stackTrace != null) {
+            builder.append(stackTrace.toCharArray(), 0, stackTrace.length());
+        }
+        return builder.build();
+    }
+
+    /**
+     * @param throwableClass fully qualified name of the throwable class
+     * @param failureMessage failure message, only used when the stack trace is empty
+     * @param stackTrace stack trace as it is printed in the test report
+     * @return the normalized throwable class, message lines and top stack frames the fingerprint is computed from,
+     *         so that failures can be compared by similarity and not just by the exact fingerprint
+     */
+    public static List<String> normalizedLines(String throwableClass, String failureMessage, String stackTrace) {
+        Builder builder = new Builder(throwableClass, failureMessage);
+        builder.normalizedLines = new ArrayList<>();
+        builder.normalizedLines.add(throwableClass == null ? "" : throwableClass);
+        if (stackTrace != null) {
+            builder.append(stackTrace.toCharArray(), 0, stackTrace.length());
+        }
+        builder.build();
+        return builder.normalizedLines;
+    }
+
+    /**
+     * Computes the fingerprint from the stack trace chunks as they are read, so that the whole stack trace
+     * doesn't need to be kept in memory. Only the first {@link #TOP_FRAMES} frames that are not framework frames
+     * are processed, the rest of the stack trace is ignored.
+     */
+    public static final class Builder {
+
+        private final MessageDigest digest;
+        private final String failureMessage;
+        private final StringBuilder line = new StringBuilder();
+        private int messageLines = 0;
+        private int frames = 0;
+        private boolean inFrames = false;
+        private boolean done = false;
+        private List<String> normalizedLines = null;
+
+        public Builder(String throwableClass, String failureMessage) {
+            try {
+                this.digest = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new RuntimeException(e);
+            }
+            this.failureMessage = failureMessage;
+            update(throwableClass == null ? "" : throwableClass);
+        }
+
+        public Builder append(char[] chars, int start, int length) {
+            for (int i = start; i < start + length && !done; i++) {
+                char c = chars[i];
+                if (c == '\n' || c == '\r') {
+                    endLine();
+                } else if (line.length() < MAX_LINE_LENGTH) {
+                    line.append(c);
+                }
+            }
+            return this;
+        }
+
+        public String build() {
+            endLine();
+            if (messageLines == 0 && frames == 0 && failureMessage != null) {
+                // the report doesn't contain the stack trace, so the message is all we have
+                update(normalizeMessage(failureMessage));
+            }
+            byte[] hash = digest.digest();
+            return HexFormat.of().formatHex(hash, 0, FINGERPRINT_BYTES);
+        }
+
+        private void endLine() {
+            if (done) {
+                return;
+            }
+            String trimmed = line.toString().strip();
+            line.setLength(0);
+            if (trimmed.isEmpty()) {
+                return;
+            }
+            if (trimmed.startsWith("at ")) {
+                inFrames = true;
+                if (isFrameworkFrame(trimmed)) {
+                    return;
+                }
+                update(normalizeFrame(trimmed));
+                done = ++frames == TOP_FRAMES;
+            } else if (inFrames) {
+                // "Caused by:" or "... 42 more", the top frames of the top-level throwable are behind us
+                done = true;
+            } else if (messageLines < MAX_MESSAGE_LINES) {
+                messageLines++;
+                update(normalizeMessage(trimmed));
+            }
+        }
+
+        private void update(String value) {
+            if (normalizedLines != null) {
+                normalizedLines.add(value);
+            }
+            digest.update(value.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '\n');
+        }
+    }
+
+    private static String normalizeMessage(String message) {
+        String normalized = UUID.matcher(message).replaceAll("<uuid>");
+        normalized = TIMESTAMP.matcher(normalized).replaceAll("<timestamp>");
+        normalized = IDENTITY_HASH_CODE.matcher(normalized).replaceAll("@<hash>");
+        return LARGE_NUMBER.matcher(normalized).replaceAll("#");
+    }
+
+    private static boolean isFrameworkFrame(String frame) {
+        // "at java.base/jdk.internal.reflect.DirectMethodHandleAccessor.invoke(...)"
+        int end = frame.indexOf('(');
+        String method = frame.substring("at ".length(), end < 0 ? frame.length() : end);
+        method = method.substring(method.lastIndexOf('/') + 1);
+        for (String frameworkPackage : FRAMEWORK_PACKAGES) {
+            if (method.startsWith(frameworkPackage)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String normalizeFrame(String frame) {
+        String normalized = LINE_NUMBER.matcher(frame).replaceFirst(")");
+        return LAMBDA.matcher(normalized).replaceAll("\\$\\$Lambda");
+    }
+}
@@ -2,9 +2,28 @@ package io.quarkus.qe.test.failure.detector.find;
 
 import java.nio.file.Path;
 import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
 
 public interface FailuresFinder {
 
     Collection<Failure> find(Path projectDirectory);
 
+    /**
+     * Same as {@link #find(Path)}, but the failures are emitted as soon as their test reports are parsed,
+     * so that they can be analyzed while the rest of the project is still scanned.
+     * The failures are emitted in the same order as they are returned by the {@link #find(Path)}.
+     * The stream must be closed.
+     */
+    Stream<Failure> stream(Path projectDirectory);
+
+    /**
+     * Scans the test reports of the archives while the archives are read, nothing is stored on the disk.
+     * Archives are scanned concurrently, failures of each archive are emitted as soon as the whole archive is read
+     * (and all the archives before it). The stream must be closed.
+     *
+     * @param projectDirectory directory the module paths of the failures are resolved against, it doesn't need to exist
+     */
+    Stream<Failure> stream(Path projectDirectory, List<ReportArchive> archives);
+
 }
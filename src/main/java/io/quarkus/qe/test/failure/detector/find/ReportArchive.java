@@ -0,0 +1,23 @@
+package io.quarkus.qe.test.failure.detector.find;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * ZIP archive with test reports that is only available as a stream, for example a workflow artifact
+ * that is being downloaded. The archive is never stored, its entries are scanned in the order they are read.
+ */
+public interface ReportArchive {
+
+    /**
+     * Name of the archive. Reports are resolved as if the archive was extracted to a directory of this name.
+     */
+    String name();
+
+    /**
+     * Opens the archive content. The stream is opened once and read from the beginning to the end,
+     * so that the archive can verify its content when the last byte is read.
+     */
+    InputStream open() throws IOException, InterruptedException;
+
+}
@@ -1,214 +1,444 @@
 package io.quarkus.qe.test.failure.detector.find.impl;
 
+import io.quarkus.qe.test.failure.detector.configuration.AppConfig;
 import io.quarkus.qe.test.failure.detector.find.Failure;
+import io.quarkus.qe.test.failure.detector.find.ReportArchive;
 import io.quarkus.qe.test.failure.detector.logger.Logger;
+import io.quarkus.qe.test.failure.detector.project.ProjectSource;
+import jakarta.enterprise.event.Observes;
 import jakarta.inject.Inject;
 import jakarta.inject.Singleton;
 
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.NodeList;
-
+import javax.xml.stream.XMLStreamException;
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.EnumSet;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
 
 @Singleton
 final class FailSafeFinderStrategy implements FailuresFinderStrategy {
 
     private static final String FAILSAFE_SUMMARY_XML = "failsafe-summary.xml";
     private static final String TEST_REPORT_PREFIX = "TEST-";
+    private static final String POM_XML = "pom.xml";
+    private static final String FAILSAFE_REPORTS_DIR = "failsafe-reports";
+    private static final String TARGET_DIR = "target";
 
     @Inject
     Logger logger;
 
-    @Override
-    public Collection<Failure> find(Path testedProjectDir) {
-        List<Failure> failures = new ArrayList<>();
+    private final FailsafeReportParser reportParser;
+    private final ScanIndex scanIndex;
 
-        try {
-            List<Path> summaryFiles = findFailsafeSummaries(testedProjectDir);
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+    // streamed archives are downloaded while they are scanned, so they are limited by the download parallelism
+    private int archiveParallelism = 4;
+    private boolean readArchives = false;
+    private boolean followLinks = false;
 
-            for (Path summaryFile : summaryFiles) {
+    FailSafeFinderStrategy(TestRunLogStore testRunLogStore, StringPool stringPool, ScanIndex scanIndex) {
+        this.reportParser = new FailsafeReportParser(testRunLogStore, stringPool);
+        this.scanIndex = scanIndex;
+    }
 
-                var summaryFileFailures = processFailsafeSummary(summaryFile);
-                if (summaryFileFailures.isEmpty()) {
-                    logger.info("Found failsafe summary file " + summaryFile + " with no failures");
-                } else {
-                    failures.addAll(summaryFileFailures);
-                }
-            }
+    void updateConfiguration(@Observes AppConfig appConfig) {
+        this.parallelism = appConfig.scanParallelism();
+        this.archiveParallelism = Math.max(1, appConfig.downloadParallelism());
+        this.readArchives = appConfig.projectSource() == ProjectSource.GITHUB_ACTION_ARTIFACT_ZIPS;
+        // downloaded artifacts can be links to the artifact cache
+        this.followLinks = appConfig.projectSource() == ProjectSource.GITHUB_ACTION_ARTIFACTS || readArchives;
+    }
+
+    @Override
+    public Stream<Failure> stream(Path testedProjectDir) {
+        ReportTree reportTree = new ReportTree(readArchives);
+        try {
+            Files.walkFileTree(testedProjectDir, followLinks ? EnumSet.of(FileVisitOption.FOLLOW_LINKS)
+                    : EnumSet.noneOf(FileVisitOption.class), Integer.MAX_VALUE,
+                    new ReportTreeVisitor(testedProjectDir, Function.identity(), reportTree));
         } catch (IOException e) {
             logger.error("Error searching for failsafe reports: " + e.getMessage());
+            reportTree.close();
+            return Stream.empty();
         }
 
-        return failures;
+        try {
+            // sorted, so that the failures order does not depend on the file system or on the scheduling
+            List<ReportFile> summaryFiles = reportTree.summaryFiles.stream()
+                    .sorted(Comparator.comparing(ReportFile::logicalPath))
+                    .toList();
+            ModuleRoots moduleRoots = new ModuleRoots(testedProjectDir, reportTree.moduleDirs);
+
+            // summaries are tiny, they only tell us which report directories are worth listing
+            List<ReportFile> testReports = ParallelTasks.map(summaryFiles, parallelism,
+                            summaryFile -> processFailsafeSummary(summaryFile, moduleRoots))
+                    .stream()
+                    .flatMap(Collection::stream)
+                    .toList();
+
+            // test reports can be huge, therefore each one of them is a separate task
+            // and its failures are emitted as soon as it is parsed (and all the reports before it)
+            ScanIndex.Session scanIndexSession = scanIndex.open(testedProjectDir);
+            return ParallelTasks.stream(testReports, parallelism,
+                            testReport -> parseTestReport(testReport, scanIndexSession))
+                    .flatMap(Collection::stream)
+                    .onClose(scanIndexSession::close)
+                    .onClose(reportTree::close);
+        } catch (RuntimeException e) {
+            reportTree.close();
+            throw e;
+        }
     }
 
-    private List<Path> findFailsafeSummaries(Path rootDir) throws IOException {
-        List<Path> summaryFiles = new ArrayList<>();
+    @Override
+    public Stream<Failure> stream(Path testedProjectDir, List<ReportArchive> archives) {
+        return ParallelTasks.stream(archives, archiveParallelism, archive -> scanArchive(testedProjectDir, archive))
+                .flatMap(Collection::stream);
+    }
 
-        try (Stream<Path> paths = Files.walk(rootDir)) {
-            paths.filter(Files::isRegularFile)
-                 .filter(path -> path.getFileName().toString().equals(FAILSAFE_SUMMARY_XML))
-                 .forEach(summaryFiles::add);
+    /**
+     * Reads the archive entries in the order in which they are stored. The summary can come after the test
+     * reports, so it is not used, and every test report is parsed as if the summary reported flaky tests.
+     * That costs little, as the entries need to be decompressed to get to the next one anyway.
+     */
+    private Collection<Failure> scanArchive(Path testedProjectDir, ReportArchive archive) {
+        Path archiveDir = testedProjectDir.resolve(archive.name());
+        // sorted, so that the failures order does not depend on the order of the archive entries
+        Map<Path, List<Failure>> failuresByReport = new TreeMap<>();
+        try (InputStream content = archive.open()) {
+            scanArchiveEntries(new ZipInputStream(content), archiveDir, true, failuresByReport);
+            // the central directory follows the entries, it must be read as well for the archive to be verified
+            content.transferTo(OutputStream.nullOutputStream());
+        } catch (Exception e) {
+            logger.error("Error scanning archive " + archive.name() + ": " + e.getMessage());
+            return List.of();
         }
+        List<Failure> failures = failuresByReport.values().stream().flatMap(List::stream).toList();
+        logger.info("Found " + failures.size() + " failures in " + failuresByReport.size()
+                + " failing test reports of archive " + archive.name());
+        return failures;
+    }
 
-        return summaryFiles;
+    private void scanArchiveEntries(ZipInputStream zip, Path dir, boolean readNestedArchives,
+                                    Map<Path, List<Failure>> failuresByReport) throws IOException {
+        ZipEntry entry;
+        while ((entry = zip.getNextEntry()) != null) {
+            if (entry.isDirectory()) {
+                continue;
+            }
+            Path logicalPath = dir.resolve(entry.getName()).normalize();
+            String fileName = logicalPath.getFileName().toString();
+            if (readNestedArchives && fileName.endsWith(".zip") && dir.equals(logicalPath.getParent())) {
+                // a nested archive is read as its parent directory, it must not be closed with the outer archive
+                scanArchiveEntries(new ZipInputStream(zip), dir, false, failuresByReport);
+            } else if (isTestReport(logicalPath)) {
+                String modulePath = findModulePath(logicalPath.getParent());
+                try {
+                    // the XML reader closes its input, which would close the whole archive
+                    List<Failure> failures = reportParser.parseTestReport(new FilterInputStream(zip) {
+                        @Override
+                        public void close() {
+                        }
+                    }, modulePath, true);
+                    if (!failures.isEmpty()) {
+                        failuresByReport.put(logicalPath, failures);
+                    }
+                } catch (XMLStreamException e) {
+                    logger.error("Error parsing test report " + logicalPath + ": " + e.getMessage());
+                }
+            }
+        }
     }
 
-    private Collection<Failure> processFailsafeSummary(Path summaryFile) {
-        List<Failure> failures = new ArrayList<>();
+    private static boolean isTestReport(Path path) {
+        String fileName = path.getFileName().toString();
+        Path parent = path.getParent();
+        return fileName.startsWith(TEST_REPORT_PREFIX) && fileName.endsWith(".xml") && parent != null
+                && parent.getFileName() != null && parent.getFileName().toString().equals(FAILSAFE_REPORTS_DIR);
+    }
 
-        try {
-            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-            DocumentBuilder builder = factory.newDocumentBuilder();
-            Document doc = builder.parse(summaryFile.toFile());
-            doc.getDocumentElement().normalize();
+    /**
+     * The "pom.xml" can come after the reports, so the module is the parent of the build directory.
+     */
+    private static String findModulePath(Path reportsDir) {
+        Path buildDir = reportsDir.getParent();
+        boolean inBuildDir = buildDir != null && buildDir.getFileName() != null
+                && buildDir.getFileName().toString().equals(TARGET_DIR);
+        return (inBuildDir ? buildDir.getParent() : reportsDir).toAbsolutePath().toString();
+    }
 
-            Element root = doc.getDocumentElement();
-            int errorCount = Integer.parseInt(getElementText(root, "errors", "0"));
-            int failureCount = Integer.parseInt(getElementText(root, "failures", "0"));
+    private List<ReportFile> processFailsafeSummary(ReportFile summaryFile, ModuleRoots moduleRoots) {
+        try (InputStream summary = Files.newInputStream(summaryFile.path())) {
+            FailsafeReportParser.SummaryCounts counts = reportParser.parseSummary(summary);
 
-            if (errorCount > 0 || failureCount > 0) {
-                logger.info("Found " + errorCount + " errors and " + failureCount + " failures in " + summaryFile);
+            if (counts.hasFailures() || counts.hasFlakes()) {
+                logger.info("Found " + counts.errors() + " errors and " + counts.failures() + " failures"
+                        + (counts.hasFlakes() ? " (and " + counts.flakes() + " flaky tests)" : "") + " in "
+                        + summaryFile.logicalPath());
                 // Parse individual test report XMLs in the same directory
-                Path reportsDir = summaryFile.getParent();
-                failures.addAll(parseTestReports(reportsDir));
+                String modulePath = moduleRoots.findModulePath(summaryFile.logicalPath().getParent());
+                return findTestReports(summaryFile.parent(), modulePath, counts.hasFlakes());
             }
+            logger.info("Found failsafe summary file " + summaryFile.logicalPath() + " with no failures");
         } catch (Exception e) {
-            logger.error("Error parsing failsafe summary " + summaryFile + ": " + e.getMessage());
+            logger.error("Error parsing failsafe summary " + summaryFile.logicalPath() + ": " + e.getMessage());
         }
 
-        return failures;
+        return List.of();
     }
 
-    private Collection<Failure> parseTestReports(Path reportsDir) {
-        List<Failure> failures = new ArrayList<>();
-
-        try (Stream<Path> files = Files.list(reportsDir)) {
-            files.filter(Files::isRegularFile)
-                 .filter(path -> path.getFileName().toString().startsWith(TEST_REPORT_PREFIX))
-                 .filter(path -> path.getFileName().toString().endsWith(".xml"))
-                 .forEach(reportFile -> failures.addAll(parseTestReport(reportFile)));
+    private List<ReportFile> findTestReports(ReportFile reportsDir, String modulePath, boolean flakyTests) {
+        try (Stream<Path> files = Files.list(reportsDir.path())) {
+            return files.filter(Files::isRegularFile)
+                    .filter(path -> path.getFileName().toString().startsWith(TEST_REPORT_PREFIX))
+                    .filter(path -> path.getFileName().toString().endsWith(".xml"))
+                    .sorted()
+                    .map(reportFile -> reportsDir.resolve(reportFile, modulePath, flakyTests))
+                    .toList();
         } catch (IOException e) {
-            logger.error("Error listing test reports in " + reportsDir + ": " + e.getMessage());
+            logger.error("Error listing test reports in " + reportsDir.logicalPath() + ": " + e.getMessage());
+            return List.of();
         }
-
-        return failures;
     }
 
-    private Collection<Failure> parseTestReport(Path reportFile) {
-        List<Failure> failures = new ArrayList<>();
-
+    private Collection<Failure> parseTestReport(ReportFile testReport, ScanIndex.Session scanIndexSession) {
         try {
-            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-            DocumentBuilder builder = factory.newDocumentBuilder();
-            Document doc = builder.parse(reportFile.toFile());
-            doc.getDocumentElement().normalize();
+            return scanIndexSession.getOrParse(testReport.path(), testReport.logicalPath(), testReport.modulePath(),
+                    () -> {
+                        try (InputStream report = Files.newInputStream(testReport.path())) {
+                            return reportParser.parseTestReport(report, testReport.modulePath(),
+                                    testReport.flakyTests());
+                        }
+                    });
+        } catch (Exception e) {
+            logger.error("Error parsing test report " + testReport.logicalPath() + ": " + e.getMessage());
+            return List.of();
+        }
+    }
 
-            Element testsuite = doc.getDocumentElement();
+    /**
+     * Result of the tree walk. Archives opened during the walk stay open until the reports are parsed,
+     * nested archives copied to temporary files are deleted once they are closed.
+     */
+    private static final class ReportTree implements AutoCloseable {
 
-            // Get all testcase elements
-            NodeList testcases = testsuite.getElementsByTagName("testcase");
+        private final boolean readArchives;
+        private final List<ReportFile> summaryFiles = new ArrayList<>();
+        private final Set<Path> moduleDirs = new HashSet<>();
+        private final Deque<FileSystem> archives = new ArrayDeque<>();
+        private final List<Path> nestedArchiveCopies = new ArrayList<>();
 
-            for (int i = 0; i < testcases.getLength(); i++) {
-                Element testcase = (Element) testcases.item(i);
+        private ReportTree(boolean readArchives) {
+            this.readArchives = readArchives;
+        }
 
-                // Check for failure element
-                NodeList failureNodes = testcase.getElementsByTagName("failure");
-                if (failureNodes.getLength() > 0) {
-                    Element failureElement = (Element) failureNodes.item(0);
-                    failures.add(createFailure(testcase, failureElement, reportFile));
+        @Override
+        public void close() {
+            // nested archives are closed before the archives that contain them
+            while (!archives.isEmpty()) {
+                try {
+                    archives.pop().close();
+                } catch (IOException e) {
+                    // nothing was written, there is nothing to lose
                 }
-
-                // Check for error element
-                NodeList errorNodes = testcase.getElementsByTagName("error");
-                if (errorNodes.getLength() > 0) {
-                    Element errorElement = (Element) errorNodes.item(0);
-                    failures.add(createFailure(testcase, errorElement, reportFile));
+            }
+            for (Path nestedArchiveCopy : nestedArchiveCopies) {
+                try {
+                    Files.deleteIfExists(nestedArchiveCopy);
+                } catch (IOException e) {
+                    // it is a temporary file, it would be deleted on exit anyway
                 }
             }
-        } catch (Exception e) {
-            logger.error("Error parsing test report " + reportFile + ": " + e.getMessage());
+            nestedArchiveCopies.clear();
         }
-
-        return failures;
     }
 
-    private static Failure createFailure(Element testcase, Element failureElement, Path reportFile) {
-        String testClassName = testcase.getAttribute("classname");
-        String testMethodName = testcase.getAttribute("name");
+    /**
+     * Single pass over the tested project that collects FailSafe summaries and directories with the "pom.xml".
+     * Subtrees that never contain FailSafe reports (sources, compiled classes, VCS metadata, ...) are not entered.
+     * When reading archives, the ZIP files in the walked directory are walked as well, and their content is reported
+     * under a logical path, as if the archive was extracted to the directory named after it.
+     */
+    private final class ReportTreeVisitor extends SimpleFileVisitor<Path> {
+
+        private static final Set<String> PRUNED_DIRS = Set.of("src", "node_modules", "classes", "test-classes",
+                "generated-sources", "generated-test-sources", "maven-status", "quarkus-app", "surefire-reports");
+
+        private final Path rootDir;
+        private final Function<Path, Path> toLogicalPath;
+        private final ReportTree reportTree;
+
+        private ReportTreeVisitor(Path rootDir, Function<Path, Path> toLogicalPath, ReportTree reportTree) {
+            this.rootDir = rootDir;
+            this.toLogicalPath = toLogicalPath;
+            this.reportTree = reportTree;
+        }
 
-        // Strip parameterized test suffixes like "(QuarkusVersionAwareCliClient)[1]"
-        // We only want the method name, not the parameters
-        int paramStart = testMethodName.indexOf('(');
-        if (paramStart > 0) {
-            testMethodName = testMethodName.substring(0, paramStart);
+        @Override
+        public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+            if (!dir.equals(rootDir)) {
+                String dirName = dir.getFileName().toString();
+                // hidden directories are ".git", ".mvn", ".idea" and alike
+                if (dirName.startsWith(".") || PRUNED_DIRS.contains(dirName)
+                        || dirName.endsWith("-native-image-source-jar")) {
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+            }
+            return FileVisitResult.CONTINUE;
         }
 
-        String failureMessage = failureElement.getAttribute("message");
-        String failureType = failureElement.getAttribute("type");
-        String testRunLog = failureElement.getTextContent();
+        @Override
+        public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+            if (attrs.isRegularFile()) {
+                String fileName = file.getFileName().toString();
+                if (fileName.equals(FAILSAFE_SUMMARY_XML)) {
+                    reportTree.summaryFiles.add(new ReportFile(file, toLogicalPath.apply(file), null, false));
+                } else if (fileName.equals(POM_XML)) {
+                    reportTree.moduleDirs.add(toLogicalPath.apply(file.getParent()));
+                } else if (reportTree.readArchives && rootDir.equals(file.getParent())) {
+                    // artifacts are stored right in the walked directory, archives deeper in the tree are build outputs
+                    visitArchive(file, fileName);
+                }
+            }
+            return FileVisitResult.CONTINUE;
+        }
 
-        // Find the module path by looking for pom.xml in parent directories
-        String modulePath = findModulePath(reportFile);
+        @Override
+        public FileVisitResult visitFileFailed(Path file, IOException exc) {
+            logger.error("Error searching for failsafe reports in " + file + ": " + exc.getMessage());
+            return FileVisitResult.CONTINUE;
+        }
 
-        // Determine if this is a failure or error based on the element tag name
-        Failure.FailureType type = failureElement.getTagName().equals("error")
-                ? Failure.FailureType.ERROR
-                : Failure.FailureType.FAILURE;
+        private void visitArchive(Path archive, String fileName) {
+            if (fileName.endsWith(".tar") || fileName.endsWith(".tar.gz") || fileName.endsWith(".tgz")) {
+                logger.error("Skipping archive " + toLogicalPath.apply(archive)
+                        + ", only ZIP archives can be read without extraction");
+                return;
+            }
+            if (!fileName.endsWith(".zip")) {
+                return;
+            }
+            // the artifact ZIP is read as the artifact directory, a nested archive is read as its parent directory
+            Path archiveDir = toLogicalPath.apply(rootDir);
+            if (archive.getFileSystem() == FileSystems.getDefault()) {
+                archiveDir = archiveDir.resolve(fileName.substring(0, fileName.length() - ".zip".length()));
+            }
+            try {
+                FileSystem archiveFileSystem = FileSystems.newFileSystem(toDefaultFileSystem(archive, reportTree));
+                reportTree.archives.push(archiveFileSystem);
+                Path archiveRoot = archiveFileSystem.getRootDirectories().iterator().next();
+                Path logicalArchiveRoot = archiveDir;
+                Files.walkFileTree(archiveRoot, new ReportTreeVisitor(archiveRoot,
+                        path -> logicalArchiveRoot.resolve(archiveRoot.relativize(path).toString()), reportTree));
+            } catch (IOException e) {
+                logger.error("Error searching for failsafe reports in archive " + toLogicalPath.apply(archive) + ": "
+                        + e.getMessage());
+            }
+        }
+    }
 
-        return new FailureRecord(testClassName, testMethodName, modulePath, failureMessage, type, failureType, testRunLog);
+    /**
+     * The ZIP file system reads an archive that is not on the default file system (a nested archive) fully
+     * into the heap, so nested archives are copied to a temporary file first. The copy is streamed.
+     */
+    private Path toDefaultFileSystem(Path archive, ReportTree reportTree) throws IOException {
+        if (archive.getFileSystem() == FileSystems.getDefault()) {
+            return archive;
+        }
+        Path copy = Files.createTempFile("nested-archive-", ".zip");
+        copy.toFile().deleteOnExit();
+        reportTree.nestedArchiveCopies.add(copy);
+        Files.copy(archive, copy, StandardCopyOption.REPLACE_EXISTING);
+        return copy;
     }
 
-    private static String findModulePath(Path reportFile) {
-        Path current = reportFile.getParent();
+    /**
+     * Resolves the Maven module of a report directory from the module directories found during the tree walk.
+     * Only directories above the walked tree are checked on the file system. Results are cached per directory.
+     */
+    private static final class ModuleRoots {
 
-        // Navigate up to find the directory containing pom.xml
-        while (current != null) {
-            Path pomFile = current.resolve("pom.xml");
-            if (Files.exists(pomFile)) {
-                return current.toAbsolutePath().toString();
-            }
-            current = current.getParent();
+        private final Path rootDir;
+        private final Set<Path> moduleDirs;
+        private final Map<Path, Optional<Path>> moduleDirCache = new ConcurrentHashMap<>();
+
+        private ModuleRoots(Path rootDir, Set<Path> moduleDirs) {
+            this.rootDir = rootDir;
+            this.moduleDirs = moduleDirs;
         }
 
-        return reportFile.getParent().toAbsolutePath().toString();
-    }
+        private String findModulePath(Path reportsDir) {
+            // Navigate up to find the directory containing pom.xml
+            return findModuleDir(reportsDir)
+                    .orElse(reportsDir)
+                    .toAbsolutePath()
+                    .toString();
+        }
 
-    private static String getElementText(Element parent, String tagName, String defaultValue) {
-        NodeList nodeList = parent.getElementsByTagName(tagName);
-        if (nodeList.getLength() > 0) {
-            return nodeList.item(0).getTextContent();
+        private Optional<Path> findModuleDir(Path dir) {
+            if (dir == null) {
+                return Optional.empty();
+            }
+            Optional<Path> cached = moduleDirCache.get(dir);
+            if (cached != null) {
+                return cached;
+            }
+            Optional<Path> moduleDir;
+            if (isModuleDir(dir)) {
+                moduleDir = Optional.of(dir);
+            } else {
+                moduleDir = findModuleDir(dir.getParent());
+            }
+            moduleDirCache.put(dir, moduleDir);
+            return moduleDir;
+        }
+
+        private boolean isModuleDir(Path dir) {
+            if (dir.startsWith(rootDir)) {
+                return moduleDirs.contains(dir);
+            }
+            // the tested project can be a subdirectory of the Maven module
+            return Files.exists(dir.resolve(POM_XML));
         }
-        return defaultValue;
     }
 
-    private record FailureRecord(
-            String testClassName,
-            String testMethodName,
-            String modulePath,
-            String failureMessage,
-            Failure.FailureType failureType,
-            String throwableClass,
-            String testRunLog) implements Failure {
+    /**
+     * Report file or directory. The logical path is the same as the file path, unless the file is inside an archive.
+     */
+    private record ReportFile(Path path, Path logicalPath, String modulePath, boolean flakyTests) {
 
-        @Override
-        public String toString() {
-            return "FailureRecord[" +
-                    "testClassName=" + testClassName +
-                    ", testMethodName=" + testMethodName +
-                    ", modulePath=" + modulePath +
-                    ", failureType=" + failureType +
-                    ", throwableClass=" + throwableClass +
-                    ']';
+        private ReportFile parent() {
+            return new ReportFile(path.getParent(), logicalPath.getParent(), modulePath, flakyTests);
+        }
+
+        private ReportFile resolve(Path file, String modulePath, boolean flakyTests) {
+            return new ReportFile(file, logicalPath.resolve(file.getFileName().toString()), modulePath, flakyTests);
         }
     }
 }
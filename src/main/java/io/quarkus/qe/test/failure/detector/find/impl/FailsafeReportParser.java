@@ -0,0 +1,287 @@
+package io.quarkus.qe.test.failure.detector.find.impl;
+
+import io.quarkus.qe.test.failure.detector.find.Failure;
+import io.quarkus.qe.test.failure.detector.find.FailureFingerprint;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming (StAX) parser of the FailSafe summary and TEST-*.xml reports.
+ * Only the current {@code <testcase>} is held in memory, and the {@code <system-out>} / {@code <system-err>}
+ * content is skipped without buffering it, so that the heap usage does not grow with the report size.
+ * Test run logs are copied chunk by chunk to the {@link TestRunLogStore}, so they don't stay on the heap either,
+ * and the {@link FailureFingerprint} is computed from the same chunks.
+ * <p />
+ * When the tests are rerun ({@code rerunFailingTestsCount}), a test that passed on rerun has no {@code <failure>}
+ * or {@code <error>}, only the {@code <flakyFailure>} and {@code <flakyError>} elements. Such test is reported
+ * as a {@link Failure#flaky() flaky} failure. The {@code <rerunFailure>} and {@code <rerunError>} elements
+ * of a test that failed on every rerun are skipped, the test is reported by its {@code <failure>} or {@code <error>}.
+ */
+final class FailsafeReportParser {
+
+    private static final String TESTSUITE = "testsuite";
+    private static final String TESTCASE = "testcase";
+    private static final String FAILURE = "failure";
+    private static final String ERROR = "error";
+    private static final String FLAKY_FAILURE = "flakyFailure";
+    private static final String FLAKY_ERROR = "flakyError";
+    private static final String RERUN_FAILURE = "rerunFailure";
+    private static final String RERUN_ERROR = "rerunError";
+    private static final String STACK_TRACE = "stackTrace";
+    private static final String SYSTEM_OUT = "system-out";
+    private static final String SYSTEM_ERR = "system-err";
+
+    /**
+     * Without coalescing the text is delivered in several events, but the JDK parser still delivers each CDATA
+     * section as a single event, unless its size is limited. Surefire writes the {@code <system-out>} and the stack
+     * traces as CDATA, so one large test output would be buffered in the heap at once.
+     */
+    static final int CDATA_CHUNK_SIZE = 64 * 1024;
+    private static final String CDATA_CHUNK_SIZE_PROPERTY = "jdk.xml.cdataChunkSize";
+
+    // the factory is expensive to look up, so we create it once and only create a new reader per file
+    private static final XMLInputFactory XML_INPUT_FACTORY = createXmlInputFactory();
+
+    private final TestRunLogStore testRunLogStore;
+    private final StringPool stringPool;
+
+    FailsafeReportParser(TestRunLogStore testRunLogStore, StringPool stringPool) {
+        this.testRunLogStore = testRunLogStore;
+        this.stringPool = stringPool;
+    }
+
+    record SummaryCounts(int errors, int failures, int flakes) {
+
+        boolean hasFailures() {
+            return errors > 0 || failures > 0;
+        }
+
+        boolean hasFlakes() {
+            return flakes > 0;
+        }
+    }
+
+    SummaryCounts parseSummary(InputStream summary) throws XMLStreamException {
+        XMLStreamReader reader = XML_INPUT_FACTORY.createXMLStreamReader(summary);
+        try {
+            int errors = 0;
+            int failures = 0;
+            int flakes = 0;
+            while (reader.hasNext()) {
+                if (reader.next() == XMLStreamConstants.START_ELEMENT) {
+                    switch (reader.getLocalName()) {
+                        case "errors" -> errors = parseCount(reader.getElementText());
+                        case "failures" -> failures = parseCount(reader.getElementText());
+                        case "flakes" -> flakes = parseCount(reader.getElementText());
+                        default -> {
+                            // not interested
+                        }
+                    }
+                }
+            }
+            return new SummaryCounts(errors, failures, flakes);
+        } finally {
+            reader.close();
+        }
+    }
+
+    List<Failure> parseTestReport(InputStream testReport, String modulePath) throws XMLStreamException {
+        return parseTestReport(testReport, modulePath, false);
+    }
+
+    /**
+     * @param flakyTests whether the summary reported flaky tests, which are not counted in the report header failures
+     */
+    List<Failure> parseTestReport(InputStream testReport, String modulePath, boolean flakyTests)
+            throws XMLStreamException {
+        List<Failure> failures = new ArrayList<>();
+        XMLStreamReader reader = XML_INPUT_FACTORY.createXMLStreamReader(testReport);
+        try {
+            String testClassName = null;
+            String testMethodName = null;
+            boolean failureFound = false;
+            boolean errorFound = false;
+
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    String elementName = reader.getLocalName();
+                    switch (elementName) {
+                        case TESTSUITE -> {
+                            if (hasNoFailures(reader, flakyTests)) {
+                                // passing test classes are the vast majority, don't read the rest of the report
+                                return failures;
+                            }
+                        }
+                        case TESTCASE -> {
+                            testClassName = reader.getAttributeValue(null, "classname");
+                            testMethodName = reader.getAttributeValue(null, "name");
+                            failureFound = false;
+                            errorFound = false;
+                        }
+                        case FAILURE, ERROR, FLAKY_FAILURE, FLAKY_ERROR -> {
+                            boolean isError = ERROR.equals(elementName) || FLAKY_ERROR.equals(elementName);
+                            boolean isFlaky = FLAKY_FAILURE.equals(elementName) || FLAKY_ERROR.equals(elementName);
+                            // only the first failure and the first error of each test case is reported
+                            if (testClassName == null || (isError ? errorFound : failureFound)) {
+                                skipElement(reader);
+                            } else {
+                                failures.add(createFailure(reader, testClassName, testMethodName, isError, isFlaky,
+                                        modulePath));
+                                if (isError) {
+                                    errorFound = true;
+                                } else {
+                                    failureFound = true;
+                                }
+                            }
+                        }
+                        case SYSTEM_OUT, SYSTEM_ERR, RERUN_FAILURE, RERUN_ERROR -> skipElement(reader);
+                        default -> {
+                            // not interested
+                        }
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT && TESTCASE.equals(reader.getLocalName())) {
+                    testClassName = null;
+                    testMethodName = null;
+                }
+            }
+        } finally {
+            reader.close();
+        }
+        return failures;
+    }
+
+    private Failure createFailure(XMLStreamReader reader, String testClassName, String testMethodName,
+                                  boolean isError, boolean isFlaky, String modulePath) throws XMLStreamException {
+        // Strip parameterized test suffixes like "(QuarkusVersionAwareCliClient)[1]"
+        // We only want the method name, not the parameters
+        int paramStart = testMethodName == null ? -1 : testMethodName.indexOf('(');
+        if (paramStart > 0) {
+            testMethodName = testMethodName.substring(0, paramStart);
+        }
+
+        String failureMessage = nullToEmpty(reader.getAttributeValue(null, "message"));
+        String failureType = nullToEmpty(reader.getAttributeValue(null, "type"));
+        FailureFingerprint.Builder fingerprint = new FailureFingerprint.Builder(failureType, failureMessage);
+        // copies the element text and moves the reader to the failure end element
+        TestRunLogStore.TestRunLog testRunLog = isFlaky ? copyStackTrace(reader, fingerprint)
+                : copyElementText(reader, fingerprint);
+
+        Failure.FailureType type = isError ? Failure.FailureType.ERROR : Failure.FailureType.FAILURE;
+
+        return new FailureRecord(stringPool.canonicalize(testClassName),
+                stringPool.canonicalize(nullToEmpty(testMethodName)), stringPool.canonicalize(modulePath),
+                stringPool.canonicalize(failureMessage), type, stringPool.canonicalize(failureType),
+                stringPool.canonicalize(fingerprint.build()), isFlaky, testRunLog);
+    }
+
+    /**
+     * Flaky failures have the stack trace in the {@code <stackTrace>} child element, next to the test output.
+     * Copies the stack trace and moves the reader to the flaky failure end element.
+     */
+    private TestRunLogStore.TestRunLog copyStackTrace(XMLStreamReader reader, FailureFingerprint.Builder fingerprint)
+            throws XMLStreamException {
+        TestRunLogStore.TestRunLog testRunLog = TestRunLogStore.TestRunLog.EMPTY;
+        boolean stackTraceFound = false;
+        int event = reader.next();
+        while (event != XMLStreamConstants.END_ELEMENT) {
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                if (STACK_TRACE.equals(reader.getLocalName()) && !stackTraceFound) {
+                    testRunLog = copyElementText(reader, fingerprint);
+                    stackTraceFound = true;
+                } else {
+                    skipElement(reader);
+                }
+            } else if (event == XMLStreamConstants.END_DOCUMENT) {
+                throw new XMLStreamException("Unexpected end of the flaky test failure", reader.getLocation());
+            }
+            event = reader.next();
+        }
+        return testRunLog;
+    }
+
+    /**
+     * Same as {@link XMLStreamReader#getElementText()}, except that the text is collected in small chunks
+     * for the spill file instead of in a String. The same chunks are passed to the {@code fingerprint}.
+     */
+    private TestRunLogStore.TestRunLog copyElementText(XMLStreamReader reader, FailureFingerprint.Builder fingerprint)
+            throws XMLStreamException {
+        TestRunLogStore.LogWriter logWriter = testRunLogStore.newLog();
+        int event = reader.next();
+        while (event != XMLStreamConstants.END_ELEMENT) {
+            switch (event) {
+                case XMLStreamConstants.CHARACTERS, XMLStreamConstants.CDATA, XMLStreamConstants.SPACE -> {
+                    char[] text = reader.getTextCharacters();
+                    logWriter.append(text, reader.getTextStart(), reader.getTextLength());
+                    fingerprint.append(text, reader.getTextStart(), reader.getTextLength());
+                }
+                case XMLStreamConstants.ENTITY_REFERENCE -> {
+                    char[] text = reader.getText().toCharArray();
+                    logWriter.append(text, 0, text.length);
+                    fingerprint.append(text, 0, text.length);
+                }
+                case XMLStreamConstants.COMMENT, XMLStreamConstants.PROCESSING_INSTRUCTION -> {
+                    // skipped, same as the getElementText()
+                }
+                case XMLStreamConstants.START_ELEMENT ->
+                        throw new XMLStreamException("Unexpected element inside of a test failure", reader.getLocation());
+                default -> throw new XMLStreamException("Unexpected end of the test failure", reader.getLocation());
+            }
+            event = reader.next();
+        }
+        return logWriter.finish();
+    }
+
+    /**
+     * Whether the root {@code <testsuite>} element header says that all the test cases passed.
+     * If the attributes are missing, we can't tell, so the whole report must be parsed.
+     * Flaky tests are not counted as failures, so if there are any, the header must also say there are no flakes.
+     */
+    private static boolean hasNoFailures(XMLStreamReader reader, boolean flakyTests) {
+        return "0".equals(reader.getAttributeValue(null, "failures"))
+                && "0".equals(reader.getAttributeValue(null, "errors"))
+                && (!flakyTests || "0".equals(reader.getAttributeValue(null, "flakes")));
+    }
+
+    /**
+     * Moves the reader from the current start element to its end element without keeping the content.
+     */
+    private static void skipElement(XMLStreamReader reader) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0 && reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
+    private static int parseCount(String count) {
+        return count == null || count.isBlank() ? 0 : Integer.parseInt(count.trim());
+    }
+
+    private static String nullToEmpty(String value) {
+        // DOM returned an empty string for missing attributes, keep it that way
+        return value == null ? "" : value;
+    }
+
+    static XMLInputFactory createXmlInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, false);
+        if (factory.isPropertySupported(CDATA_CHUNK_SIZE_PROPERTY)) {
+            // other StAX implementations (e.g. Woodstox) split the CDATA sections on their own
+            factory.setProperty(CDATA_CHUNK_SIZE_PROPERTY, CDATA_CHUNK_SIZE);
+        }
+        return factory;
+    }
+}
@@ -0,0 +1,36 @@
+package io.quarkus.qe.test.failure.detector.find.impl;
+
+import io.quarkus.qe.test.failure.detector.find.Failure;
+
+record FailureRecord(
+        String testClassName,
+        String testMethodName,
+        String modulePath,
+        String failureMessage,
+        Failure.FailureType failureType,
+        String throwableClass,
+        String fingerprint,
+        boolean flaky,
+        TestRunLogStore.TestRunLog testRunLogHandle) implements Failure {
+
+    /**
+     * The log is not kept on the heap, it is read from the {@link TestRunLogStore} every time this method is called.
+     */
+    @Override
+    public String testRunLog() {
+        return testRunLogHandle.read();
+    }
+
+    @Override
+    public String toString() {
+        return "FailureRecord[" +
+                "testClassName=" + testClassName +
+                ", testMethodName=" + testMethodName +
+                ", modulePath=" + modulePath +
+                ", failureType=" + failureType +
+                ", throwableClass=" + throwableClass +
+                ", fingerprint=" + fingerprint +
+                ", flaky=" + flaky +
+                ']';
+    }
+}
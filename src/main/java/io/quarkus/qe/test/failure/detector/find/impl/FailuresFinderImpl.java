@@ -3,6 +3,7 @@ package io.quarkus.qe.test.failure.detector.find.impl;
 import io.quarkus.arc.All;
 import io.quarkus.qe.test.failure.detector.find.Failure;
 import io.quarkus.qe.test.failure.detector.find.FailuresFinder;
+import io.quarkus.qe.test.failure.detector.find.ReportArchive;
 import io.quarkus.qe.test.failure.detector.logger.Logger;
 import jakarta.inject.Inject;
 import jakarta.inject.Singleton;
@@ -10,6 +11,7 @@ import jakarta.inject.Singleton;
 import java.nio.file.Path;
 import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Singleton
 final class FailuresFinderImpl implements FailuresFinder {
@@ -23,10 +25,29 @@ final class FailuresFinderImpl implements FailuresFinder {
 
     @Override
     public Collection<Failure> find(Path testedProjectDir) {
+        try (Stream<Failure> failures = stream(testedProjectDir)) {
+            return failures.toList();
+        }
+    }
+
+    @Override
+    public Stream<Failure> stream(Path testedProjectDir) {
         logger.info("Looking for test failures in directory: " + testedProjectDir.toAbsolutePath());
+        // all the strategies start scanning right away, the results are still ordered by the strategies order
+        return failuresFinderStrategies.stream()
+                .map(strategy -> strategy.stream(testedProjectDir))
+                .toList()
+                .stream()
+                .reduce(Stream.empty(), Stream::concat);
+    }
+
+    @Override
+    public Stream<Failure> stream(Path projectDirectory, List<ReportArchive> archives) {
+        logger.info("Looking for test failures in " + archives.size() + " archives while they are downloaded");
         return failuresFinderStrategies.stream()
-                .map(strategy -> strategy.find(testedProjectDir))
-                .flatMap(Collection::stream)
-                .toList();
+                .map(strategy -> strategy.stream(projectDirectory, archives))
+                .toList()
+                .stream()
+                .reduce(Stream.empty(), Stream::concat);
     }
 }
@@ -1,12 +1,34 @@
 package io.quarkus.qe.test.failure.detector.find.impl;
 
 import io.quarkus.qe.test.failure.detector.find.Failure;
+import io.quarkus.qe.test.failure.detector.find.ReportArchive;
 
 import java.nio.file.Path;
 import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
 
 interface FailuresFinderStrategy {
 
-    Collection<Failure> find(Path testedProjectDir);
+    /**
+     * Starts scanning the tested project and emits the failures in order as they are found.
+     * The stream must be closed.
+     */
+    Stream<Failure> stream(Path testedProjectDir);
+
+    /**
+     * Scans the archives as they are read and emits the failures in order as they are found.
+     * Strategies that can only scan a directory don't find anything.
+     * The stream must be closed.
+     */
+    default Stream<Failure> stream(Path projectDir, List<ReportArchive> archives) {
+        return Stream.empty();
+    }
+
+    default Collection<Failure> find(Path testedProjectDir) {
+        try (Stream<Failure> failures = stream(testedProjectDir)) {
+            return failures.toList();
+        }
+    }
 
 }
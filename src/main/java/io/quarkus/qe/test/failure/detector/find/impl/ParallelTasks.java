@@ -0,0 +1,87 @@
+package io.quarkus.qe.test.failure.detector.find.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Runs independent scan tasks on virtual threads with bounded concurrency.
+ * Results are always returned in the order of the inputs, so that the output does not depend on scheduling.
+ */
+final class ParallelTasks {
+
+    private ParallelTasks() {
+    }
+
+    static <T, R> List<R> map(List<T> inputs, int parallelism, Function<T, R> task) {
+        try (Stream<R> results = stream(inputs, parallelism, task)) {
+            return results.toList();
+        }
+    }
+
+    /**
+     * Starts all the tasks right away and returns their results in the order of the inputs as they complete.
+     * The stream must be closed, which cancels tasks that are still running and waits until they stop,
+     * so that the close handlers registered after this one don't release resources the tasks still use.
+     */
+    static <T, R> Stream<R> stream(List<T> inputs, int parallelism, Function<T, R> task) {
+        if (parallelism <= 1 || inputs.size() <= 1) {
+            return inputs.stream().map(task);
+        }
+
+        // fair, so that the tasks mostly run in the order in which their results are consumed
+        Semaphore permits = new Semaphore(parallelism, true);
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        List<Future<R>> futures = new ArrayList<>(inputs.size());
+        for (T input : inputs) {
+            futures.add(executor.submit(() -> {
+                permits.acquire();
+                try {
+                    return task.apply(input);
+                } finally {
+                    permits.release();
+                }
+            }));
+        }
+        // no more tasks, the submitted ones keep running
+        executor.shutdown();
+
+        return futures.stream().map(ParallelTasks::await).onClose(() -> cancel(executor));
+    }
+
+    private static void cancel(ExecutorService executor) {
+        executor.shutdownNow();
+        boolean interrupted = false;
+        // parsing is not interruptible, the running tasks stop once their current report is parsed
+        while (true) {
+            try {
+                if (executor.awaitTermination(1, TimeUnit.MINUTES)) {
+                    break;
+                }
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static <R> R await(Future<R> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for parallel tasks", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Parallel task failed: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+}
@@ -0,0 +1,355 @@
+package io.quarkus.qe.test.failure.detector.find.impl;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.quarkus.qe.test.failure.detector.configuration.AppConfig;
+import io.quarkus.qe.test.failure.detector.find.Failure;
+import io.quarkus.qe.test.failure.detector.lifecycle.OnCommandExit;
+import io.quarkus.qe.test.failure.detector.logger.Logger;
+import io.quarkus.qe.test.failure.detector.project.ProjectSource;
+import io.quarkus.runtime.annotations.RegisterForReflection;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.Objects.requireNonNullElse;
+
+/**
+ * On-disk index of parsed FailSafe test reports.
+ * When the same local directory is analyzed repeatedly, reports with unchanged size and last modified time
+ * (and optionally content hash) are served from the index and only new or changed reports are parsed again.
+ * Test run logs of the indexed failures are kept in a file next to the index, so that they stay off the heap.
+ * Every save writes the logs to a new file named by a random generation ID, which the index refers to together
+ * with the file size. Until the index is replaced, it refers to the previous logs file, so the index is never
+ * combined with logs of another save, even if the command is killed or another run saves the index meanwhile.
+ */
+@Singleton
+final class ScanIndex {
+
+    private static final int VERSION = 5;
+    private static final String LOGS_FILE_SUFFIX = ".logs.";
+
+    @Inject
+    Logger logger;
+
+    @Inject
+    StringPool stringPool;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    // log files of loaded indexes, failures served from the index read their logs from these until the command exits
+    private final List<TestRunLogStore.SpillFile> openedLogFiles = new CopyOnWriteArrayList<>();
+
+    // the index is only enabled for local directories, downloaded artifacts are never the same
+    private AppConfig.ScanIndexMode mode = AppConfig.ScanIndexMode.IGNORE;
+    private Path indexFile = null;
+
+    void updateConfiguration(@Observes AppConfig appConfig) {
+        if (appConfig.projectSource() == ProjectSource.LOCAL_DIRECTORY && appConfig.scanIndexFilePath() != null) {
+            this.mode = appConfig.scanIndexMode();
+            this.indexFile = Path.of(appConfig.scanIndexFilePath());
+        } else {
+            this.mode = AppConfig.ScanIndexMode.IGNORE;
+            this.indexFile = null;
+        }
+    }
+
+    void closeLogFiles(@Observes OnCommandExit ignored) {
+        openedLogFiles.forEach(TestRunLogStore.SpillFile::close);
+        openedLogFiles.clear();
+    }
+
+    /**
+     * Opens index session for a scan of the tested project directory.
+     * The session must be closed once all the reports are scanned, which saves the index.
+     */
+    Session open(Path testedProjectDir) {
+        if (mode == AppConfig.ScanIndexMode.IGNORE) {
+            return new Session(testedProjectDir, Map.of(), false);
+        }
+        Map<String, IndexedReport> loadedReports = mode == AppConfig.ScanIndexMode.REBUILD ? Map.of() : load();
+        return new Session(testedProjectDir, loadedReports, true);
+    }
+
+    private Map<String, IndexedReport> load() {
+        if (!Files.exists(indexFile)) {
+            logger.info("No scan index found at " + indexFile + ", all the reports will be parsed");
+            return Map.of();
+        }
+        try {
+            ScanIndexData indexData = objectMapper.readValue(indexFile.toFile(), ScanIndexData.class);
+            if (indexData.version() != VERSION || indexData.reports() == null || indexData.logsGeneration() == null) {
+                logger.info("Scan index " + indexFile + " has unsupported version, it will be rebuilt");
+                return Map.of();
+            }
+            Path logsFile = logsFile(indexFile, indexData.logsGeneration());
+            if (!Files.exists(logsFile)) {
+                logger.info("Logs " + logsFile + " of scan index " + indexFile + " not found, it will be rebuilt");
+                return Map.of();
+            }
+            TestRunLogStore.SpillFile logs = TestRunLogStore.SpillFile.open(logsFile);
+            openedLogFiles.add(logs);
+            long logsSize = logs.size();
+            if (logsSize != indexData.logsSize()) {
+                logger.info("Logs " + logsFile + " don't match scan index " + indexFile + ", it will be rebuilt");
+                return Map.of();
+            }
+            Map<String, IndexedReport> reports = new ConcurrentHashMap<>();
+            indexData.reports().forEach((reportPath, report) -> {
+                if (report.isValid(logsSize)) {
+                    reports.put(reportPath, report.withLogs(logs));
+                }
+            });
+            logger.info("Loaded scan index " + indexFile + " with " + reports.size() + " reports");
+            return reports;
+        } catch (IOException e) {
+            logger.error("Failed to load scan index " + indexFile + ", it will be rebuilt: " + e.getMessage());
+            return Map.of();
+        }
+    }
+
+    private static Path logsFile(Path indexFile, String logsGeneration) {
+        return indexFile.resolveSibling(indexFile.getFileName() + LOGS_FILE_SUFFIX + logsGeneration);
+    }
+
+    private String readLogsGeneration() {
+        try {
+            return Files.exists(indexFile)
+                    ? objectMapper.readValue(indexFile.toFile(), ScanIndexData.class).logsGeneration() : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    final class Session implements AutoCloseable {
+
+        private final Path rootDir;
+        private final Map<String, IndexedReport> loadedReports;
+        private final Map<String, IndexedReport> scannedReports = new ConcurrentHashMap<>();
+        private final boolean enabled;
+        private final AppConfig.ScanIndexMode mode = ScanIndex.this.mode;
+        private final AtomicInteger indexedCount = new AtomicInteger();
+        private final AtomicInteger parsedCount = new AtomicInteger();
+
+        private Session(Path rootDir, Map<String, IndexedReport> loadedReports, boolean enabled) {
+            this.rootDir = rootDir.toAbsolutePath().normalize();
+            this.loadedReports = loadedReports;
+            this.enabled = enabled;
+        }
+
+        /**
+         * Returns failures of the report from the index if the report did not change since it was indexed,
+         * otherwise parses the report and indexes the result.
+         */
+        List<Failure> getOrParse(Path reportFile, Path logicalReportFile, String modulePath,
+                                 Callable<List<Failure>> parser) throws Exception {
+            if (!enabled) {
+                return parser.call();
+            }
+            String reportPath = logicalReportFile.toAbsolutePath().normalize().toString();
+            // attributes are read before the report is parsed, so that a report changed meanwhile is parsed next time
+            BasicFileAttributes attributes = Files.readAttributes(reportFile, BasicFileAttributes.class);
+            long size = attributes.size();
+            long lastModified = attributes.lastModifiedTime().toMillis();
+            String sha256 = mode == AppConfig.ScanIndexMode.CHECKSUM ? sha256(reportFile) : null;
+
+            IndexedReport indexedReport = loadedReports.get(reportPath);
+            if (indexedReport != null && indexedReport.matches(size, lastModified, sha256)) {
+                indexedCount.incrementAndGet();
+                scannedReports.put(reportPath, indexedReport);
+                return indexedReport.toFailures(modulePath, stringPool);
+            }
+
+            List<Failure> failures = parser.call();
+            parsedCount.incrementAndGet();
+            scannedReports.put(reportPath, IndexedReport.of(size, lastModified, sha256, failures));
+            return failures;
+        }
+
+        @Override
+        public void close() {
+            if (!enabled) {
+                return;
+            }
+            logger.info("Scan index: " + indexedCount.get() + " reports reused, " + parsedCount.get()
+                    + " reports parsed");
+            if (mode != AppConfig.ScanIndexMode.REBUILD && parsedCount.get() == 0
+                    && scannedReports.keySet().containsAll(loadedReportsInRootDir())) {
+                // nothing changed
+                return;
+            }
+            Map<String, IndexedReport> reports = new TreeMap<>();
+            // reports of other directories are kept, reports of this directory that were not found are dropped
+            loadedReports.forEach((reportPath, report) -> {
+                if (!Path.of(reportPath).startsWith(rootDir)) {
+                    reports.put(reportPath, report);
+                }
+            });
+            reports.putAll(scannedReports);
+            try {
+                save(reports);
+            } catch (IOException e) {
+                logger.error("Failed to save scan index " + indexFile + ": " + e.getMessage());
+            }
+        }
+
+        private List<String> loadedReportsInRootDir() {
+            return loadedReports.keySet().stream().filter(reportPath -> Path.of(reportPath).startsWith(rootDir))
+                    .toList();
+        }
+
+        private void save(Map<String, IndexedReport> reports) throws IOException {
+            Path indexDir = indexFile.toAbsolutePath().getParent();
+            Files.createDirectories(indexDir);
+            String logsGeneration = UUID.randomUUID().toString();
+            Path logsFile = logsFile(indexFile, logsGeneration);
+            Path newIndexFile = Files.createTempFile(indexDir, indexFile.getFileName().toString(), ".tmp");
+
+            Map<String, IndexedReport> savedReports = new TreeMap<>();
+            long logsSize;
+            String replacedLogsGeneration;
+            try {
+                try (FileChannel logs = FileChannel.open(logsFile, StandardOpenOption.CREATE_NEW,
+                        StandardOpenOption.WRITE)) {
+                    for (Map.Entry<String, IndexedReport> entry : reports.entrySet()) {
+                        List<IndexedFailure> savedFailures = new ArrayList<>();
+                        for (IndexedFailure failure : entry.getValue().failures()) {
+                            long logOffset = logs.position();
+                            failure.testRunLog().transferTo(logs);
+                            savedFailures.add(failure.withLog(logOffset));
+                        }
+                        savedReports.put(entry.getKey(), entry.getValue().withFailures(savedFailures));
+                    }
+                    logs.force(false);
+                    logsSize = logs.size();
+                }
+                objectMapper.writeValue(newIndexFile.toFile(),
+                        new ScanIndexData(VERSION, logsGeneration, logsSize, savedReports));
+                replacedLogsGeneration = readLogsGeneration();
+                // the index refers to its logs file, so the logs never change under an index
+                Files.move(newIndexFile, indexFile, StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException | RuntimeException e) {
+                Files.deleteIfExists(newIndexFile);
+                Files.deleteIfExists(logsFile);
+                throw e;
+            }
+            logger.info("Saved scan index " + indexFile + " with " + savedReports.size() + " reports");
+            if (replacedLogsGeneration != null) {
+                // runs that loaded the replaced index keep reading the logs file they opened
+                Files.deleteIfExists(logsFile(indexFile, replacedLogsGeneration));
+            }
+        }
+
+        private static String sha256(Path reportFile) throws IOException {
+            MessageDigest digest;
+            try {
+                digest = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new RuntimeException(e);
+            }
+            try (InputStream is = new DigestInputStream(Files.newInputStream(reportFile), digest)) {
+                is.transferTo(OutputStream.nullOutputStream());
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        }
+    }
+
+    @RegisterForReflection
+    record ScanIndexData(int version, String logsGeneration, long logsSize, Map<String, IndexedReport> reports) {
+    }
+
+    @RegisterForReflection
+    record IndexedReport(long size, long lastModified, String sha256, List<IndexedFailure> failures) {
+
+        private static IndexedReport of(long size, long lastModified, String sha256, List<Failure> failures) {
+            return new IndexedReport(size, lastModified, sha256, failures.stream()
+                    .map(failure -> IndexedFailure.of((FailureRecord) failure)).toList());
+        }
+
+        private boolean matches(long size, long lastModified, String sha256) {
+            return this.size == size && this.lastModified == lastModified
+                    && (sha256 == null || sha256.equals(this.sha256));
+        }
+
+        private boolean isValid(long logsSize) {
+            return failures != null && failures.stream().allMatch(failure -> failure.isValid(logsSize));
+        }
+
+        private IndexedReport withLogs(TestRunLogStore.SpillFile logs) {
+            return withFailures(failures.stream().map(failure -> failure.withLogs(logs)).toList());
+        }
+
+        private IndexedReport withFailures(List<IndexedFailure> failures) {
+            return new IndexedReport(size, lastModified, sha256, failures);
+        }
+
+        private List<Failure> toFailures(String modulePath, StringPool stringPool) {
+            return failures.stream().map(failure -> failure.toFailure(modulePath, stringPool)).toList();
+        }
+    }
+
+    @RegisterForReflection
+    record IndexedFailure(String testClassName, String testMethodName, String failureMessage,
+                          Failure.FailureType failureType, String throwableClass, String fingerprint,
+                          boolean flaky, long logOffset, int logLength,
+                          @JsonIgnore TestRunLogStore.TestRunLog testRunLog) {
+
+        private static IndexedFailure of(FailureRecord failure) {
+            TestRunLogStore.TestRunLog testRunLog = failure.testRunLogHandle();
+            return new IndexedFailure(failure.testClassName(), failure.testMethodName(), failure.failureMessage(),
+                    failure.failureType(), failure.throwableClass(), failure.fingerprint(), failure.flaky(),
+                    testRunLog.offset(), testRunLog.length(), testRunLog);
+        }
+
+        private boolean isValid(long logsSize) {
+            return testClassName != null && failureType != null && fingerprint != null && logOffset >= 0 && logLength >= 0
+                    && logOffset + logLength <= logsSize;
+        }
+
+        private IndexedFailure withLogs(TestRunLogStore.SpillFile logs) {
+            return withLog(logs, logOffset);
+        }
+
+        private IndexedFailure withLog(long newLogOffset) {
+            return withLog(null, newLogOffset);
+        }
+
+        private IndexedFailure withLog(TestRunLogStore.SpillFile logs, long newLogOffset) {
+            return new IndexedFailure(testClassName, testMethodName, failureMessage, failureType, throwableClass,
+                    fingerprint, flaky, newLogOffset, logLength, logs == null ? null : TestRunLogStore.TestRunLog.of(logs, newLogOffset,
+                    logLength));
+        }
+
+        private Failure toFailure(String modulePath, StringPool stringPool) {
+            return new FailureRecord(stringPool.canonicalize(testClassName),
+                    stringPool.canonicalize(requireNonNullElse(testMethodName, "")),
+                    stringPool.canonicalize(modulePath),
+                    stringPool.canonicalize(requireNonNullElse(failureMessage, "")), failureType,
+                    stringPool.canonicalize(requireNonNullElse(throwableClass, "")),
+                    stringPool.canonicalize(fingerprint), flaky, testRunLog);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package io.quarkus.qe.test.failure.detector.find.impl;
+
+import io.quarkus.qe.test.failure.detector.lifecycle.OnCommandExit;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Singleton;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Canonicalizes strings of the failures found during a single run.
+ * When a shared dependency breaks, thousands of failures have the same test class names, module paths,
+ * throwable classes and messages, and with the pool they share a single instance of each of these strings.
+ * The pooled strings are released when the command exits.
+ */
+@Singleton
+final class StringPool {
+
+    private final Map<String, String> pool = new ConcurrentHashMap<>();
+
+    /**
+     * @return the pooled instance equal to the {@code value}, or {@code null} if the {@code value} is {@code null}
+     */
+    String canonicalize(String value) {
+        if (value == null) {
+            return null;
+        }
+        String pooled = pool.putIfAbsent(value, value);
+        return pooled == null ? value : pooled;
+    }
+
+    void clear(@Observes OnCommandExit ignored) {
+        pool.clear();
+    }
+}
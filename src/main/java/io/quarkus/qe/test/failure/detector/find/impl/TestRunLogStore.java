@@ -0,0 +1,269 @@
+package io.quarkus.qe.test.failure.detector.find.impl;
+
+import io.quarkus.qe.test.failure.detector.lifecycle.OnCommandExit;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Singleton;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps test run logs (usually stack traces) out of the heap.
+ * Each log is collected in small chunks while it is parsed and then appended to a run-scoped spill file,
+ * and each {@code Failure} only keeps a small {@link TestRunLog} handle (offset and length), which is read through
+ * a memory-mapped region when someone actually asks for the log. The spill file is deleted when the command exits.
+ * The store is only locked for the append, so that the threads parsing the reports don't wait for each other's
+ * input while a log is being read.
+ */
+@Singleton
+final class TestRunLogStore {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private SpillFile spillFile;
+
+    /**
+     * Starts a new log. Nothing is written to the spill file until the log is {@link LogWriter#finish() finished},
+     * so an unfinished log (e.g. of a malformed report) leaves no partial content behind.
+     */
+    LogWriter newLog() {
+        return new LogWriter();
+    }
+
+    private TestRunLog append(LogChunks chunks) {
+        if (chunks.size() == 0) {
+            return TestRunLog.EMPTY;
+        }
+        lock.lock();
+        try {
+            if (spillFile == null) {
+                spillFile = SpillFile.create();
+            }
+            return spillFile.append(chunks);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void close(@Observes OnCommandExit ignored) {
+        close();
+    }
+
+    void close() {
+        lock.lock();
+        try {
+            if (spillFile != null) {
+                spillFile.close();
+                spillFile = null;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Handle to a single test run log.
+     */
+    record TestRunLog(SpillFile spillFile, long offset, int length) {
+
+        static final TestRunLog EMPTY = new TestRunLog(null, 0, 0);
+
+        static TestRunLog of(SpillFile spillFile, long offset, int length) {
+            return length == 0 ? EMPTY : new TestRunLog(spillFile, offset, length);
+        }
+
+        String read() {
+            if (length == 0) {
+                return "";
+            }
+            return spillFile.read(offset, length);
+        }
+
+        /**
+         * Copies the log to the target channel without reading it to the heap.
+         */
+        void transferTo(WritableByteChannel target) throws IOException {
+            if (length > 0) {
+                spillFile.transferTo(offset, length, target);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "TestRunLog[offset=" + offset + ", length=" + length + "]";
+        }
+    }
+
+    final class LogWriter {
+
+        private final LogChunks chunks = new LogChunks();
+        // the encoder keeps surrogate pairs split between two chunks together
+        private final Writer writer = new OutputStreamWriter(chunks, StandardCharsets.UTF_8);
+
+        private LogWriter() {
+        }
+
+        void append(char[] chars, int start, int length) {
+            try {
+                writer.write(chars, start, length);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to buffer test run log", e);
+            }
+        }
+
+        TestRunLog finish() {
+            try {
+                writer.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to buffer test run log", e);
+            }
+            return append(chunks);
+        }
+    }
+
+    /**
+     * Encoded log collected in fixed-size chunks, so that a large log doesn't need one large array
+     * and isn't copied when it grows.
+     */
+    private static final class LogChunks extends OutputStream {
+
+        private static final int CHUNK_SIZE = 8 * 1024;
+
+        private final List<byte[]> chunks = new ArrayList<>();
+        private long size = 0;
+
+        @Override
+        public void write(int b) {
+            write(new byte[] { (byte) b }, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) {
+            while (length > 0) {
+                int chunkOffset = (int) (size % CHUNK_SIZE);
+                if (chunkOffset == 0) {
+                    chunks.add(new byte[CHUNK_SIZE]);
+                }
+                int count = Math.min(length, CHUNK_SIZE - chunkOffset);
+                System.arraycopy(bytes, offset, chunks.getLast(), chunkOffset, count);
+                size += count;
+                offset += count;
+                length -= count;
+            }
+        }
+
+        long size() {
+            return size;
+        }
+
+        ByteBuffer[] toByteBuffers() {
+            ByteBuffer[] buffers = new ByteBuffer[chunks.size()];
+            for (int i = 0; i < buffers.length; i++) {
+                boolean last = i == buffers.length - 1;
+                int length = last && size % CHUNK_SIZE != 0 ? (int) (size % CHUNK_SIZE) : CHUNK_SIZE;
+                buffers[i] = ByteBuffer.wrap(chunks.get(i), 0, length);
+            }
+            return buffers;
+        }
+    }
+
+    static final class SpillFile {
+
+        private final Path path;
+        private final FileChannel channel;
+        private final boolean temporary;
+
+        private SpillFile(Path path, FileChannel channel, boolean temporary) {
+            this.path = path;
+            this.channel = channel;
+            this.temporary = temporary;
+        }
+
+        private static SpillFile create() {
+            try {
+                Path path = Files.createTempFile("test-run-logs-", ".log");
+                path.toFile().deleteOnExit();
+                FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                return new SpillFile(path, channel, true);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to create test run log spill file", e);
+            }
+        }
+
+        /**
+         * Opens existing file with logs (e.g. persisted by the {@link ScanIndex}) for reading.
+         * The file is not deleted when closed.
+         */
+        static SpillFile open(Path path) throws IOException {
+            return new SpillFile(path, FileChannel.open(path, StandardOpenOption.READ), false);
+        }
+
+        long size() throws IOException {
+            return channel.size();
+        }
+
+        private TestRunLog append(LogChunks chunks) {
+            if (chunks.size() > Integer.MAX_VALUE) {
+                throw new IllegalStateException("Test run log is too large: " + chunks.size() + " bytes");
+            }
+            try {
+                long offset = channel.size();
+                ByteBuffer[] buffers = chunks.toByteBuffers();
+                long written = 0;
+                while (written < chunks.size()) {
+                    written += channel.write(buffers);
+                }
+                return TestRunLog.of(this, offset, (int) chunks.size());
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to write test run log to " + path, e);
+            }
+        }
+
+        private String read(long offset, int length) {
+            if (!channel.isOpen()) {
+                throw new IllegalStateException("Test run log is no longer available, the spill file "
+                        + path + " has been closed");
+            }
+            try {
+                return StandardCharsets.UTF_8.decode(channel.map(FileChannel.MapMode.READ_ONLY, offset, length))
+                        .toString();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to read test run log from " + path, e);
+            }
+        }
+
+        private void transferTo(long offset, int length, WritableByteChannel target) throws IOException {
+            long transferred = 0;
+            while (transferred < length) {
+                long count = channel.transferTo(offset + transferred, length - transferred, target);
+                if (count == 0 && offset + transferred >= channel.size()) {
+                    throw new IOException("Test run log in " + path + " is truncated");
+                }
+                transferred += count;
+            }
+        }
+
+        void close() {
+            try {
+                channel.close();
+                if (temporary) {
+                    Files.deleteIfExists(path);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to delete test run log spill file " + path, e);
+            }
+        }
+    }
+}
@@ -1,15 +1,26 @@
 package io.quarkus.qe.test.failure.detector.project;
 
 import io.quarkus.arc.Arc;
+import io.quarkus.qe.test.failure.detector.find.Failure;
+import io.quarkus.qe.test.failure.detector.find.FailuresFinder;
 import io.quarkus.qe.test.failure.detector.project.impl.GitHubWorkflowProjectSource;
 
 import java.nio.file.Path;
 import java.util.function.Function;
+import java.util.stream.Stream;
 
 public enum ProjectSource {
 
-    LOCAL_DIRECTORY(Path::of), GITHUB_ACTION_ARTIFACTS(workflowLink -> Arc.requireContainer()
-            .select(GitHubWorkflowProjectSource.class).get().getProjectFailuresDir(workflowLink));
+    LOCAL_DIRECTORY(Path::of), GITHUB_ACTION_ARTIFACTS(workflowLink -> gitHubWorkflowProjectSource()
+            .getProjectFailuresDir(workflowLink)),
+    GITHUB_ACTION_ARTIFACT_ZIPS(workflowLink -> gitHubWorkflowProjectSource()
+            .getProjectArtifactZipsDir(workflowLink)),
+    GITHUB_ACTION_ARTIFACT_STREAM(null) {
+        @Override
+        public Stream<Failure> streamFailures(String argument, FailuresFinder failuresFinder) {
+            return gitHubWorkflowProjectSource().streamProjectFailures(argument, failuresFinder);
+        }
+    };
 
     private final Function<String, Path> argumentToPath;
 
@@ -18,6 +29,20 @@ public enum ProjectSource {
     }
 
     public Path getTestedProjectDirectory(String argument) {
+        if (argumentToPath == null) {
+            throw new UnsupportedOperationException("Project source " + name() + " doesn't store the tested project");
+        }
         return argumentToPath.apply(argument);
     }
+
+    /**
+     * Finds failures of the tested project, see {@link FailuresFinder#stream(Path)}.
+     */
+    public Stream<Failure> streamFailures(String argument, FailuresFinder failuresFinder) {
+        return failuresFinder.stream(getTestedProjectDirectory(argument));
+    }
+
+    private static GitHubWorkflowProjectSource gitHubWorkflowProjectSource() {
+        return Arc.requireContainer().select(GitHubWorkflowProjectSource.class).get();
+    }
 }
@@ -0,0 +1,211 @@
+package io.quarkus.qe.test.failure.detector.project.impl;
+
+import io.quarkus.qe.test.failure.detector.configuration.AppConfig;
+import io.quarkus.qe.test.failure.detector.logger.Logger;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+
+import java.io.IOException;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Local cache of the downloaded GitHub workflow artifacts, shared by all the runs of this tool.
+ * Artifacts are immutable, so an entry is keyed by the artifact ID and its content digest and never needs
+ * to be invalidated. Every entry is a directory with the downloaded ZIP archive, or with the extracted artifact,
+ * or both, depending on what the previous runs needed:
+ * <pre>
+ * {cache dir}/{artifact ID}-{digest}/artifact.zip
+ * {cache dir}/{artifact ID}-{digest}/extracted/...
+ * </pre>
+ * The last-modified time of the entry directory is the time of the last use. When the cache grows over
+ * the {@link AppConfig#artifactCacheSizeMb()}, the least recently used entries are deleted.
+ */
+@Singleton
+final class ArtifactCache {
+
+    static final String ARCHIVE = "artifact.zip";
+    static final String EXTRACTED = "extracted";
+    private static final String SIZE_FILE_SUFFIX = ".size";
+    private static final String STAGING_DIR_PREFIX = ".staging-";
+    // staging directories of runs that were killed in the middle of a download
+    private static final Duration ABANDONED_STAGING_DIR_AGE = Duration.ofDays(1);
+
+    private final Logger logger;
+    // entries used by this run are never evicted, they can be linked from the downloaded project
+    private final Set<Path> usedEntries = ConcurrentHashMap.newKeySet();
+    private Path cacheDir = null;
+    private long maxSizeBytes = 0;
+
+    @Inject
+    ArtifactCache(Logger logger) {
+        this.logger = logger;
+    }
+
+    void updateConfiguration(@Observes AppConfig appConfig) {
+        this.cacheDir = appConfig.artifactCacheDir() == null ? null : Path.of(appConfig.artifactCacheDir());
+        this.maxSizeBytes = appConfig.artifactCacheSizeMb() * 1024 * 1024;
+    }
+
+    boolean isEnabled() {
+        return cacheDir != null && maxSizeBytes > 0;
+    }
+
+    /**
+     * @param key artifact ID and digest
+     * @param extracted whether the extracted artifact directory or the downloaded archive is requested
+     * @return path to the cached content, or null if it is not cached
+     */
+    Path get(String key, boolean extracted) {
+        Path entry = cacheDir.resolve(key);
+        Path content = entry.resolve(extracted ? EXTRACTED : ARCHIVE);
+        if (!Files.exists(content) || !Files.exists(sizeFile(content))) {
+            // the size file is written last, the entry without it is incomplete
+            return null;
+        }
+        use(entry);
+        return content;
+    }
+
+    /**
+     * Creates a directory for a download in progress, the finished download is moved into the cache
+     * with {@link #put(String, Path)}. The directory is on the same file store as the cache,
+     * so that the move is atomic and the concurrent runs never see an incomplete entry.
+     */
+    Path createStagingDir() throws IOException {
+        return Files.createTempDirectory(Files.createDirectories(cacheDir), STAGING_DIR_PREFIX);
+    }
+
+    /**
+     * @param key artifact ID and digest
+     * @param stagedContent the {@link #ARCHIVE} file or the {@link #EXTRACTED} directory in the staging directory
+     * @return path to the cached content
+     */
+    Path put(String key, Path stagedContent) throws IOException {
+        Path entry = Files.createDirectories(cacheDir.resolve(key));
+        Path content = entry.resolve(stagedContent.getFileName().toString());
+        long size = sizeOf(stagedContent);
+        try {
+            Files.move(stagedContent, content, StandardCopyOption.ATOMIC_MOVE);
+            Files.writeString(sizeFile(content), Long.toString(size));
+        } catch (FileAlreadyExistsException | DirectoryNotEmptyException e) {
+            // another run downloaded the same artifact in the meantime
+            logger.debug("Artifact " + key + " is already cached");
+        }
+        use(entry);
+        return content;
+    }
+
+    /**
+     * Deletes the least recently used entries until the cache fits into the configured size.
+     */
+    void evict() {
+        if (!isEnabled() || !Files.isDirectory(cacheDir)) {
+            return;
+        }
+        List<Entry> entries = new ArrayList<>();
+        long totalSize = 0;
+        try (Stream<Path> dirs = Files.list(cacheDir)) {
+            for (Path dir : dirs.filter(Files::isDirectory).toList()) {
+                if (dir.getFileName().toString().startsWith(STAGING_DIR_PREFIX)) {
+                    deleteAbandonedStagingDir(dir);
+                    continue;
+                }
+                Entry entry = new Entry(dir, Files.getLastModifiedTime(dir), entrySize(dir));
+                entries.add(entry);
+                totalSize += entry.size();
+            }
+        } catch (IOException e) {
+            logger.error("Failed to list the artifact cache " + cacheDir + ": " + e.getMessage());
+            return;
+        }
+        entries.sort(Comparator.comparing(Entry::lastUsed));
+        for (Entry entry : entries) {
+            if (totalSize <= maxSizeBytes) {
+                break;
+            }
+            if (usedEntries.contains(entry.dir())) {
+                continue;
+            }
+            try {
+                deleteRecursively(entry.dir());
+                totalSize -= entry.size();
+                logger.debug("Evicted artifact " + entry.dir().getFileName() + " from the artifact cache");
+            } catch (IOException e) {
+                logger.error("Failed to evict " + entry.dir() + " from the artifact cache: " + e.getMessage());
+            }
+        }
+        if (totalSize > maxSizeBytes) {
+            logger.info("Artifacts of this run don't fit into the artifact cache size of "
+                    + maxSizeBytes / 1024 / 1024 + " MB, consider increasing the '--artifact-cache-size'");
+        }
+    }
+
+    private void use(Path entry) {
+        usedEntries.add(entry);
+        try {
+            Files.setLastModifiedTime(entry, FileTime.from(Instant.now()));
+        } catch (IOException e) {
+            logger.debug("Failed to mark artifact cache entry " + entry + " as used: " + e.getMessage());
+        }
+    }
+
+    private void deleteAbandonedStagingDir(Path dir) throws IOException {
+        Instant lastModified = Files.getLastModifiedTime(dir).toInstant();
+        if (lastModified.isBefore(Instant.now().minus(ABANDONED_STAGING_DIR_AGE))) {
+            deleteRecursively(dir);
+        }
+    }
+
+    private static long entrySize(Path entry) throws IOException {
+        long size = 0;
+        for (String contentName : List.of(ARCHIVE, EXTRACTED)) {
+            Path sizeFile = sizeFile(entry.resolve(contentName));
+            if (Files.exists(sizeFile)) {
+                size += Long.parseLong(Files.readString(sizeFile).trim());
+            }
+        }
+        return size;
+    }
+
+    private static Path sizeFile(Path content) {
+        return content.resolveSibling(content.getFileName() + SIZE_FILE_SUFFIX);
+    }
+
+    private static long sizeOf(Path content) throws IOException {
+        try (Stream<Path> files = Files.walk(content)) {
+            long size = 0;
+            for (Path file : files.filter(Files::isRegularFile).toList()) {
+                size += Files.size(file);
+            }
+            return size;
+        }
+    }
+
+    static void deleteRecursively(Path dir) throws IOException {
+        if (!Files.exists(dir)) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    private record Entry(Path dir, FileTime lastUsed, long size) {
+    }
+}
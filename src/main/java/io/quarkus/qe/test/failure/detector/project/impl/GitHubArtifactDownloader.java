@@ -0,0 +1,683 @@
+package io.quarkus.qe.test.failure.detector.project.impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.quarkus.qe.test.failure.detector.configuration.AppConfig;
+import io.quarkus.qe.test.failure.detector.find.ReportArchive;
+import io.quarkus.qe.test.failure.detector.logger.Logger;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+import java.util.regex.MatchResult;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Downloads artifacts of a GitHub Actions workflow run with the GitHub REST API.
+ * Artifacts are downloaded in parallel on virtual threads, the number of concurrent downloads is bounded
+ * by the {@link AppConfig#downloadParallelism()}.
+ * Unless {@link AppConfig#allArtifacts()} is set, only artifacts of the jobs that did not succeed are downloaded.
+ * Downloaded artifacts are kept in the {@link ArtifactCache}, cached artifacts are linked to the output directory
+ * instead of being downloaded again.
+ * <p />
+ * The API base URL is taken from the {@code GITHUB_API_URL} environment variable (set by the GitHub Actions),
+ * and the token from the {@code GITHUB_TOKEN} or {@code GH_TOKEN} environment variables, or from the GitHub CLI.
+ */
+@Singleton
+final class GitHubArtifactDownloader {
+
+    private static final String DEFAULT_API_URL = "https://api.github.com";
+    private static final int PAGE_SIZE = 100;
+    // the latest runs are checked for the completed one, the "status" query parameter misses some completed runs
+    private static final int RECENT_RUNS = 10;
+    private static final String TEMP_DOWNLOAD_DIR = ".temp-download";
+    private static final Pattern REPOSITORY = Pattern.compile("https://github\\.com/([^/]+/[^/]+)/.*");
+    private static final Pattern RUN_ID = Pattern.compile(".*/runs/([0-9]+).*");
+    private static final Pattern WORKFLOW_FILE = Pattern.compile(".*/workflows/([^/]+)$");
+    private static final Pattern NEXT_PAGE = Pattern.compile("<([^>]+)>;\\s*rel=\"next\"");
+    private static final Pattern NAME_TOKEN = Pattern.compile("[a-z0-9]+");
+    // words artifact names add to the job names
+    private static final Set<String> GENERIC_ARTIFACT_TOKENS = Set.of("artifact", "artifacts", "report", "reports",
+            "test", "tests", "results", "logs");
+    private static final String SHA256_DIGEST_PREFIX = "sha256:";
+    private static final Set<String> FAILED_JOB_CONCLUSIONS = Set.of("failure", "timed_out", "cancelled");
+
+    private final Logger logger;
+    private final ArtifactCache artifactCache;
+    private final URI apiUrl;
+    private final String token;
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private int parallelism = 4;
+    private boolean allArtifacts = false;
+
+    @Inject
+    GitHubArtifactDownloader(Logger logger, ArtifactCache artifactCache) {
+        this(logger, artifactCache, Optional.ofNullable(System.getenv("GITHUB_API_URL")).orElse(DEFAULT_API_URL),
+                findToken());
+    }
+
+    GitHubArtifactDownloader(Logger logger, ArtifactCache artifactCache, String apiUrl, String token) {
+        this.logger = logger;
+        this.artifactCache = artifactCache;
+        this.apiUrl = URI.create(apiUrl.endsWith("/") ? apiUrl : apiUrl + "/");
+        this.token = token;
+        // redirects are followed manually, so that the token is not sent to the artifact storage
+        this.httpClient = HttpClient.newBuilder()
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(Duration.ofSeconds(30))
+                .build();
+    }
+
+    void updateConfiguration(@Observes AppConfig appConfig) {
+        this.parallelism = Math.max(1, appConfig.downloadParallelism());
+        this.allArtifacts = appConfig.allArtifacts();
+    }
+
+    /**
+     * Downloads artifacts of the workflow run to the output directory.
+     * If the link points to a workflow, artifacts of its latest completed run are downloaded.
+     *
+     * @param workflowLink link to the workflow or to the workflow run
+     * @param extract whether to extract the artifacts to the "&lt;artifact name&gt;" directories,
+     *                otherwise they are stored as the "&lt;artifact name&gt;.zip" files
+     */
+    void download(String workflowLink, Path outputDir, boolean extract) throws IOException, InterruptedException {
+        List<Artifact> artifacts = findArtifacts(workflowLink);
+        Files.createDirectories(outputDir);
+        if (artifacts.isEmpty()) {
+            return;
+        }
+        logger.info("Downloading " + artifacts.size() + " artifacts with up to " + parallelism
+                + " parallel downloads");
+
+        Path downloadDir = extract ? Files.createDirectories(outputDir.resolve(TEMP_DOWNLOAD_DIR)) : outputDir;
+        try {
+            int downloaded = downloadAll(artifacts, downloadDir, extract ? outputDir : null);
+            if (downloaded == 0) {
+                throw new IOException("Failed to download any artifact of run " + artifacts.getFirst().runId());
+            }
+            logger.info("Successfully downloaded " + downloaded + " artifacts from run "
+                    + artifacts.getFirst().runId());
+        } finally {
+            if (extract) {
+                ArtifactCache.deleteRecursively(downloadDir);
+            }
+            artifactCache.evict();
+        }
+    }
+
+    /**
+     * Returns artifacts of the workflow run as archives that are downloaded when they are read,
+     * so that their reports can be scanned during the download. Nothing is stored on the disk,
+     * unless the archive is already in the {@link ArtifactCache}, then it is read from the cache.
+     *
+     * @param workflowLink link to the workflow or to the workflow run
+     */
+    List<ReportArchive> listReportArchives(String workflowLink) throws IOException, InterruptedException {
+        List<ReportArchive> archives = new ArrayList<>();
+        for (Artifact artifact : findArtifacts(workflowLink)) {
+            if (artifact.expired()) {
+                logger.error("Skipping expired artifact: " + artifact.name());
+            } else {
+                archives.add(new StreamedArtifact(artifact));
+            }
+        }
+        return archives;
+    }
+
+    /**
+     * @return artifacts of the workflow run that should be downloaded, possibly none if all the jobs succeeded
+     */
+    private List<Artifact> findArtifacts(String workflowLink) throws IOException, InterruptedException {
+        String repository = match(REPOSITORY, workflowLink);
+        if (repository == null) {
+            throw new IOException("Could not extract repository from URL: " + workflowLink);
+        }
+        logger.info("Repository: " + repository);
+        if (token == null) {
+            logger.error("No GitHub token found in the GITHUB_TOKEN or GH_TOKEN environment variables"
+                    + " or in the GitHub CLI, artifacts can only be downloaded with a token");
+        }
+
+        String runId = match(RUN_ID, workflowLink);
+        if (runId == null) {
+            String workflowFile = match(WORKFLOW_FILE, workflowLink);
+            if (workflowFile == null) {
+                throw new IOException("Could not extract workflow file from URL: " + workflowLink);
+            }
+            logger.info("Workflow file: " + workflowFile);
+            runId = findLatestCompletedRun(repository, workflowFile);
+            logger.info("Latest completed run ID: " + runId);
+        } else {
+            logger.info("Run ID: " + runId);
+        }
+
+        List<Artifact> artifacts = listArtifacts(repository, runId);
+        if (artifacts.isEmpty()) {
+            throw new IOException("No artifacts found for run " + runId);
+        }
+        if (!allArtifacts) {
+            artifacts = selectArtifactsOfFailedJobs(repository, runId, artifacts);
+            if (artifacts.isEmpty()) {
+                logger.info("No job of run " + runId + " failed, there is nothing to download");
+            }
+        }
+        return artifacts;
+    }
+
+    private int downloadAll(List<Artifact> artifacts, Path downloadDir, Path extractDir) throws InterruptedException {
+        Semaphore permits = new Semaphore(parallelism, true);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<Boolean>> downloads = new ArrayList<>(artifacts.size());
+            for (Artifact artifact : artifacts) {
+                downloads.add(executor.submit(() -> {
+                    permits.acquire();
+                    try {
+                        return downloadArtifact(artifact, downloadDir, extractDir);
+                    } finally {
+                        permits.release();
+                    }
+                }));
+            }
+            int downloaded = 0;
+            for (Future<Boolean> download : downloads) {
+                try {
+                    if (download.get()) {
+                        downloaded++;
+                    }
+                } catch (ExecutionException e) {
+                    logger.error("Failed to download artifact: " + e.getCause().getMessage());
+                }
+            }
+            return downloaded;
+        }
+    }
+
+    private boolean downloadArtifact(Artifact artifact, Path downloadDir, Path extractDir) throws InterruptedException {
+        if (artifact.expired()) {
+            logger.error("Skipping expired artifact: " + artifact.name());
+            return false;
+        }
+        try {
+            if (artifactCache.isEnabled()) {
+                downloadCachedArtifact(artifact, downloadDir, extractDir);
+            } else {
+                fetchArtifact(artifact, downloadDir.resolve(artifact.name() + ".zip"),
+                        extractDir == null ? null : extractDir.resolve(artifact.name()));
+            }
+            return true;
+        } catch (IOException e) {
+            logger.error("Failed to download artifact " + artifact.name() + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Artifacts found in the cache are not downloaded at all, the output directory only links to the cached
+     * archive or the cached extracted directory.
+     */
+    private void downloadCachedArtifact(Artifact artifact, Path downloadDir, Path extractDir)
+            throws IOException, InterruptedException {
+        boolean extract = extractDir != null;
+        String key = artifact.cacheKey();
+        Path cachedContent = artifactCache.get(key, extract);
+        if (cachedContent != null) {
+            logger.info("Using cached artifact: " + artifact.name() + " (ID: " + artifact.id() + ")");
+        } else {
+            Path stagingDir = artifactCache.createStagingDir();
+            try {
+                Path zipFile = stagingDir.resolve(ArtifactCache.ARCHIVE);
+                Path artifactDir = stagingDir.resolve(ArtifactCache.EXTRACTED);
+                fetchArtifact(artifact, zipFile, extract ? artifactDir : null);
+                cachedContent = artifactCache.put(key, extract ? artifactDir : zipFile);
+            } finally {
+                ArtifactCache.deleteRecursively(stagingDir);
+            }
+        }
+        link(extract ? extractDir.resolve(artifact.name()) : downloadDir.resolve(artifact.name() + ".zip"),
+                cachedContent);
+    }
+
+    /**
+     * Downloads the artifact archive and extracts it to the artifact directory, unless it is null.
+     */
+    private void fetchArtifact(Artifact artifact, Path zipFile, Path artifactDir)
+            throws IOException, InterruptedException {
+        logger.info("Downloading artifact: " + artifact.name() + " (ID: " + artifact.id() + ")");
+        try (InputStream body = openArtifact(artifact)) {
+            Files.copy(body, zipFile, StandardCopyOption.REPLACE_EXISTING);
+        }
+        if (artifactDir != null) {
+            Files.createDirectories(artifactDir);
+            // GitHub API returns a ZIP that can contain another archive with the uploaded files
+            extractArchive(zipFile, artifactDir);
+            Files.delete(zipFile);
+            extractNestedArchives(artifactDir);
+        }
+        logger.info("Downloaded: " + artifact.name());
+    }
+
+    /**
+     * @return the artifact archive content, its digest is verified when the last byte is read
+     */
+    private InputStream openArtifact(Artifact artifact) throws IOException, InterruptedException {
+        HttpResponse<InputStream> response = send(apiUrl.resolve("repos/" + artifact.repository()
+                + "/actions/artifacts/" + artifact.id() + "/zip"), true);
+        if (isRedirect(response.statusCode())) {
+            response.body().close();
+            URI location = URI.create(response.headers().firstValue("Location")
+                    .orElseThrow(() -> new IOException("Redirect without location")));
+            response = send(location, false);
+        }
+        try {
+            checkStatus(response);
+        } catch (IOException e) {
+            response.body().close();
+            throw e;
+        }
+        return artifact.sha256() == null ? response.body() : new DigestVerifyingInputStream(response.body(), artifact);
+    }
+
+    private void link(Path link, Path cachedContent) throws IOException {
+        try {
+            Files.createSymbolicLink(link, cachedContent.toAbsolutePath());
+        } catch (UnsupportedOperationException | IOException e) {
+            // symbolic links require special privileges on Windows
+            logger.debug("Failed to link " + link + " to the cached artifact, copying it: " + e.getMessage());
+            try (Stream<Path> files = Files.walk(cachedContent)) {
+                for (Path file : files.toList()) {
+                    Path target = link.resolve(cachedContent.relativize(file).toString());
+                    if (Files.isDirectory(file)) {
+                        Files.createDirectories(target);
+                    } else {
+                        Files.copy(file, target, StandardCopyOption.REPLACE_EXISTING);
+                    }
+                }
+            }
+        }
+    }
+
+    private static MessageDigest newSha256Digest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * The API doesn't say which job uploaded the artifact, so artifacts are matched to jobs by their names.
+     * Matrix jobs are typically named after the matrix values and so are their artifacts, for example
+     * the "artifacts-linux-jvm21-rootmodules" artifact belongs to the "Linux JVM 21 - root-modules" job.
+     * Artifacts that can't be matched to exactly one job are always downloaded, so that an artifact of a failed job
+     * is never skipped because its name happens to match a job that passed.
+     */
+    private List<Artifact> selectArtifactsOfFailedJobs(String repository, String runId, List<Artifact> artifacts)
+            throws InterruptedException {
+        List<Job> jobs;
+        try {
+            jobs = listJobs(repository, runId);
+        } catch (IOException e) {
+            logger.error("Failed to list jobs of run " + runId + ", all the artifacts will be downloaded: "
+                    + e.getMessage());
+            return artifacts;
+        }
+        List<Artifact> selected = new ArrayList<>();
+        for (Artifact artifact : artifacts) {
+            Job job = findJob(artifact.name(), jobs);
+            if (job == null) {
+                logger.info("Artifact " + artifact.name() + " doesn't match exactly one job, it will be downloaded");
+                selected.add(artifact);
+            } else if (job.failed()) {
+                selected.add(artifact);
+            } else {
+                logger.debug("Skipping artifact " + artifact.name() + " of the job '" + job.name()
+                        + "' with conclusion " + job.conclusion());
+            }
+        }
+        logger.info("Selected " + selected.size() + " of " + artifacts.size()
+                + " artifacts that belong to failed jobs, use '--all-artifacts' to download all of them");
+        return selected;
+    }
+
+    /**
+     * A job matches the artifact if every word of the job name is part of the artifact name and every word
+     * of the artifact name, except for the generic ones like "artifacts", is part of the job name.
+     * Short words like "21" or "jvm" are part of many names, so both directions are required.
+     *
+     * @return the job with the most specific matching name, or null if there is no such job or more of them
+     */
+    static Job findJob(String artifactName, List<Job> jobs) {
+        List<String> allArtifactTokens = nameTokens(artifactName);
+        String compactArtifactName = String.join("", allArtifactTokens);
+        List<String> artifactTokens = allArtifactTokens.stream()
+                .filter(token -> !GENERIC_ARTIFACT_TOKENS.contains(token))
+                .toList();
+        Job bestMatch = null;
+        int bestMatchTokens = 0;
+        boolean ambiguous = false;
+        for (Job job : jobs) {
+            List<String> jobTokens = nameTokens(job.name());
+            String compactJobName = String.join("", jobTokens);
+            if (jobTokens.isEmpty() || !jobTokens.stream().allMatch(compactArtifactName::contains)
+                    || !artifactTokens.stream().allMatch(compactJobName::contains)) {
+                continue;
+            }
+            if (jobTokens.size() > bestMatchTokens) {
+                bestMatch = job;
+                bestMatchTokens = jobTokens.size();
+                ambiguous = false;
+            } else if (jobTokens.size() == bestMatchTokens) {
+                ambiguous = true;
+            }
+        }
+        return ambiguous ? null : bestMatch;
+    }
+
+    private static List<String> nameTokens(String name) {
+        return NAME_TOKEN.matcher(name.toLowerCase(Locale.ROOT)).results().map(MatchResult::group).toList();
+    }
+
+    private List<Job> listJobs(String repository, String runId) throws IOException, InterruptedException {
+        List<Job> jobs = new ArrayList<>();
+        // only the latest attempt of each job, the artifacts of the previous attempts are replaced
+        forEachItem(apiUrl.resolve("repos/" + repository + "/actions/runs/" + runId + "/jobs?filter=latest&per_page="
+                + PAGE_SIZE), "jobs", job -> jobs.add(new Job(job.path("name").asText(),
+                job.path("conclusion").asText())));
+        return jobs;
+    }
+
+    private String findLatestCompletedRun(String repository, String workflowFile)
+            throws IOException, InterruptedException {
+        JsonNode runs = getJson(apiUrl.resolve("repos/" + repository + "/actions/workflows/" + workflowFile
+                + "/runs?per_page=" + RECENT_RUNS)).body().path("workflow_runs");
+        for (JsonNode run : runs) {
+            if ("completed".equals(run.path("status").asText())) {
+                return run.path("id").asText();
+            }
+        }
+        throw new IOException("No completed runs found for workflow " + workflowFile);
+    }
+
+    private List<Artifact> listArtifacts(String repository, String runId) throws IOException, InterruptedException {
+        List<Artifact> artifacts = new ArrayList<>();
+        forEachItem(apiUrl.resolve("repos/" + repository + "/actions/runs/" + runId + "/artifacts?per_page="
+                + PAGE_SIZE), "artifacts", artifact -> artifacts.add(new Artifact(repository, runId,
+                artifact.path("id").asLong(), safeFileName(artifact.path("name").asText()),
+                artifact.path("expired").asBoolean(), artifact.path("digest").asText(null))));
+        return artifacts;
+    }
+
+    /**
+     * Calls the action for every item of the array field of all the pages of the paginated API response.
+     */
+    private void forEachItem(URI firstPage, String arrayField, Consumer<JsonNode> action)
+            throws IOException, InterruptedException {
+        URI page = firstPage;
+        while (page != null) {
+            JsonPage jsonPage = getJson(page);
+            jsonPage.body().path(arrayField).forEach(action);
+            page = jsonPage.next();
+        }
+    }
+
+    private JsonPage getJson(URI uri) throws IOException, InterruptedException {
+        HttpResponse<InputStream> response = send(uri, true);
+        try (InputStream body = response.body()) {
+            checkStatus(response);
+            URI next = response.headers().allValues("Link").stream()
+                    .map(NEXT_PAGE::matcher)
+                    .filter(Matcher::find)
+                    .map(matcher -> URI.create(matcher.group(1)))
+                    .findFirst().orElse(null);
+            return new JsonPage(objectMapper.readTree(body), next);
+        }
+    }
+
+    private HttpResponse<InputStream> send(URI uri, boolean authenticated) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri)
+                .header("Accept", "application/vnd.github+json")
+                .header("X-GitHub-Api-Version", "2022-11-28")
+                .header("User-Agent", "test-failure-detector")
+                .GET();
+        if (authenticated && token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        return httpClient.send(request.build(), HttpResponse.BodyHandlers.ofInputStream());
+    }
+
+    private static void checkStatus(HttpResponse<?> response) throws IOException {
+        if (response.statusCode() != 200) {
+            throw new IOException("Request " + response.uri() + " failed with HTTP status " + response.statusCode());
+        }
+    }
+
+    private static boolean isRedirect(int statusCode) {
+        return statusCode == 301 || statusCode == 302 || statusCode == 303 || statusCode == 307 || statusCode == 308;
+    }
+
+    private static void extractNestedArchives(Path artifactDir) throws IOException {
+        List<Path> nestedArchives;
+        try (Stream<Path> files = Files.list(artifactDir)) {
+            nestedArchives = files.filter(Files::isRegularFile).filter(GitHubArtifactDownloader::isArchive).toList();
+        }
+        for (Path nestedArchive : nestedArchives) {
+            extractArchive(nestedArchive, artifactDir);
+            Files.delete(nestedArchive);
+        }
+    }
+
+    private static boolean isArchive(Path file) {
+        String fileName = file.getFileName().toString();
+        return fileName.endsWith(".zip") || fileName.endsWith(".tar") || fileName.endsWith(".tar.gz")
+                || fileName.endsWith(".tgz");
+    }
+
+    private static void extractArchive(Path archive, Path targetDir) throws IOException {
+        String fileName = archive.getFileName().toString();
+        if (fileName.endsWith(".tar") || fileName.endsWith(".tar.gz") || fileName.endsWith(".tgz")) {
+            extractTarArchive(archive, targetDir);
+            return;
+        }
+        Path normalizedTargetDir = targetDir.toAbsolutePath().normalize();
+        try (ZipInputStream zip = new ZipInputStream(new BufferedInputStream(Files.newInputStream(archive)))) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                Path target = normalizedTargetDir.resolve(entry.getName()).normalize();
+                if (!target.startsWith(normalizedTargetDir)) {
+                    throw new IOException("Archive entry " + entry.getName() + " is outside of the target directory");
+                }
+                if (entry.isDirectory()) {
+                    Files.createDirectories(target);
+                } else {
+                    Files.createDirectories(target.getParent());
+                    Files.copy(zip, target, StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+        }
+    }
+
+    private static void extractTarArchive(Path archive, Path targetDir) throws IOException {
+        // JDK has no TAR support, these are rare, so the system 'tar' is good enough
+        boolean gzip = !archive.getFileName().toString().endsWith(".tar");
+        Process process = new ProcessBuilder("tar", gzip ? "-xzf" : "-xf", archive.toString(), "-C",
+                targetDir.toString()).redirectErrorStream(true).start();
+        try {
+            String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+            if (process.waitFor() != 0) {
+                throw new IOException("Failed to extract " + archive.getFileName() + ": " + output);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while extracting " + archive.getFileName(), e);
+        }
+    }
+
+    private static String match(Pattern pattern, String value) {
+        Matcher matcher = pattern.matcher(value);
+        return matcher.matches() ? matcher.group(1) : null;
+    }
+
+    private static String safeFileName(String artifactName) {
+        // GitHub doesn't allow these in artifact names, but the name is used as a path, so make sure
+        String fileName = artifactName.replaceAll("[/\\\\:]", "_");
+        return fileName.isBlank() || fileName.startsWith(".") ? "_" + fileName : fileName;
+    }
+
+    private static String findToken() {
+        for (String variable : List.of("GITHUB_TOKEN", "GH_TOKEN")) {
+            String token = System.getenv(variable);
+            if (token != null && !token.isBlank()) {
+                return token.trim();
+            }
+        }
+        // the same credentials as the 'gh' command, if the user authenticated with 'gh auth login'
+        try {
+            Process process = new ProcessBuilder("gh", "auth", "token").start();
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(),
+                    StandardCharsets.UTF_8))) {
+                String token = reader.readLine();
+                if (process.waitFor() == 0 && token != null && !token.isBlank()) {
+                    return token.trim();
+                }
+            }
+        } catch (IOException e) {
+            // GitHub CLI is not installed
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return null;
+    }
+
+    /**
+     * @param digest content digest in the form of "sha256:{hex}", older artifacts don't have it
+     */
+    private record Artifact(String repository, String runId, long id, String name, boolean expired, String digest) {
+
+        String sha256() {
+            return digest != null && digest.startsWith(SHA256_DIGEST_PREFIX)
+                    ? digest.substring(SHA256_DIGEST_PREFIX.length()) : null;
+        }
+
+        String cacheKey() {
+            // artifacts are immutable, the ID is enough, the digest is just a safety net
+            String sha256 = sha256();
+            return sha256 == null ? Long.toString(id) : id + "-" + sha256.replaceAll("[^A-Za-z0-9]", "");
+        }
+    }
+
+    private record JsonPage(JsonNode body, URI next) {
+    }
+
+    private final class StreamedArtifact implements ReportArchive {
+
+        private final Artifact artifact;
+
+        private StreamedArtifact(Artifact artifact) {
+            this.artifact = artifact;
+        }
+
+        @Override
+        public String name() {
+            return artifact.name();
+        }
+
+        @Override
+        public InputStream open() throws IOException, InterruptedException {
+            if (artifactCache.isEnabled()) {
+                Path cachedArchive = artifactCache.get(artifact.cacheKey(), false);
+                if (cachedArchive != null) {
+                    logger.info("Using cached artifact: " + artifact.name() + " (ID: " + artifact.id() + ")");
+                    return Files.newInputStream(cachedArchive);
+                }
+            }
+            logger.info("Streaming artifact: " + artifact.name() + " (ID: " + artifact.id() + ")");
+            return openArtifact(artifact);
+        }
+    }
+
+    /**
+     * Fails the read of the last byte if the content doesn't match the artifact digest,
+     * so that a corrupted download is never mistaken for a complete one.
+     */
+    private static final class DigestVerifyingInputStream extends DigestInputStream {
+
+        private final Artifact artifact;
+        private boolean verified = false;
+
+        private DigestVerifyingInputStream(InputStream content, Artifact artifact) {
+            super(content, newSha256Digest());
+            this.artifact = artifact;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int read = super.read();
+            if (read == -1) {
+                verify();
+            }
+            return read;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read == -1) {
+                verify();
+            }
+            return read;
+        }
+
+        private void verify() throws IOException {
+            if (!verified) {
+                verified = true;
+                String actual = HexFormat.of().formatHex(getMessageDigest().digest());
+                if (!artifact.sha256().equalsIgnoreCase(actual)) {
+                    throw new IOException("Digest of the artifact " + artifact.name() + " doesn't match "
+                            + artifact.digest());
+                }
+            }
+        }
+    }
+
+    record Job(String name, String conclusion) {
+
+        boolean failed() {
+            return FAILED_JOB_CONCLUSIONS.contains(conclusion);
+        }
+    }
+}
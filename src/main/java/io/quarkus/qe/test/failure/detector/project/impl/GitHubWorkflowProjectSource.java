@@ -1,17 +1,19 @@
 package io.quarkus.qe.test.failure.detector.project.impl;
 
 import io.quarkus.arc.Unremovable;
+import io.quarkus.qe.test.failure.detector.find.Failure;
+import io.quarkus.qe.test.failure.detector.find.FailuresFinder;
+import io.quarkus.qe.test.failure.detector.find.ReportArchive;
 import io.quarkus.qe.test.failure.detector.logger.Logger;
 import jakarta.enterprise.context.Dependent;
 import jakarta.inject.Inject;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Unremovable
 @Dependent
@@ -20,70 +22,53 @@ public class GitHubWorkflowProjectSource {
     @Inject
     Logger logger;
 
-    public Path getProjectFailuresDir(String workflowLink) {
-        logger.info("Downloading GitHub workflow artifacts from: " + workflowLink);
-
-        try {
-            // Create a temporary directory for artifacts
-            Path tempDir = Files.createTempDirectory("github-artifacts-" + UUID.randomUUID());
-            logger.info("Created temporary directory: " + tempDir);
-
-            // Get the path to the download script
-            Path scriptPath = getDownloadScriptPath();
-
-            // Execute the download script
-            ProcessBuilder pb = new ProcessBuilder(
-                    scriptPath.toString(),
-                    workflowLink,
-                    tempDir.toString()
-            );
-            pb.redirectErrorStream(true);
-
-            logger.info("Executing download script...");
-            Process process = pb.start();
+    @Inject
+    GitHubArtifactDownloader artifactDownloader;
 
-            // Read and log script output
-            try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    logger.info("  " + line);
-                }
-            }
+    public Path getProjectFailuresDir(String workflowLink) {
+        return downloadArtifacts(workflowLink, true);
+    }
 
-            int exitCode = process.waitFor();
+    /**
+     * Downloads the workflow artifacts without extracting them.
+     * The returned directory contains one "<artifact name>.zip" file per artifact.
+     */
+    public Path getProjectArtifactZipsDir(String workflowLink) {
+        return downloadArtifacts(workflowLink, false);
+    }
 
-            if (exitCode != 0) {
-                throw new RuntimeException("Failed to download artifacts. Script exit code: " + exitCode);
-            }
+    /**
+     * Scans the workflow artifacts while they are downloaded, the artifacts are not stored on the disk.
+     */
+    public Stream<Failure> streamProjectFailures(String workflowLink, FailuresFinder failuresFinder) {
+        logger.info("Streaming GitHub workflow artifacts from: " + workflowLink);
 
-            logger.info("Successfully downloaded and extracted artifacts to: " + tempDir);
-            return tempDir;
+        try {
+            List<ReportArchive> archives = artifactDownloader.listReportArchives(workflowLink);
+            // the directory is never created, module paths are only resolved as if the artifacts were extracted here
+            Path projectDir = Path.of(System.getProperty("java.io.tmpdir"), "github-artifacts-" + UUID.randomUUID());
+            return failuresFinder.stream(projectDir, archives);
 
         } catch (IOException | InterruptedException e) {
             throw new RuntimeException("Error downloading GitHub artifacts: " + e.getMessage(), e);
         }
     }
 
-    /**
-     * Gets the path to the download script.
-     * Extracts it from resources if needed.
-     */
-    private Path getDownloadScriptPath() throws IOException {
-        // Try to find the script in the resources
-        InputStream scriptStream = getClass().getClassLoader()
-                .getResourceAsStream("download-github-artifacts.sh");
+    private Path downloadArtifacts(String workflowLink, boolean extract) {
+        logger.info("Downloading GitHub workflow artifacts from: " + workflowLink);
 
-        if (scriptStream == null) {
-            throw new IOException("Could not find download-github-artifacts.sh in resources");
-        }
+        try {
+            // Create a temporary directory for artifacts
+            Path tempDir = Files.createTempDirectory("github-artifacts-" + UUID.randomUUID());
+            logger.info("Created temporary directory: " + tempDir);
 
-        // Create a temporary file for the script
-        Path scriptPath = Files.createTempFile("download-github-artifacts", ".sh");
-        Files.copy(scriptStream, scriptPath, java.nio.file.StandardCopyOption.REPLACE_EXISTING);
+            artifactDownloader.download(workflowLink, tempDir, extract);
 
-        // Make it executable
-        scriptPath.toFile().setExecutable(true);
+            logger.info("Successfully downloaded " + (extract ? "and extracted " : "") + "artifacts to: " + tempDir);
+            return tempDir;
 
-        return scriptPath;
+        } catch (IOException | InterruptedException e) {
+            throw new RuntimeException("Error downloading GitHub artifacts: " + e.getMessage(), e);
+        }
     }
 }
@@ -119,6 +119,11 @@ final class RootCauseReportBuilderImpl implements RootCauseReportBuilder {
                         resultBuilder.append("      - Test is flaky (intermittent failure)").append(System.lineSeparator());
                         resultBuilder.append("      - Environmental differences between test suite run and bisect environment").append(System.lineSeparator());
                     }
+                    case FLAKY -> {
+                        resultBuilder.append("  Upstream Change: Not analyzed").append(System.lineSeparator());
+                        resultBuilder.append("    Test passed when it was rerun, bisect was skipped").append(System.lineSeparator());
+                        resultBuilder.append("    This indicates a flaky test (intermittent failure)").append(System.lineSeparator());
+                    }
                     case BUILD_FAILED -> {
                         resultBuilder.append("  Upstream Change: Unable to identify").append(System.lineSeparator());
                         resultBuilder.append("    Quarkus build failed during bisect").append(System.lineSeparator());
@@ -0,0 +1,88 @@
+package io.quarkus.qe.test.failure.detector;
+
+import io.quarkus.qe.test.failure.detector.configuration.AppConfig;
+import io.quarkus.qe.test.failure.detector.project.ProjectSource;
+
+import java.nio.file.Path;
+
+/**
+ * Builds {@link AppConfig} for tests with the command defaults, so that tests only set what they care about.
+ */
+public final class TestAppConfig {
+
+    private ProjectSource projectSource = ProjectSource.LOCAL_DIRECTORY;
+    private String projectSourceArgument = ".";
+    private int scanParallelism = 2;
+    private AppConfig.ScanIndexMode scanIndexMode = AppConfig.ScanIndexMode.IGNORE;
+    private String scanIndexFilePath = null;
+    private int downloadParallelism = 2;
+    private boolean allArtifacts = false;
+    private String artifactCacheDir = null;
+    private long artifactCacheSizeMb = 0;
+    private AppConfig.BisectMode bisectMode = AppConfig.BisectMode.JOINT;
+    private String buildCacheDir = null;
+    private long buildCacheSizeMb = 0;
+
+    private TestAppConfig() {
+    }
+
+    public static TestAppConfig builder() {
+        return new TestAppConfig();
+    }
+
+    public TestAppConfig projectSource(ProjectSource projectSource) {
+        this.projectSource = projectSource;
+        return this;
+    }
+
+    public TestAppConfig projectSourceArgument(String projectSourceArgument) {
+        this.projectSourceArgument = projectSourceArgument;
+        return this;
+    }
+
+    public TestAppConfig scanParallelism(int scanParallelism) {
+        this.scanParallelism = scanParallelism;
+        return this;
+    }
+
+    public TestAppConfig scanIndex(AppConfig.ScanIndexMode scanIndexMode, Path scanIndexFile) {
+        this.scanIndexMode = scanIndexMode;
+        this.scanIndexFilePath = scanIndexFile.toString();
+        return this;
+    }
+
+    public TestAppConfig downloadParallelism(int downloadParallelism) {
+        this.downloadParallelism = downloadParallelism;
+        return this;
+    }
+
+    public TestAppConfig allArtifacts(boolean allArtifacts) {
+        this.allArtifacts = allArtifacts;
+        return this;
+    }
+
+    public TestAppConfig artifactCache(Path artifactCacheDir, long artifactCacheSizeMb) {
+        this.artifactCacheDir = artifactCacheDir.toString();
+        this.artifactCacheSizeMb = artifactCacheSizeMb;
+        return this;
+    }
+
+    public TestAppConfig bisectMode(AppConfig.BisectMode bisectMode) {
+        this.bisectMode = bisectMode;
+        return this;
+    }
+
+    public TestAppConfig buildCache(Path buildCacheDir, long buildCacheSizeMb) {
+        this.buildCacheDir = buildCacheDir.toString();
+        this.buildCacheSizeMb = buildCacheSizeMb;
+        return this;
+    }
+
+    public AppConfig build() {
+        return new AppConfig(7, null, "failure-history.json", null, AppConfig.BisectStrategy.BINARY, null,
+                projectSource, projectSourceArgument, scanParallelism, scanIndexMode, scanIndexFilePath,
+                AppConfig.FlakyFailurePolicy.SKIP, downloadParallelism, allArtifacts, artifactCacheDir,
+                artifactCacheSizeMb, bisectMode, buildCacheDir, buildCacheSizeMb,
+                AppConfig.QuarkusBuildMode.INCREMENTAL);
+    }
+}
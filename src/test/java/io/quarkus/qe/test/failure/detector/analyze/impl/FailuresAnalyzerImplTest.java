@@ -1,8 +1,13 @@
 package io.quarkus.qe.test.failure.detector.analyze.impl;
 
+import io.quarkus.qe.test.failure.detector.TestAppConfig;
 import io.quarkus.qe.test.failure.detector.TestBeanProfile;
+import io.quarkus.qe.test.failure.detector.TestLogger;
+import io.quarkus.qe.test.failure.detector.analyze.AnalysisMetadata;
 import io.quarkus.qe.test.failure.detector.analyze.FailuresAnalyzer;
 import io.quarkus.qe.test.failure.detector.analyze.RootCause;
+import io.quarkus.qe.test.failure.detector.analyze.UpstreamChangeFinder;
+import io.quarkus.qe.test.failure.detector.configuration.AppConfig;
 import io.quarkus.qe.test.failure.detector.find.Failure;
 import io.quarkus.qe.test.failure.detector.find.FailuresFinder;
 import io.quarkus.test.junit.QuarkusTest;
@@ -12,8 +17,14 @@ import org.junit.jupiter.api.Test;
 
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -199,4 +210,375 @@ class FailuresAnalyzerImplTest {
                     "Subsequent failures should not be marked as primary");
         }
     }
+
+    @Test
+    void testUpstreamChangesAreLookedUpInBackgroundOneAtATime() {
+        CountDownLatch releaseLookups = new CountDownLatch(1);
+        AtomicInteger lookups = new AtomicInteger();
+        AtomicInteger runningLookups = new AtomicInteger();
+        AtomicInteger maxRunningLookups = new AtomicInteger();
+        UpstreamChangeFinder finder = failure -> {
+            lookups.incrementAndGet();
+            maxRunningLookups.accumulateAndGet(runningLookups.incrementAndGet(), Math::max);
+            try {
+                releaseLookups.await(10, TimeUnit.SECONDS);
+                return new RootCause.UpstreamChange("abc123", null, null, RootCause.FailureReason.FOUND);
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            } finally {
+                runningLookups.decrementAndGet();
+            }
+        };
+        UpstreamChangeLookups upstreamChangeLookups = new UpstreamChangeLookups();
+        upstreamChangeLookups.updateConfiguration(TestAppConfig.builder()
+                .bisectMode(AppConfig.BisectMode.SEPARATE)
+                .build());
+        FailuresAnalyzer analyzer = new FailuresAnalyzerImpl(new TestLogger(), finder, upstreamChangeLookups);
+
+        try {
+            CompletableFuture<RootCause> first = analyzer.analyzeAsync(
+                    new TestFailure("org.acme.FirstIT", "test", "/project/first", "first message"));
+            CompletableFuture<RootCause> second = analyzer.analyzeAsync(
+                    new TestFailure("org.acme.SecondIT", "test", "/project/second", "second message"));
+            // same class as the first failure, it waits for the lookup of the first root cause
+            CompletableFuture<RootCause> third = analyzer.analyzeAsync(
+                    new TestFailure("org.acme.FirstIT", "other", "/project/first", "first message"));
+            assertFalse(first.isDone(), "Failures must be assigned without waiting for the lookup");
+
+            releaseLookups.countDown();
+            assertEquals("abc123", first.join().upstreamChange().gitCommitSHA());
+            assertEquals("abc123", second.join().upstreamChange().gitCommitSHA());
+            RootCause shared = third.join();
+            assertEquals(first.join().identifier(), shared.identifier());
+            assertEquals(2, shared.failures().size(), "Failures added during the lookup must be kept");
+            assertEquals("abc123", shared.upstreamChange().gitCommitSHA());
+            assertEquals(2, lookups.get(), "Upstream change must be looked up once per root cause");
+            assertEquals(1, maxRunningLookups.get(), "Lookups share the local repositories and must not overlap");
+        } finally {
+            upstreamChangeLookups.close();
+        }
+    }
+
+    @Test
+    void testJointAnalysisGroupingDoesNotDependOnOrder() {
+        TestFailure first = new TestFailure("org.acme.FirstIT", "test", "/project/first", "first message");
+        TestFailure second = new TestFailure("org.acme.SecondIT", "test", "/project/second", "second message");
+        // connects both failures above, by the class of the first one and the module of the second one
+        TestFailure connecting = new TestFailure("org.acme.FirstIT", "other", "/project/second", "third message");
+
+        for (List<Failure> failures : List.<List<Failure>>of(List.of(first, second, connecting),
+                List.of(connecting, second, first))) {
+            List<List<Failure>> lookedUp = new ArrayList<>();
+            UpstreamChangeFinder finder = recordingFinder(lookedUp);
+            UpstreamChangeLookups upstreamChangeLookups = new UpstreamChangeLookups();
+            FailuresAnalyzer analyzer = new FailuresAnalyzerImpl(new TestLogger(), finder, upstreamChangeLookups);
+
+            try {
+                List<CompletableFuture<RootCause>> rootCauses = failures.stream().map(analyzer::analyzeAsync).toList();
+                analyzer.finishAnalysis();
+
+                assertEquals(1, rootCauses.stream().map(CompletableFuture::join).map(RootCause::identifier).distinct().count(),
+                        "All the failures are connected, they should have one root cause: " + failures);
+                assertEquals(3, rootCauses.getFirst().join().failures().size());
+                assertEquals(List.of(List.of(failures.getFirst())), lookedUp,
+                        "Only the first failure should be looked up");
+            } finally {
+                upstreamChangeLookups.close();
+            }
+        }
+    }
+
+    @Test
+    void testSharedFingerprintDoesNotChainModules() {
+        TestFailure first = new TestFailure("org.acme.FirstIT", "test", "/project/first", "connection refused");
+        // the failures of the second and third modules are unrelated, but each module has one more failure
+        // with the fingerprint of the first failure
+        TestFailure second = new TestFailure("org.acme.SecondIT", "test", "/project/second", "expected: <200>");
+        TestFailure secondShared = new TestFailure("org.acme.OtherSecondIT", "test", "/project/second",
+                "connection refused");
+        TestFailure third = new TestFailure("org.acme.ThirdIT", "test", "/project/third", "expected: <404>");
+        TestFailure thirdShared = new TestFailure("org.acme.OtherThirdIT", "test", "/project/third",
+                "connection refused");
+        // the representative of the module has the fingerprint of the first failure
+        TestFailure fourth = new TestFailure("org.acme.FourthIT", "test", "/project/fourth", "connection refused");
+        List<Failure> failures = List.of(first, second, secondShared, third, thirdShared, fourth);
+
+        List<List<Failure>> lookedUp = new ArrayList<>();
+        UpstreamChangeFinder finder = recordingFinder(lookedUp);
+        UpstreamChangeLookups upstreamChangeLookups = new UpstreamChangeLookups();
+        FailuresAnalyzer analyzer = new FailuresAnalyzerImpl(new TestLogger(), finder, upstreamChangeLookups);
+
+        try {
+            List<CompletableFuture<RootCause>> rootCauses = failures.stream().map(analyzer::analyzeAsync).toList();
+            analyzer.finishAnalysis();
+
+            assertEquals(List.of(List.of(first, second, third)), lookedUp, "Every module but the fourth one"
+                    + " should be looked up, their failures are only linked by non-representative failures");
+            assertEquals(rootCauses.get(0).join().identifier(), rootCauses.get(5).join().identifier());
+            assertEquals(2, rootCauses.get(0).join().failures().size());
+            assertEquals(2, rootCauses.get(1).join().failures().size());
+            assertEquals(2, rootCauses.get(3).join().failures().size());
+            assertNotEquals(rootCauses.get(1).join().identifier(), rootCauses.get(3).join().identifier());
+        } finally {
+            upstreamChangeLookups.close();
+        }
+    }
+
+    @Test
+    void testSimilarFailuresAcrossModulesAreLookedUpOnce() {
+        List<Failure> failures = new ArrayList<>();
+        for (String module : List.of("http-minimum", "http-rest-client", "security-jwt")) {
+            String testClass = "io.quarkus.ts." + module.replace('-', '.') + ".StartupIT";
+            failures.add(new StackTraceFailure(testClass, "/project/" + module, """
+                    java.lang.IllegalStateException: Failed to start application on port %d after 60 seconds
+                    	at io.vertx.core.net.impl.TCPServerBase.listen(TCPServerBase.java:208)
+                    	at io.quarkus.vertx.http.runtime.VertxHttpRecorder.startServer(VertxHttpRecorder.java:512)
+                    	at io.quarkus.runtime.Application.start(Application.java:101)
+                    	at io.quarkus.test.bootstrap.BaseService.start(BaseService.java:188)
+                    	at %s.beforeAll(StartupIT.java:42)
+                    """.formatted(8080 + failures.size(), testClass)));
+        }
+        failures.add(new StackTraceFailure("io.quarkus.ts.sql.db.PostgresqlIT", "/project/sql-db", """
+                java.lang.NullPointerException: Cannot invoke "io.agroal.api.AgroalDataSource.getConnection()"
+                	at io.quarkus.agroal.runtime.DataSources.createDataSource(DataSources.java:77)
+                	at io.quarkus.ts.sql.db.PostgresqlIT.connect(PostgresqlIT.java:31)
+                """));
+
+        List<List<Failure>> lookedUp = new ArrayList<>();
+        UpstreamChangeFinder finder = recordingFinder(lookedUp);
+        UpstreamChangeLookups upstreamChangeLookups = new UpstreamChangeLookups();
+        FailuresAnalyzer analyzer = new FailuresAnalyzerImpl(new TestLogger(), finder, upstreamChangeLookups);
+
+        try {
+            List<CompletableFuture<RootCause>> rootCauses = failures.stream().map(analyzer::analyzeAsync).toList();
+            analyzer.finishAnalysis();
+
+            RootCause similar = rootCauses.getFirst().join();
+            assertEquals(3, similar.failures().size(), "Startup failures of all the modules should be grouped");
+            assertEquals(AnalysisMetadata.DeduplicationStrategy.BY_SIMILARITY, similar.metadata().strategy());
+            assertEquals(RootCause.ConfidenceLevel.LOW, similar.confidence(),
+                    "Failures grouped by similarity only have an inferred relationship");
+            RootCause unrelated = rootCauses.getLast().join();
+            assertNotEquals(similar.identifier(), unrelated.identifier());
+            assertEquals(RootCause.ConfidenceLevel.HIGH, unrelated.confidence());
+            assertEquals(List.of(List.of(failures.getFirst(), failures.getLast())), lookedUp,
+                    "There should be one lookup per group");
+        } finally {
+            upstreamChangeLookups.close();
+        }
+    }
+
+    @Test
+    void testRestAssuredFailuresWithDifferentMessagesAreNotSimilar() {
+        List<Failure> failures = List.of(
+                restAssuredFailure("io.quarkus.ts.http.minimum.HttpMinimumIT", "http-minimum",
+                        "Expected status code <200> but was <500>."),
+                restAssuredFailure("io.quarkus.ts.security.jwt.JwtSecurityIT", "security-jwt",
+                        "JSON path name doesn't match.%nExpected: Alice%n  Actual: Bob".formatted()));
+
+        List<List<Failure>> lookedUp = new ArrayList<>();
+        UpstreamChangeLookups upstreamChangeLookups = new UpstreamChangeLookups();
+        FailuresAnalyzer analyzer = new FailuresAnalyzerImpl(new TestLogger(), recordingFinder(lookedUp),
+                upstreamChangeLookups);
+
+        try {
+            List<CompletableFuture<RootCause>> rootCauses = failures.stream().map(analyzer::analyzeAsync).toList();
+            analyzer.finishAnalysis();
+
+            assertNotEquals(rootCauses.getFirst().join().identifier(), rootCauses.getLast().join().identifier(),
+                    "Failures only share the RestAssured frames, they should not be grouped");
+            assertEquals(List.of(failures), lookedUp);
+        } finally {
+            upstreamChangeLookups.close();
+        }
+    }
+
+    @Test
+    void testSimilarFailuresAreLookedUpSeparatelyWhenUpstreamChangeIsNotConfirmed() {
+        List<Failure> failures = new ArrayList<>();
+        for (String module : List.of("http-minimum", "http-rest-client", "security-jwt")) {
+            String testClass = "io.quarkus.ts." + module.replace('-', '.') + ".StartupIT";
+            failures.add(new StackTraceFailure(testClass, "/project/" + module, """
+                    java.lang.IllegalStateException: Failed to start application
+                    	at io.vertx.core.net.impl.TCPServerBase.listen(TCPServerBase.java:208)
+                    	at io.quarkus.vertx.http.runtime.VertxHttpRecorder.startServer(VertxHttpRecorder.java:512)
+                    	at io.quarkus.runtime.Application.start(Application.java:101)
+                    	at io.quarkus.test.bootstrap.BaseService.start(BaseService.java:188)
+                    	at %s.beforeAll(StartupIT.java:42)
+                    """.formatted(testClass)));
+        }
+
+        List<List<Failure>> lookedUp = new ArrayList<>();
+        List<Failure> confirmed = new ArrayList<>();
+        UpstreamChangeFinder finder = new RecordingFinder(lookedUp) {
+            @Override
+            RootCause.UpstreamChange upstreamChange(Failure representative) {
+                return new RootCause.UpstreamChange(representative.modulePath(), null, null,
+                        RootCause.FailureReason.FOUND);
+            }
+
+            @Override
+            public List<Boolean> confirmUpstreamChange(RootCause.UpstreamChange upstreamChange,
+                                                       List<Failure> inferred) {
+                confirmed.addAll(inferred);
+                // the last module fails because of a different change
+                return inferred.stream().map(failure -> failure != failures.getLast()).toList();
+            }
+        };
+        UpstreamChangeLookups upstreamChangeLookups = new UpstreamChangeLookups();
+        FailuresAnalyzer analyzer = new FailuresAnalyzerImpl(new TestLogger(), finder, upstreamChangeLookups);
+
+        try {
+            List<CompletableFuture<RootCause>> rootCauses = failures.stream().map(analyzer::analyzeAsync).toList();
+            analyzer.finishAnalysis();
+
+            RootCause similar = rootCauses.getFirst().join();
+            assertEquals(List.of(failures.get(1), failures.get(2)), confirmed,
+                    "The upstream change should be confirmed for the similar failures");
+            assertEquals(similar.identifier(), rootCauses.get(1).join().identifier());
+            assertEquals(2, similar.failures().size());
+            RootCause separate = rootCauses.getLast().join();
+            assertNotEquals(similar.identifier(), separate.identifier());
+            assertEquals("/project/security-jwt", separate.upstreamChange().gitCommitSHA(),
+                    "Failure should get its own upstream change, not the one of the similar failures");
+            assertEquals(List.of(List.of(failures.getFirst()), List.of(failures.getLast())), lookedUp);
+        } finally {
+            upstreamChangeLookups.close();
+        }
+    }
+
+    @Test
+    void testFailedConfirmationCompletesAllRootCauses() {
+        List<Failure> failures = new ArrayList<>();
+        for (String module : List.of("http-minimum", "http-rest-client", "security-jwt")) {
+            String testClass = "io.quarkus.ts." + module.replace('-', '.') + ".StartupIT";
+            failures.add(new StackTraceFailure(testClass, "/project/" + module, """
+                    java.lang.IllegalStateException: Failed to start application
+                    	at io.vertx.core.net.impl.TCPServerBase.listen(TCPServerBase.java:208)
+                    	at io.quarkus.vertx.http.runtime.VertxHttpRecorder.startServer(VertxHttpRecorder.java:512)
+                    	at io.quarkus.runtime.Application.start(Application.java:101)
+                    	at io.quarkus.test.bootstrap.BaseService.start(BaseService.java:188)
+                    	at %s.beforeAll(StartupIT.java:42)
+                    """.formatted(testClass)));
+        }
+
+        UpstreamChangeFinder finder = new UpstreamChangeFinder() {
+            @Override
+            public RootCause.UpstreamChange findUpstreamChange(Failure failure) {
+                return null;
+            }
+
+            @Override
+            public List<Boolean> confirmUpstreamChange(RootCause.UpstreamChange upstreamChange,
+                                                       List<Failure> inferred) {
+                // broken finder, the confirmations don't match the inferred failures
+                return List.of();
+            }
+        };
+        UpstreamChangeLookups upstreamChangeLookups = new UpstreamChangeLookups();
+        FailuresAnalyzer analyzer = new FailuresAnalyzerImpl(new TestLogger(), finder, upstreamChangeLookups);
+
+        try {
+            List<CompletableFuture<RootCause>> rootCauses = failures.stream().map(analyzer::analyzeAsync).toList();
+            analyzer.finishAnalysis();
+
+            for (CompletableFuture<RootCause> rootCause : rootCauses) {
+                assertThrows(ExecutionException.class, () -> rootCause.get(10, TimeUnit.SECONDS),
+                        "Root causes must not wait forever when the confirmations can't be processed");
+            }
+        } finally {
+            upstreamChangeLookups.close();
+        }
+    }
+
+    private static StackTraceFailure restAssuredFailure(String testClass, String module, String message) {
+        return new StackTraceFailure(testClass, "/project/" + module, """
+                java.lang.AssertionError: 1 expectation failed.
+                %s
+
+                	at java.base/jdk.internal.reflect.DirectConstructorHandleAccessor.newInstance(DirectConstructorHandleAccessor.java:62)
+                	at java.base/java.lang.reflect.Constructor.newInstanceWithCaller(Constructor.java:502)
+                	at java.base/java.lang.reflect.Constructor.newInstance(Constructor.java:486)
+                	at org.codehaus.groovy.reflection.CachedConstructor.invoke(CachedConstructor.java:73)
+                	at org.codehaus.groovy.runtime.callsite.ConstructorSite$ConstructorSiteNoUnwrapNoCoerce.callConstructor(ConstructorSite.java:108)
+                	at org.codehaus.groovy.runtime.callsite.AbstractCallSite.callConstructor(AbstractCallSite.java:277)
+                	at io.restassured.internal.ResponseSpecificationImpl$HamcrestAssertionClosure.validate(ResponseSpecificationImpl.groovy:512)
+                	at io.restassured.internal.ValidatableResponseOptionsImpl.statusCode(ValidatableResponseOptionsImpl.java:89)
+                	at %s.test(%s.java:31)
+                """.formatted(message, testClass, testClass.substring(testClass.lastIndexOf('.') + 1)));
+    }
+
+    private static UpstreamChangeFinder recordingFinder(List<List<Failure>> lookedUp) {
+        return new RecordingFinder(lookedUp);
+    }
+
+    /**
+     * Records the representatives of every lookup, no upstream change is found unless a test says otherwise.
+     */
+    private static class RecordingFinder implements UpstreamChangeFinder {
+
+        private final List<List<Failure>> lookedUp;
+
+        RecordingFinder(List<List<Failure>> lookedUp) {
+            this.lookedUp = lookedUp;
+        }
+
+        RootCause.UpstreamChange upstreamChange(Failure representative) {
+            return null;
+        }
+
+        @Override
+        public RootCause.UpstreamChange findUpstreamChange(Failure failure) {
+            return findUpstreamChanges(List.of(failure)).getFirst();
+        }
+
+        @Override
+        public List<RootCause.UpstreamChange> findUpstreamChanges(List<Failure> representatives) {
+            lookedUp.add(representatives);
+            List<RootCause.UpstreamChange> upstreamChanges = new ArrayList<>(representatives.size());
+            representatives.forEach(representative -> upstreamChanges.add(upstreamChange(representative)));
+            return upstreamChanges;
+        }
+    }
+
+    private record TestFailure(String testClassName, String testMethodName, String modulePath,
+                               String failureMessage) implements Failure {
+        @Override
+        public FailureType failureType() {
+            return FailureType.FAILURE;
+        }
+
+        @Override
+        public String throwableClass() {
+            return "java.lang.AssertionError";
+        }
+
+        @Override
+        public String testRunLog() {
+            // the stack trace is part of the fingerprint, failures with different messages are independent
+            return throwableClass() + ": " + failureMessage;
+        }
+    }
+
+    private record StackTraceFailure(String testClassName, String modulePath, String testRunLog) implements Failure {
+        @Override
+        public String testMethodName() {
+            return "test";
+        }
+
+        @Override
+        public String failureMessage() {
+            return testRunLog.lines().findFirst().orElseThrow();
+        }
+
+        @Override
+        public FailureType failureType() {
+            return FailureType.ERROR;
+        }
+
+        @Override
+        public String throwableClass() {
+            return failureMessage().substring(0, failureMessage().indexOf(':'));
+        }
+    }
 }
@@ -1,5 +1,7 @@
 package io.quarkus.qe.test.failure.detector.analyze.impl;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import io.quarkus.qe.test.failure.detector.analyze.FailureHistory;
 import io.quarkus.test.junit.QuarkusTest;
 import jakarta.inject.Inject;
@@ -75,6 +77,35 @@ class JsonFailureHistoryTest {
         });
     }
 
+    @Test
+    void testVerdictsAreSerialized() throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        FailureHistory.TestVerdict testVerdict = FailureHistory.TestVerdict.ofTest("commit1", "suite1",
+                "http/http-minimum", "io.quarkus.Test", "testMethod", "JVM", false);
+        FailureHistory.TestVerdict buildVerdict = FailureHistory.TestVerdict.ofBuildFailure("commit2");
+        FailureHistory.HistoryData data = new FailureHistory.HistoryData(Instant.now(), "commit123", List.of(),
+                List.of("commit1", "commit2"), List.of(testVerdict, buildVerdict));
+
+        FailureHistory.HistoryData loaded = objectMapper.readValue(objectMapper.writeValueAsString(data),
+                FailureHistory.HistoryData.class);
+
+        assertEquals(List.of(testVerdict, buildVerdict), loaded.verdicts());
+        assertEquals(FailureHistory.TestVerdict.Verdict.FAIL, loaded.verdicts().getFirst().verdict());
+    }
+
+    @Test
+    void testHistoryWithoutVerdictsIsLoaded() throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+        FailureHistory.HistoryData loaded = objectMapper.readValue("""
+                {"lastRun": "2026-01-01T00:00:00Z", "quarkusCommit": "commit123", "failures": [],
+                 "testedCommits": ["commit1"]}
+                """, FailureHistory.HistoryData.class);
+
+        assertEquals(List.of("commit1"), loaded.testedCommits());
+        assertTrue(loaded.verdicts().isEmpty(), "History saved before the verdicts were tracked has none");
+    }
+
     @Test
     void testTrackedFailureStatuses() {
         FailureHistory.TrackedFailure newFailure =
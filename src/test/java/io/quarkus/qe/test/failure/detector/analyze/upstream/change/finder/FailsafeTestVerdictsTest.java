@@ -0,0 +1,86 @@
+package io.quarkus.qe.test.failure.detector.analyze.upstream.change.finder;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FailsafeTestVerdictsTest {
+
+    @Test
+    void testFailedTestsAreReadFromReport() {
+        Path reportsDir = Paths.get("src/test/resources/failsafe-reports/error-and-failure/target/failsafe-reports");
+
+        Map<String, Boolean> verdicts = FailsafeTestVerdicts.read(reportsDir, "io.quarkus.ts.example.MixedIT");
+
+        assertEquals(Map.of("testWithFailure", false, "testWithError", false), verdicts);
+    }
+
+    @Test
+    void testPassedAndFlakyTestsPassed(@TempDir Path reportsDir) throws IOException {
+        Files.writeString(reportsDir.resolve("TEST-org.acme.BatchIT.xml"), """
+                <?xml version="1.0" encoding="UTF-8"?>
+                <testsuite name="org.acme.BatchIT" tests="3" failures="1" errors="0">
+                  <testcase name="testPassing" classname="org.acme.BatchIT" time="0.1"/>
+                  <testcase name="testFlaky" classname="org.acme.BatchIT" time="0.1">
+                    <flakyFailure message="first run failed" type="java.lang.AssertionError"/>
+                  </testcase>
+                  <testcase name="testFailing" classname="org.acme.BatchIT" time="0.1">
+                    <failure message="expected: 1" type="java.lang.AssertionError"/>
+                    <rerunFailure message="expected: 1" type="java.lang.AssertionError"/>
+                  </testcase>
+                </testsuite>
+                """);
+
+        Map<String, Boolean> verdicts = FailsafeTestVerdicts.read(reportsDir, "org.acme.BatchIT");
+
+        assertEquals(Map.of("testPassing", true, "testFlaky", true, "testFailing", false), verdicts);
+        assertTrue(FailsafeTestVerdicts.read(reportsDir, "org.acme.NotRunIT").isEmpty(),
+                "Tests without a report have no verdict");
+    }
+
+    @Test
+    void testSkippedTestsHaveNoVerdict(@TempDir Path reportsDir) throws IOException {
+        Files.writeString(reportsDir.resolve("TEST-org.acme.SkippedIT.xml"), """
+                <?xml version="1.0" encoding="UTF-8"?>
+                <testsuite name="org.acme.SkippedIT" tests="2" failures="0" errors="0" skipped="1">
+                  <testcase name="testPassing" classname="org.acme.SkippedIT" time="0.1"/>
+                  <testcase name="testSkipped" classname="org.acme.SkippedIT" time="0">
+                    <skipped message="Disabled on native"/>
+                  </testcase>
+                </testsuite>
+                """);
+
+        Map<String, Boolean> verdicts = FailsafeTestVerdicts.read(reportsDir, "org.acme.SkippedIT");
+
+        assertEquals(Map.of("testPassing", true), verdicts);
+    }
+
+    @Test
+    void testParameterizedTestPassesOnlyIfAllInvocationsPassed(@TempDir Path reportsDir) throws IOException {
+        Files.writeString(reportsDir.resolve("TEST-org.acme.ParameterizedIT.xml"), """
+                <?xml version="1.0" encoding="UTF-8"?>
+                <testsuite name="org.acme.ParameterizedIT" tests="5" failures="1" errors="0" skipped="1">
+                  <testcase name="testFailing(String)[1]" classname="org.acme.ParameterizedIT" time="0.1"/>
+                  <testcase name="testFailing(String)[2]" classname="org.acme.ParameterizedIT" time="0.1">
+                    <failure message="expected: 1" type="java.lang.AssertionError"/>
+                  </testcase>
+                  <testcase name="testPassing(String)[1]" classname="org.acme.ParameterizedIT" time="0.1"/>
+                  <testcase name="testPassing(String)[2]" classname="org.acme.ParameterizedIT" time="0">
+                    <skipped message="Disabled on native"/>
+                  </testcase>
+                  <testcase name="testPassing(String)[3]" classname="org.acme.ParameterizedIT" time="0.1"/>
+                </testsuite>
+                """);
+
+        Map<String, Boolean> verdicts = FailsafeTestVerdicts.read(reportsDir, "org.acme.ParameterizedIT");
+
+        assertEquals(Map.of("testFailing", false, "testPassing", true), verdicts);
+    }
+}
@@ -3,6 +3,7 @@ package io.quarkus.qe.test.failure.detector.analyze.upstream.change.finder;
 import io.quarkus.qe.test.failure.detector.TestBeanProfile;
 import io.quarkus.qe.test.failure.detector.analyze.FailureHistory;
 import io.quarkus.qe.test.failure.detector.analyze.FailureHistory.HistoryData;
+import io.quarkus.qe.test.failure.detector.analyze.FailureHistory.TestVerdict;
 import io.quarkus.qe.test.failure.detector.analyze.FailureHistory.TrackedFailure;
 import io.quarkus.qe.test.failure.detector.analyze.FailureHistory.TrackedFailure.FailureStatus;
 import io.quarkus.qe.test.failure.detector.analyze.RootCause;
@@ -20,8 +21,13 @@ import org.junit.jupiter.api.io.TempDir;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -83,6 +89,408 @@ class NaiveUpstreamChangeFinderTest {
         assertTrue(savedHistory.failures().size() > 0, "Should have tracked failures");
     }
 
+    /**
+     * Test that failures of tests that passed on rerun are not bisected.
+     */
+    @Test
+    void testFlakyFailureIsNotBisected(@TempDir Path tempDir) throws Exception {
+        Path testRepo = copyTestRepo(tempDir);
+        MockFailureHistory mockHistory = new MockFailureHistory(HistoryData.empty());
+        MockNaiveUpstreamChangeFinder finder = new MockNaiveUpstreamChangeFinder(logger, mockHistory, testRepo) {
+            @Override
+            protected boolean buildQuarkus(String commit) {
+                fail("Flaky failure must not be bisected");
+                return false;
+            }
+        };
+
+        RootCause.UpstreamChange change = finder.findUpstreamChange(new FlakyMockFailure(
+                "io.quarkus.test.HttpTest", "testHttpEndpoint", tempDir.resolve("module").toString()));
+
+        assertNotNull(change);
+        assertNull(change.gitCommitSHA());
+        assertEquals(RootCause.FailureReason.FLAKY, change.failureReason());
+    }
+
+    /**
+     * Test that a failure reported by more inputs of a batch is bisected once,
+     * while the failure of the same test in native mode is bisected on its own.
+     */
+    @Test
+    void testSameFailureIsBisectedOncePerSession(@TempDir Path tempDir) throws Exception {
+        Path testRepo = copyTestRepo(tempDir);
+        MockFailureHistory mockHistory = new MockFailureHistory(HistoryData.empty());
+        List<String> builtCommits = new ArrayList<>();
+        List<String> testedModules = new ArrayList<>();
+        MockNaiveUpstreamChangeFinder finder = new MockNaiveUpstreamChangeFinder(logger, mockHistory, testRepo) {
+            @Override
+            protected boolean buildQuarkus(String commit) {
+                builtCommits.add(commit);
+                return true;
+            }
+
+            @Override
+            protected boolean runTest(Failure failure) {
+                testedModules.add(Path.of(failure.modulePath()).getFileName().toString());
+                return super.runTest(failure);
+            }
+        };
+
+        RootCause.UpstreamChange change = finder.findUpstreamChange(new MockFailure(
+                "io.quarkus.test.HttpTest", "testHttpEndpoint", tempDir.resolve("http-module").toString()));
+        int builds = builtCommits.size();
+        RootCause.UpstreamChange sameChange = finder.findUpstreamChange(new MockFailure(
+                "io.quarkus.test.HttpTest", "testHttpEndpoint", tempDir.resolve("http-module").toString()));
+
+        assertNotNull(change);
+        assertNotNull(change.gitCommitSHA());
+        assertEquals(change, sameChange);
+        assertEquals(builds, builtCommits.size(), "The same failure should not be bisected again");
+        assertFalse(testedModules.isEmpty());
+        assertTrue(testedModules.stream().allMatch("http-module"::equals));
+
+        RootCause.UpstreamChange nativeChange = finder.findUpstreamChange(new MockFailure(
+                "io.quarkus.test.HttpTest", "testHttpEndpoint", tempDir.resolve("native-http-module").toString()));
+        assertNotNull(nativeChange);
+        assertTrue(testedModules.contains("native-http-module"),
+                "Native failure should not get the verdict of the JVM failure of the same test");
+    }
+
+    /**
+     * Test that NEW failures are bisected together and every commit is built once for all of them,
+     * even if the failures were introduced by different commits.
+     */
+    @Test
+    void testJointBisectBuildsEveryCommitOnce(@TempDir Path tempDir) throws Exception {
+        Path testRepo = copyTestRepo(tempDir);
+        MockFailureHistory mockHistory = new MockFailureHistory(HistoryData.empty());
+        List<String> builtCommits = new ArrayList<>();
+        MockNaiveUpstreamChangeFinder finder = new MockNaiveUpstreamChangeFinder(logger, mockHistory, testRepo) {
+            @Override
+            protected boolean buildQuarkus(String commit) {
+                builtCommits.add(commit);
+                return true;
+            }
+
+            @Override
+            protected boolean runTest(Failure failure) {
+                if (!failure.testClassName().endsWith("EarlyTest")) {
+                    return super.runTest(failure);
+                }
+                // this test fails since the commits that print "C"
+                try {
+                    String content = Files.readString(quarkusRepoPath.resolve("src/main/java/io/quarkus/test/Main.java"));
+                    return !content.contains("System.out.println(\"C\")") && !content.contains("System.out.println(\"D\")");
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        };
+
+        List<RootCause.UpstreamChange> changes = finder.findUpstreamChanges(List.of(
+                new MockFailure("io.quarkus.test.LateTest", "testLate", tempDir.resolve("late-module").toString()),
+                new MockFailure("io.quarkus.test.EarlyTest", "testEarly", tempDir.resolve("early-module").toString()),
+                new MockFailure("io.quarkus.test.OtherLateTest", "testLate", tempDir.resolve("other-module").toString())));
+
+        assertEquals(3, changes.size());
+        assertEquals("e48edebcc7051293c977f9caf86c054e0882ff17", changes.get(0).gitCommitSHA(),
+                "First commit that prints D");
+        assertEquals("6e8e86f91ea26bb525d03093ab5d8fb1188526d0", changes.get(1).gitCommitSHA(),
+                "First commit that prints C");
+        assertEquals(changes.get(0), changes.get(2));
+        assertEquals(builtCommits.size(), builtCommits.stream().distinct().count(),
+                "Every commit should be built once: " + builtCommits);
+        // one bisect of 16 commits builds the oldest commit and at most 4 more
+        assertTrue(builtCommits.size() <= 8, "Failures should share the builds: " + builtCommits);
+
+        finder.finalizeAndSaveHistory(new OnCommandExit());
+        assertEquals(3, mockHistory.load().failures().size());
+    }
+
+    /**
+     * Test that no culprit is reported when the commits between the last passing and the first failing commit
+     * failed to build, any of them could have introduced the failure.
+     */
+    @Test
+    void testJointBisectDoesNotReportCulpritBehindUnbuildableCommits(@TempDir Path tempDir) throws Exception {
+        Path testRepo = copyTestRepo(tempDir);
+        String head = git(testRepo, "rev-parse", "HEAD");
+        List<String> builtCommits = new ArrayList<>();
+        MockNaiveUpstreamChangeFinder finder = new MockNaiveUpstreamChangeFinder(logger,
+                new MockFailureHistory(HistoryData.empty()), testRepo) {
+            @Override
+            protected boolean buildQuarkus(String commit) {
+                // only the newest of the commits that break the test can be built
+                try {
+                    String content = Files.readString(quarkusRepoPath.resolve("src/main/java/io/quarkus/test/Main.java"));
+                    if (content.contains("System.out.println(\"D\")") && !commit.equals(head)) {
+                        return false;
+                    }
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+                builtCommits.add(commit);
+                return true;
+            }
+        };
+
+        List<RootCause.UpstreamChange> changes = finder.findUpstreamChanges(List.of(
+                new MockFailure("io.quarkus.test.LateTest", "testLate", tempDir.resolve("late-module").toString()),
+                new MockFailure("io.quarkus.test.OtherLateTest", "testLate", tempDir.resolve("other-module").toString())));
+
+        assertTrue(builtCommits.contains(head), "The failing commit should be tested: " + builtCommits);
+        for (RootCause.UpstreamChange change : changes) {
+            assertNull(change.gitCommitSHA(), "The failing commit is not known to be the culprit");
+            assertEquals(RootCause.FailureReason.BUILD_FAILED, change.failureReason());
+        }
+    }
+
+    /**
+     * Test that a later run reuses the verdicts of the tests and builds saved in the history
+     * instead of building Quarkus and running the tests again.
+     */
+    @Test
+    void testVerdictsOfPreviousRunAreReused(@TempDir Path tempDir) throws Exception {
+        String modulePath = "/tmp/quarkus-test-suite/http/http-minimum";
+        MockFailure failure = new MockFailure("io.quarkus.test.HttpTest", "testHttpEndpoint", modulePath);
+        MockFailureHistory firstHistory = new MockFailureHistory(HistoryData.empty());
+        MockNaiveUpstreamChangeFinder firstFinder = new MockNaiveUpstreamChangeFinder(logger, firstHistory,
+                copyTestRepo(tempDir.resolve("first")));
+        RootCause.UpstreamChange firstChange = firstFinder.findUpstreamChange(failure);
+        firstFinder.finalizeAndSaveHistory(new OnCommandExit());
+
+        HistoryData saved = firstHistory.load();
+        assertFalse(saved.verdicts().isEmpty(), "Verdicts of the bisect should be saved");
+        assertTrue(saved.verdicts().stream().allMatch(verdict -> "http/http-minimum".equals(verdict.moduleRelativePath())
+                && "JVM".equals(verdict.mode()) && verdict.testSuiteCommit() != null));
+
+        // the failure is not tracked anymore (e.g. it was fixed and came back), so it is bisected again
+        HistoryData withVerdictsOnly = new HistoryData(Instant.now(), null, List.of(), List.of(), saved.verdicts());
+        List<String> builtCommits = new ArrayList<>();
+        List<Failure> testedFailures = new ArrayList<>();
+        MockNaiveUpstreamChangeFinder secondFinder = new MockNaiveUpstreamChangeFinder(logger,
+                new MockFailureHistory(withVerdictsOnly), copyTestRepo(tempDir.resolve("second"))) {
+            @Override
+            protected boolean buildQuarkus(String commit) {
+                builtCommits.add(commit);
+                return super.buildQuarkus(commit);
+            }
+
+            @Override
+            protected boolean runTest(Failure failure) {
+                testedFailures.add(failure);
+                return super.runTest(failure);
+            }
+        };
+        RootCause.UpstreamChange secondChange = secondFinder.findUpstreamChange(failure);
+
+        assertEquals(firstChange, secondChange);
+        assertTrue(builtCommits.isEmpty(), "No commit should be built again: " + builtCommits);
+        assertTrue(testedFailures.isEmpty(), "No test should run again: " + testedFailures);
+    }
+
+    /**
+     * Test that a commit that failed to build long ago is built again, the build could have failed because
+     * of the environment.
+     */
+    @Test
+    void testExpiredBuildFailuresAreBuiltAgain(@TempDir Path tempDir) throws Exception {
+        Path testRepo = copyTestRepo(tempDir);
+        Instant longAgo = Instant.now().minus(Duration.ofDays(30));
+        List<TestVerdict> buildFailures = git(testRepo, "rev-list", "HEAD").lines()
+                .map(commit -> new TestVerdict(commit, null, null, null, null, null, TestVerdict.Verdict.BUILD_FAILED,
+                        longAgo))
+                .toList();
+        MockFailureHistory history = new MockFailureHistory(
+                new HistoryData(Instant.now(), null, List.of(), List.of(), buildFailures));
+        List<String> builtCommits = new ArrayList<>();
+        MockNaiveUpstreamChangeFinder finder = new MockNaiveUpstreamChangeFinder(logger, history, testRepo) {
+            @Override
+            protected boolean buildQuarkus(String commit) {
+                builtCommits.add(commit);
+                return true;
+            }
+        };
+
+        RootCause.UpstreamChange change = finder.findUpstreamChange(new MockFailure("io.quarkus.test.HttpTest",
+                "testHttpEndpoint", "/tmp/quarkus-test-suite/http/http-minimum"));
+        finder.finalizeAndSaveHistory(new OnCommandExit());
+
+        assertNotNull(change);
+        assertFalse(builtCommits.isEmpty(), "Expired build failures should not prevent the build");
+        assertTrue(history.load().verdicts().stream().noneMatch(verdict -> verdict.recordedAt().equals(longAgo)),
+                "Expired build failures should not be saved again");
+    }
+
+    /**
+     * Test that the incremental build only builds the modules changed between the commits and that all
+     * the modules are built when the build infrastructure changes.
+     */
+    @Test
+    void testChangedModulesAreFoundForIncrementalBuild(@TempDir Path tempDir) throws Exception {
+        Path repo = Files.createDirectories(tempDir.resolve("quarkus"));
+        git(repo, "init", "-q");
+        for (String file : List.of("pom.xml", "README.md", "core/runtime/pom.xml", "core/runtime/src/Core.java",
+                "core/runtime/src/test/resources/projects/app/pom.xml",
+                "extensions/foo/runtime/pom.xml", "extensions/foo/runtime/src/Foo.java")) {
+            Files.createDirectories(repo.resolve(file).getParent());
+            Files.writeString(repo.resolve(file), "initial");
+        }
+        String initial = commitAll(repo);
+        for (String file : List.of("README.md", "core/runtime/src/Core.java",
+                "core/runtime/src/test/resources/projects/app/pom.xml", "extensions/foo/runtime/src/Foo.java")) {
+            Files.writeString(repo.resolve(file), "changed");
+        }
+        String sourcesChanged = commitAll(repo);
+        Files.createDirectories(repo.resolve("extensions/bar"));
+        Files.writeString(repo.resolve("extensions/bar/pom.xml"), "added");
+        String moduleAdded = commitAll(repo);
+        Files.writeString(repo.resolve("pom.xml"), "changed");
+        String rootPomChanged = commitAll(repo);
+        Files.createDirectories(repo.resolve("core/runtime/src/test/resources/projects/other"));
+        Files.writeString(repo.resolve("core/runtime/src/test/resources/projects/other/pom.xml"), "added");
+        String testProjectAdded = commitAll(repo);
+
+        MockNaiveUpstreamChangeFinder finder = new MockNaiveUpstreamChangeFinder(logger,
+                new MockFailureHistory(HistoryData.empty()), repo);
+        finder.quarkusRepo = repo;
+
+        assertEquals(List.of("core/runtime", "extensions/foo/runtime"), finder.findChangedModules(initial, sourcesChanged));
+        assertEquals(List.of(), finder.findChangedModules(sourcesChanged, sourcesChanged));
+        assertNull(finder.findChangedModules(sourcesChanged, moduleAdded), "Added module needs a full build");
+        assertNull(finder.findChangedModules(moduleAdded, rootPomChanged), "Root POM change needs a full build");
+        assertEquals(List.of("core/runtime"), finder.findChangedModules(rootPomChanged, testProjectAdded),
+                "Test project is not a reactor module, it belongs to the module that contains it");
+    }
+
+    /**
+     * Test that the targeted build only builds the Quarkus modules the failing tests depend on
+     * and that the dependencies of a test suite module are resolved once.
+     */
+    @Test
+    void testTargetedBuildBuildsOnlyModulesTestsDependOn(@TempDir Path tempDir) throws Exception {
+        Path testRepo = copyTestRepo(tempDir);
+        // untracked modules stay in the working tree at every checked out commit
+        for (String[] module : new String[][] { { "core/runtime", "quarkus-core" },
+                { "core/deployment", "quarkus-core-deployment" }, { "extensions/foo/runtime", "quarkus-foo" } }) {
+            Files.createDirectories(testRepo.resolve(module[0]));
+            Files.writeString(testRepo.resolve(module[0]).resolve("pom.xml"),
+                    "<project><artifactId>" + module[1] + "</artifactId></project>");
+        }
+        List<String> resolvedModules = new ArrayList<>();
+        List<List<String>> targetedBuilds = new ArrayList<>();
+        List<String> fullBuilds = new ArrayList<>();
+        MockNaiveUpstreamChangeFinder finder = new MockNaiveUpstreamChangeFinder(logger,
+                new MockFailureHistory(HistoryData.empty()), testRepo) {
+            @Override
+            protected Set<String> resolveDependencyClosure(Failure failure) {
+                resolvedModules.add(failure.modulePath());
+                return Set.of("quarkus-core", "quarkus-vertx-http");
+            }
+
+            @Override
+            protected boolean buildQuarkusWithDependencies(String commit, List<String> modules) {
+                targetedBuilds.add(modules);
+                return true;
+            }
+
+            @Override
+            protected boolean buildQuarkus(String commit) {
+                fullBuilds.add(commit);
+                return true;
+            }
+        };
+        finder.quarkusBuildMode = AppConfig.QuarkusBuildMode.TARGETED;
+
+        String modulePath = "/tmp/quarkus-test-suite/http/http-minimum";
+        List<RootCause.UpstreamChange> changes = finder.findUpstreamChanges(List.of(
+                new MockFailure("io.quarkus.test.HttpTest", "testHttpEndpoint", modulePath),
+                new MockFailure("io.quarkus.test.OtherHttpTest", "testHttpEndpoint", modulePath)));
+
+        assertEquals(2, changes.size());
+        assertNotNull(changes.getFirst(), "Should find upstream change");
+        assertEquals(List.of(modulePath), resolvedModules, "Dependencies should be resolved once per module");
+        assertFalse(targetedBuilds.isEmpty());
+        assertTrue(targetedBuilds.stream().allMatch(List.of("core/deployment", "core/runtime")::equals),
+                "Only the modules the tests depend on should be built: " + targetedBuilds);
+        assertTrue(fullBuilds.isEmpty(), "No commit should be fully built: " + fullBuilds);
+    }
+
+    /**
+     * Test that the verdicts of single failures and of failures of the same module are read from the FailSafe
+     * reports and that a skipped test has no verdict.
+     */
+    @Test
+    void testVerdictsAreReadFromReports(@TempDir Path tempDir) throws Exception {
+        writeReport(tempDir.resolve("http/http-minimum"), "org.acme.HttpIT", """
+                <testcase name="testPassing" classname="org.acme.HttpIT"/>
+                """);
+        writeReport(tempDir.resolve("http/http-advanced"), "org.acme.BatchIT", """
+                <testcase name="testFlaky" classname="org.acme.BatchIT">
+                  <flakyFailure message="first run failed" type="java.lang.AssertionError"/>
+                </testcase>
+                <testcase name="testFailing" classname="org.acme.BatchIT">
+                  <failure message="expected: 1" type="java.lang.AssertionError"/>
+                </testcase>
+                <testcase name="testSkipped" classname="org.acme.BatchIT">
+                  <skipped message="module failed to start"/>
+                </testcase>
+                """);
+        List<List<String>> commands = new ArrayList<>();
+        NaiveUpstreamChangeFinder finder = new ReportReadingFinder(logger, tempDir, commands);
+
+        MockFailure passing = new MockFailure("org.acme.HttpIT", "testPassing",
+                "/tmp/quarkus-test-suite/http/http-minimum");
+        MockFailure flaky = new MockFailure("org.acme.BatchIT", "testFlaky", "/tmp/quarkus-test-suite/http/http-advanced");
+        MockFailure failing = new MockFailure("org.acme.BatchIT", "testFailing",
+                "/tmp/quarkus-test-suite/http/http-advanced");
+        MockFailure skipped = new MockFailure("org.acme.BatchIT", "testSkipped",
+                "/tmp/quarkus-test-suite/http/http-advanced");
+        Map<Failure, NaiveUpstreamChangeFinder.TestResult> results = finder.runTests(
+                List.of(passing, flaky, failing, skipped));
+
+        assertEquals(Map.of(passing, NaiveUpstreamChangeFinder.TestResult.PASSED,
+                flaky, NaiveUpstreamChangeFinder.TestResult.PASSED,
+                failing, NaiveUpstreamChangeFinder.TestResult.FAILED,
+                skipped, NaiveUpstreamChangeFinder.TestResult.ASSUMED_FAILED), results,
+                "Skipped test only fails for the bisect, it must not be saved as a verdict");
+        assertEquals(2, commands.size(), "Tests of the same module should run in one Maven invocation");
+        assertTrue(commands.getFirst().contains("-Dit.test=HttpIT"));
+        assertTrue(commands.getLast().contains("-Dit.test=BatchIT"));
+    }
+
+    @Test
+    void testParameterizedVerdictsAreReadFromReports(@TempDir Path tempDir) throws Exception {
+        writeReport(tempDir.resolve("http/http-minimum"), "org.acme.HttpIT", """
+                <testcase name="testPassing(String)[1]" classname="org.acme.HttpIT"/>
+                <testcase name="testPassing(String)[2]" classname="org.acme.HttpIT"/>
+                <testcase name="testFailing(String)[1]" classname="org.acme.HttpIT"/>
+                <testcase name="testFailing(String)[2]" classname="org.acme.HttpIT">
+                  <failure message="expected: 1" type="java.lang.AssertionError"/>
+                </testcase>
+                """);
+        NaiveUpstreamChangeFinder finder = new ReportReadingFinder(logger, tempDir, new ArrayList<>());
+
+        MockFailure passing = new MockFailure("org.acme.HttpIT", "testPassing",
+                "/tmp/quarkus-test-suite/http/http-minimum");
+        MockFailure failing = new MockFailure("org.acme.HttpIT", "testFailing",
+                "/tmp/quarkus-test-suite/http/http-minimum");
+        Map<Failure, NaiveUpstreamChangeFinder.TestResult> results = finder.runTests(List.of(passing, failing));
+
+        assertEquals(Map.of(passing, NaiveUpstreamChangeFinder.TestResult.PASSED,
+                failing, NaiveUpstreamChangeFinder.TestResult.FAILED), results,
+                "Parameterized test should only pass if all its invocations passed");
+    }
+
+    private static void writeReport(Path module, String testClassName, String testCases) throws Exception {
+        Path reportsDir = Files.createDirectories(module.resolve("target").resolve("failsafe-reports"));
+        Files.writeString(reportsDir.resolve("TEST-" + testClassName + ".xml"), """
+                <?xml version="1.0" encoding="UTF-8"?>
+                <testsuite name="%s">
+                %s</testsuite>
+                """.formatted(testClassName, testCases));
+    }
+
     /**
      * Test that existing failures are not re-bisected.
      */
@@ -486,6 +894,22 @@ class NaiveUpstreamChangeFinderTest {
         return output;
     }
 
+    private static String commitAll(Path repo) throws Exception {
+        git(repo, "add", "-A");
+        git(repo, "-c", "user.name=Test", "-c", "user.email=test@example.com", "commit", "-q", "-m", "Change");
+        return git(repo, "rev-parse", "HEAD");
+    }
+
+    private static String git(Path repo, String... args) throws Exception {
+        List<String> command = new ArrayList<>();
+        command.add("git");
+        command.addAll(List.of(args));
+        Process process = new ProcessBuilder(command).directory(repo.toFile()).redirectErrorStream(true).start();
+        String output = new String(process.getInputStream().readAllBytes()).trim();
+        assertEquals(0, process.waitFor(), "git " + String.join(" ", args) + " failed: " + output);
+        return output;
+    }
+
     /**
      * Mock implementation of NaiveUpstreamChangeFinder for testing.
      * Overrides repository setup to use the fake test repository.
@@ -517,6 +941,12 @@ class NaiveUpstreamChangeFinderTest {
         }
 
         @Override
+        protected Map<Failure, TestResult> runModuleTests(List<Failure> failures) {
+            Map<Failure, TestResult> results = new HashMap<>();
+            failures.forEach(failure -> results.put(failure, runTest(failure) ? TestResult.PASSED : TestResult.FAILED));
+            return results;
+        }
+
         protected boolean runTest(Failure failure) {
             // Simulate test execution by checking git repo output
             // In the test repo, we can check what the Main.java prints
@@ -565,10 +995,33 @@ class NaiveUpstreamChangeFinderTest {
         }
 
         @Override
-        protected boolean runTest(Failure failure) {
-            // Always return false to simulate all commits failing
+        protected Map<Failure, TestResult> runModuleTests(List<Failure> failures) {
+            // Always fail to simulate all commits failing
             logger.info("Mock test FAILED (always failing scenario)");
-            return false;
+            Map<Failure, TestResult> results = new HashMap<>();
+            failures.forEach(failure -> results.put(failure, TestResult.FAILED));
+            return results;
+        }
+    }
+
+    /**
+     * Finder that runs no Maven command, the verdicts are read from the reports already in the test suite repository.
+     */
+    @Vetoed
+    private static class ReportReadingFinder extends NaiveUpstreamChangeFinder {
+
+        private final List<List<String>> commands;
+
+        ReportReadingFinder(Logger logger, Path testSuiteRepo, List<List<String>> commands) {
+            super(logger, new MockFailureHistory(HistoryData.empty()));
+            this.testSuiteRepo = testSuiteRepo;
+            this.commands = commands;
+        }
+
+        @Override
+        protected String runTestCommand(List<String> mvnArgs) {
+            commands.add(mvnArgs);
+            return "BUILD FAILURE";
         }
     }
 
@@ -593,6 +1046,36 @@ class NaiveUpstreamChangeFinderTest {
         }
     }
 
+    /**
+     * Mock Failure of a test that passed on rerun.
+     */
+    private record FlakyMockFailure(String testClassName, String testMethodName, String modulePath) implements Failure {
+        @Override
+        public String failureMessage() {
+            return "Mock failure message";
+        }
+
+        @Override
+        public FailureType failureType() {
+            return FailureType.FAILURE;
+        }
+
+        @Override
+        public String throwableClass() {
+            return "java.lang.AssertionError";
+        }
+
+        @Override
+        public String testRunLog() {
+            return "Mock test run log";
+        }
+
+        @Override
+        public boolean flaky() {
+            return true;
+        }
+    }
+
     /**
      * Mock Failure for testing.
      */
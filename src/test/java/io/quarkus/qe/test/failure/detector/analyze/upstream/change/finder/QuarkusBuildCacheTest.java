@@ -0,0 +1,121 @@
+package io.quarkus.qe.test.failure.detector.analyze.upstream.change.finder;
+
+import io.quarkus.qe.test.failure.detector.TestAppConfig;
+import io.quarkus.qe.test.failure.detector.TestLogger;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QuarkusBuildCacheTest {
+
+    private static final int ARTIFACT_SIZE = 400 * 1024;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testCachedCommitIsRestored() throws IOException {
+        Path localRepository = tempDir.resolve("m2");
+        QuarkusBuildCache cache = createCache(localRepository, tempDir.resolve("cache"), 100);
+        Path core = install(localRepository, "io/quarkus/quarkus-core", "first");
+        Path removedLater = install(localRepository, "io/quarkus/arc/arc-removed", "first");
+        Path release = install(localRepository, "io/quarkus/quarkus-bom", "3.0.0", "release");
+        cache.store("first");
+
+        // the next commit is built and installed over the artifacts of the first one
+        Files.delete(removedLater);
+        install(localRepository, "io/quarkus/quarkus-core", "second");
+        Path added = install(localRepository, "io/quarkus/quarkus-added", "second");
+
+        assertFalse(cache.restore("second"), "Second commit was not stored");
+        assertTrue(cache.restore("first"));
+
+        assertEquals("first", Files.readString(core));
+        assertEquals("first", Files.readString(removedLater));
+        assertFalse(Files.exists(added), "Artifacts of the other commit should be removed");
+        assertEquals("release", Files.readString(release), "Released artifacts are not cached");
+        assertEquals(1, cache.hits());
+        assertEquals(1, cache.misses());
+    }
+
+    @Test
+    void testArtifactsWrittenInPlaceDoNotChangeCachedCommit() throws IOException {
+        Path localRepository = tempDir.resolve("m2");
+        QuarkusBuildCache cache = createCache(localRepository, tempDir.resolve("cache"), 100);
+        Path core = install(localRepository, "io/quarkus/quarkus-core", "first");
+        cache.store("first");
+        assertTrue(cache.restore("first"));
+
+        // a build that writes into the installed file instead of replacing it
+        Files.writeString(core, "second");
+
+        assertTrue(cache.restore("first"));
+        assertEquals("first", Files.readString(core));
+    }
+
+    @Test
+    void testTestFrameworkArtifactsAreNotCached() throws IOException {
+        Path localRepository = tempDir.resolve("m2");
+        QuarkusBuildCache cache = createCache(localRepository, tempDir.resolve("cache"), 100);
+        install(localRepository, "io/quarkus/quarkus-core", "first");
+        Path framework = install(localRepository, "io/quarkus/qe/quarkus-test-core", "framework");
+        cache.store("first");
+
+        // the test framework is installed again, independently of the Quarkus commits
+        install(localRepository, "io/quarkus/qe/quarkus-test-core", "newer framework");
+
+        assertTrue(cache.restore("first"));
+        assertEquals("newer framework", Files.readString(framework),
+                "Test framework artifacts are not part of Quarkus, they must be kept");
+        assertFalse(Files.exists(tempDir.resolve("cache/first/repository/io/quarkus/qe")));
+    }
+
+    @Test
+    void testLeastRecentlyUsedCommitsAreEvicted() throws IOException {
+        Path localRepository = tempDir.resolve("m2");
+        Path cacheDir = tempDir.resolve("cache");
+        QuarkusBuildCache cache = createCache(localRepository, cacheDir, 1);
+        for (String commit : new String[] { "1", "2" }) {
+            install(localRepository, "io/quarkus/quarkus-core", "x".repeat(ARTIFACT_SIZE));
+            cache.store(commit);
+        }
+        Files.setLastModifiedTime(cacheDir.resolve("1"), FileTime.from(Instant.now().minus(Duration.ofHours(1))));
+        Files.setLastModifiedTime(cacheDir.resolve("2"), FileTime.from(Instant.now().minus(Duration.ofHours(2))));
+
+        // the cache is over 1 MB, the least recently used commit is the second one
+        install(localRepository, "io/quarkus/quarkus-core", "x".repeat(ARTIFACT_SIZE));
+        cache.store("3");
+
+        assertTrue(Files.exists(cacheDir.resolve("1")));
+        assertFalse(Files.exists(cacheDir.resolve("2")));
+        assertTrue(Files.exists(cacheDir.resolve("3")));
+    }
+
+    private static QuarkusBuildCache createCache(Path localRepository, Path cacheDir, long sizeMb) {
+        QuarkusBuildCache cache = new QuarkusBuildCache(new TestLogger(), localRepository);
+        cache.updateConfiguration(TestAppConfig.builder().buildCache(cacheDir, sizeMb).build());
+        return cache;
+    }
+
+    private static Path install(Path localRepository, String artifactDir, String content) throws IOException {
+        return install(localRepository, artifactDir, QuarkusBuildCache.SNAPSHOT_VERSION, content);
+    }
+
+    private static Path install(Path localRepository, String artifactDir, String version, String content)
+            throws IOException {
+        Path versionDir = Files.createDirectories(localRepository.resolve(artifactDir).resolve(version));
+        String artifactId = Path.of(artifactDir).getFileName().toString();
+        // Maven replaces the installed files, it doesn't write into them
+        Path jar = versionDir.resolve(artifactId + "-" + version + ".jar");
+        Files.deleteIfExists(jar);
+        return Files.writeString(jar, content);
+    }
+}
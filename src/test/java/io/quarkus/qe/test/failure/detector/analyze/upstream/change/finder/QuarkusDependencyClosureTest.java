@@ -0,0 +1,80 @@
+package io.quarkus.qe.test.failure.detector.analyze.upstream.change.finder;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QuarkusDependencyClosureTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testQuarkusArtifactsAreReadFromDependencyList() throws IOException {
+        Path dependencyList = Files.writeString(tempDir.resolve("dependencies.txt"), """
+
+                The following files have been resolved:
+                   io.quarkus:quarkus-rest:jar:3.31.0:compile -- module io.quarkus.rest
+                   io.quarkus.arc:arc:jar:3.31.0:compile
+                   io.quarkus:quarkus-junit5:jar:3.31.0:test
+                   io.quarkus.qe:quarkus-test-core:jar:1.8.0:test
+                   io.smallrye.reactive:mutiny:jar:2.9.0:compile
+                   io.quarkus:quarkus-rest:jar:3.31.0:compile
+                """);
+
+        assertEquals(Set.of("quarkus-rest", "arc", "quarkus-junit5"),
+                QuarkusDependencyClosure.readQuarkusArtifactIds(dependencyList));
+    }
+
+    @Test
+    void testDependenciesAreMappedToModules() throws IOException {
+        pom("pom.xml", "quarkus-parent", null);
+        pom("bom/application/pom.xml", "quarkus-bom", "quarkus-parent");
+        pom("core/runtime/pom.xml", "quarkus-core", "quarkus-core-parent");
+        pom("core/deployment/pom.xml", "quarkus-core-deployment", "quarkus-core-parent");
+        pom("extensions/rest/runtime/pom.xml", "quarkus-rest", "quarkus-rest-parent");
+        pom("devtools/maven/pom.xml", "quarkus-maven-plugin", "quarkus-devtools-all");
+        // POMs of test projects are not modules
+        pom("integration-tests/maven/src/test/resources/projects/app/pom.xml", "quarkus-core", null);
+        pom("core/runtime/target/classes/pom.xml", "quarkus-rest", null);
+
+        Map<String, String> modulesByArtifactId = QuarkusDependencyClosure.findModulesByArtifactId(tempDir);
+
+        assertEquals(Map.of("quarkus-bom", "bom/application", "quarkus-core", "core/runtime",
+                "quarkus-core-deployment", "core/deployment", "quarkus-rest", "extensions/rest/runtime",
+                "quarkus-maven-plugin", "devtools/maven"), modulesByArtifactId);
+        assertEquals(Set.of("bom/application", "core/deployment", "core/runtime", "devtools/maven"),
+                QuarkusDependencyClosure.toModules(Set.of("quarkus-core", "arc"), modulesByArtifactId),
+                "Deployment modules, the BOM and the Maven plugin should be built, unknown artifacts ignored");
+    }
+
+    private void pom(String path, String artifactId, String parentArtifactId) throws IOException {
+        Path pom = tempDir.resolve(path);
+        Files.createDirectories(pom.getParent());
+        String parent = parentArtifactId == null ? "" : """
+                    <parent>
+                        <groupId>io.quarkus</groupId>
+                        <artifactId>%s</artifactId>
+                        <version>999-SNAPSHOT</version>
+                    </parent>
+                """.formatted(parentArtifactId);
+        Files.writeString(pom, """
+                <?xml version="1.0" encoding="UTF-8"?>
+                <project xmlns="http://maven.apache.org/POM/4.0.0">
+                %s    <artifactId>%s</artifactId>
+                    <dependencies>
+                        <dependency>
+                            <artifactId>not-this-one</artifactId>
+                        </dependency>
+                    </dependencies>
+                </project>
+                """.formatted(parent, artifactId));
+    }
+}
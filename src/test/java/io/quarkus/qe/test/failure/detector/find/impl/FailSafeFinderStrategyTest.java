@@ -6,12 +6,17 @@ import io.quarkus.test.junit.QuarkusTest;
 import io.quarkus.test.junit.TestProfile;
 import jakarta.inject.Inject;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.net.URISyntaxException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -56,6 +61,32 @@ class FailSafeFinderStrategyTest {
         assertTrue(testClasses.contains("io.quarkus.ts.moduleB.ServiceBIT"));
     }
 
+    @Test
+    void testFailuresOrderIsDeterministic() throws URISyntaxException {
+        Path testDir = getTestResourcePath("failsafe-reports/multi-module");
+
+        List<String> firstRun = strategy.find(testDir).stream().map(Failure::testClassName).toList();
+        List<String> secondRun = strategy.find(testDir).stream().map(Failure::testClassName).toList();
+
+        // reports are parsed concurrently, but failures are ordered by the report paths
+        assertEquals(List.of("io.quarkus.ts.moduleA.ServiceAIT", "io.quarkus.ts.moduleB.ServiceBIT"), firstRun);
+        assertEquals(firstRun, secondRun);
+    }
+
+    @Test
+    void testStreamedFailuresAreInSameOrder() throws URISyntaxException {
+        Path testDir = getTestResourcePath("failsafe-reports/multi-module");
+
+        try (Stream<Failure> failures = strategy.stream(testDir)) {
+            assertEquals(strategy.find(testDir).stream().map(Failure::testClassName).toList(),
+                    failures.map(Failure::testClassName).toList());
+        }
+        // the consumer can stop early, the rest of the scan is cancelled on close
+        try (Stream<Failure> failures = strategy.stream(testDir)) {
+            assertEquals("io.quarkus.ts.moduleA.ServiceAIT", failures.findFirst().orElseThrow().testClassName());
+        }
+    }
+
     @Test
     void testNoFailuresFound() throws URISyntaxException {
         Path testDir = getTestResourcePath("failsafe-reports/no-failures");
@@ -82,6 +113,100 @@ class FailSafeFinderStrategyTest {
         assertTrue(failureTypes.contains(Failure.FailureType.ERROR));
     }
 
+    @Test
+    void testLargeReportWithSystemOut(@TempDir Path tempDir) throws IOException {
+        // native-mode reports can have hundreds of MB of <system-out>, these must be skipped, not buffered
+        Path reportsDir = tempDir.resolve("large-module/target/failsafe-reports");
+        Files.createDirectories(reportsDir);
+        Files.writeString(tempDir.resolve("large-module/pom.xml"), "<project/>");
+        Files.writeString(reportsDir.resolve("failsafe-summary.xml"), """
+                <?xml version="1.0" encoding="UTF-8"?>
+                <failsafe-summary result="255" timeout="false">
+                    <completed>51</completed>
+                    <errors>0</errors>
+                    <failures>1</failures>
+                    <skipped>0</skipped>
+                    <flakes>0</flakes>
+                </failsafe-summary>
+                """);
+        String systemOutLine = "2026-01-10 10:00:00,000 INFO  [io.quarkus] (main) Some very chatty log line &amp; more\n";
+        try (Writer writer = Files.newBufferedWriter(reportsDir.resolve("TEST-io.quarkus.ts.large.LargeIT.xml"))) {
+            writer.write("""
+                    <?xml version="1.0" encoding="UTF-8"?>
+                    <testsuite name="io.quarkus.ts.large.LargeIT" tests="51" errors="0" skipped="0" failures="1">
+                    """);
+            for (int i = 0; i < 50; i++) {
+                writer.write("<testcase name=\"testPassing" + i + "\" classname=\"io.quarkus.ts.large.LargeIT\">");
+                writer.write("<system-out><![CDATA[");
+                for (int j = 0; j < 2_000; j++) {
+                    writer.write(systemOutLine);
+                }
+                writer.write("]]></system-out></testcase>\n");
+            }
+            writer.write("""
+                    <testcase name="testFailing" classname="io.quarkus.ts.large.LargeIT">
+                      <failure message="Boom" type="java.lang.IllegalStateException">java.lang.IllegalStateException: Boom
+                    	at io.quarkus.ts.large.LargeIT.testFailing(LargeIT.java:42)
+                    </failure>
+                      <system-out>output of the failing test</system-out>
+                    </testcase>
+                    </testsuite>
+                    """);
+        }
+
+        Collection<Failure> failures = strategy.find(tempDir);
+
+        assertEquals(1, failures.size());
+        Failure failure = failures.iterator().next();
+        assertEquals("io.quarkus.ts.large.LargeIT", failure.testClassName());
+        assertEquals("testFailing", failure.testMethodName());
+        assertEquals("Boom", failure.failureMessage());
+        assertEquals("java.lang.IllegalStateException", failure.throwableClass());
+        assertTrue(failure.testRunLog().contains("LargeIT.java:42"));
+        assertFalse(failure.testRunLog().contains("output of the failing test"));
+        assertTrue(failure.modulePath().endsWith("large-module"));
+    }
+
+    @Test
+    void testReportsOutsideOfBuildOutputAreIgnored(@TempDir Path tempDir) throws IOException {
+        Files.writeString(tempDir.resolve("pom.xml"), "<project/>");
+        writeFailingReport(tempDir.resolve("module/nested/target/failsafe-reports"), "io.quarkus.ts.nested.NestedIT");
+        Files.writeString(tempDir.resolve("module/pom.xml"), "<project/>");
+        // test fixtures and VCS metadata can contain report files too, but these are not results of the test run
+        writeFailingReport(tempDir.resolve("module/src/test/resources/target/failsafe-reports"),
+                "io.quarkus.ts.fixture.FixtureIT");
+        writeFailingReport(tempDir.resolve(".git/target/failsafe-reports"), "io.quarkus.ts.git.GitIT");
+
+        Collection<Failure> failures = strategy.find(tempDir);
+
+        assertEquals(1, failures.size());
+        Failure failure = failures.iterator().next();
+        assertEquals("io.quarkus.ts.nested.NestedIT", failure.testClassName());
+        // "module/nested" has no pom.xml, so the closest module is "module"
+        assertEquals(tempDir.resolve("module").toAbsolutePath().toString(), failure.modulePath());
+    }
+
+    private static void writeFailingReport(Path reportsDir, String testClassName) throws IOException {
+        Files.createDirectories(reportsDir);
+        Files.writeString(reportsDir.resolve("failsafe-summary.xml"), """
+                <?xml version="1.0" encoding="UTF-8"?>
+                <failsafe-summary result="255" timeout="false">
+                    <completed>1</completed>
+                    <errors>0</errors>
+                    <failures>1</failures>
+                    <skipped>0</skipped>
+                </failsafe-summary>
+                """);
+        Files.writeString(reportsDir.resolve("TEST-" + testClassName + ".xml"), """
+                <?xml version="1.0" encoding="UTF-8"?>
+                <testsuite name="%1$s" tests="1" errors="0" skipped="0" failures="1">
+                  <testcase name="testFailing" classname="%1$s">
+                    <failure message="Boom" type="java.lang.AssertionError">java.lang.AssertionError: Boom</failure>
+                  </testcase>
+                </testsuite>
+                """.formatted(testClassName));
+    }
+
     private Path getTestResourcePath(String resourcePath) throws URISyntaxException {
         return Paths.get(getClass().getClassLoader().getResource(resourcePath).toURI());
     }
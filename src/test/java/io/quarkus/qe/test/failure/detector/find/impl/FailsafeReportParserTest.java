@@ -0,0 +1,364 @@
+package io.quarkus.qe.test.failure.detector.find.impl;
+
+import io.quarkus.qe.test.failure.detector.find.Failure;
+import io.quarkus.qe.test.failure.detector.find.FailureFingerprint;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamReader;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FailsafeReportParserTest {
+
+    private final TestRunLogStore testRunLogStore = new TestRunLogStore();
+    private final FailsafeReportParser parser = new FailsafeReportParser(testRunLogStore,
+            new StringPool());
+
+    @AfterEach
+    void closeTestRunLogStore() {
+        testRunLogStore.close();
+    }
+
+    @Test
+    void testPassingReportIsNotReadBeyondHeader() throws Exception {
+        CountingInputStream report = new CountingInputStream(createReport("0", "0", 20_000));
+
+        List<Failure> failures = parser.parseTestReport(report, "/tmp/module");
+
+        assertTrue(failures.isEmpty());
+        assertTrue(report.bytesRead < 64 * 1024,
+                "Only the report header should be read, but read " + report.bytesRead + " bytes");
+    }
+
+    @Test
+    void testFailingReportIsFullyParsed() throws Exception {
+        CountingInputStream report = new CountingInputStream(createReport("1", "0", 20_000));
+
+        List<Failure> failures = parser.parseTestReport(report, "/tmp/module");
+
+        assertEquals(1, failures.size());
+        assertEquals("testFailing", failures.get(0).testMethodName());
+        assertEquals("/tmp/module", failures.get(0).modulePath());
+    }
+
+    @Test
+    void testReportWithoutCountsIsFullyParsed() throws Exception {
+        String report = """
+                <?xml version="1.0" encoding="UTF-8"?>
+                <testsuite name="io.quarkus.ts.example.NoCountsIT">
+                  <testcase name="testFailing" classname="io.quarkus.ts.example.NoCountsIT">
+                    <error message="Boom" type="java.lang.RuntimeException">java.lang.RuntimeException: Boom</error>
+                  </testcase>
+                </testsuite>
+                """;
+
+        List<Failure> failures = parser.parseTestReport(toStream(report), "/tmp/module");
+
+        assertEquals(1, failures.size());
+        assertEquals(Failure.FailureType.ERROR, failures.get(0).failureType());
+    }
+
+    @Test
+    void testTestRunLogIsReadFromSpillFile() throws Exception {
+        String report = """
+                <?xml version="1.0" encoding="UTF-8"?>
+                <testsuite name="io.quarkus.ts.example.LogIT" tests="2" errors="1" failures="1">
+                  <testcase name="testFailing" classname="io.quarkus.ts.example.LogIT">
+                    <failure message="Boom" type="java.lang.AssertionError">expected: &lt;1&gt; but was: &lt;2&gt; \uD83D\uDCA5
+                	at io.quarkus.ts.example.LogIT.testFailing(LogIT.java:42)</failure>
+                  </testcase>
+                  <testcase name="testErroring" classname="io.quarkus.ts.example.LogIT">
+                    <error message="Boom" type="java.lang.RuntimeException"><![CDATA[java.lang.RuntimeException: <Boom>]]></error>
+                    <system-out>output of the erroring test</system-out>
+                  </testcase>
+                  <testcase name="testEmptyLog" classname="io.quarkus.ts.example.LogIT">
+                    <failure message="Boom" type="java.lang.AssertionError"/>
+                  </testcase>
+                </testsuite>
+                """;
+
+        List<Failure> failures = parser.parseTestReport(toStream(report), "/tmp/module");
+
+        assertEquals(3, failures.size());
+        assertEquals("""
+                expected: <1> but was: <2> \uD83D\uDCA5
+                	at io.quarkus.ts.example.LogIT.testFailing(LogIT.java:42)""", failures.get(0).testRunLog());
+        assertEquals("java.lang.RuntimeException: <Boom>", failures.get(1).testRunLog());
+        assertEquals("", failures.get(2).testRunLog());
+        // the log can be read repeatedly
+        assertEquals("java.lang.RuntimeException: <Boom>", failures.get(1).testRunLog());
+    }
+
+    @Test
+    void testMalformedReportDoesNotCorruptOtherLogs() throws Exception {
+        String malformedReport = """
+                <?xml version="1.0" encoding="UTF-8"?>
+                <testsuite name="io.quarkus.ts.example.BrokenIT" tests="1" errors="0" failures="1">
+                  <testcase name="testFailing" classname="io.quarkus.ts.example.BrokenIT">
+                    <failure message="Boom" type="java.lang.AssertionError">partial log
+                """;
+        assertThrows(Exception.class, () -> parser.parseTestReport(toStream(malformedReport), "/tmp/module"));
+
+        List<Failure> failures = parser.parseTestReport(createReport("1", "0", 0), "/tmp/module");
+
+        assertEquals(1, failures.size());
+        assertEquals("java.lang.AssertionError: Boom", failures.get(0).testRunLog());
+    }
+
+    @Test
+    void testFailureStringsAreCanonicalized() throws Exception {
+        Failure first = parser.parseTestReport(createReport("1", "0", 0), "/tmp/module").get(0);
+        Failure second = parser.parseTestReport(createReport("1", "0", 0), new String("/tmp/module")).get(0);
+
+        assertSame(first.testClassName(), second.testClassName());
+        assertSame(first.modulePath(), second.modulePath());
+        assertSame(first.failureMessage(), second.failureMessage());
+        assertSame(first.throwableClass(), second.throwableClass());
+    }
+
+    @Test
+    void testFingerprintIgnoresVolatileDetails() throws Exception {
+        Failure first = parser.parseTestReport(toStream(createStackTraceReport("FirstIT", """
+                java.net.ConnectException: Connection refused: localhost/127.0.0.1:8080 at 2025-01-07T10:15:30.123Z \
+                request 123e4567-e89b-12d3-a456-426614174000
+                \tat io.vertx.core.net.impl.ChannelProvider.connect(ChannelProvider.java:42)
+                \tat io.quarkus.ts.shared.Client.call(Client.java:17)
+                """)), "/tmp/module-a").get(0);
+        Failure second = parser.parseTestReport(toStream(createStackTraceReport("SecondIT", """
+                java.net.ConnectException: Connection refused: localhost/127.0.0.1:38417 at 2025-03-02T23:01:02.456Z \
+                request 9b2f0c1e-1111-4a4a-8b8b-0123456789ab
+                \tat io.vertx.core.net.impl.ChannelProvider.connect(ChannelProvider.java:45)
+                \tat io.quarkus.ts.shared.Client.call(Client.java:20)
+                """)), "/tmp/module-b").get(0);
+
+        assertEquals(16, first.fingerprint().length());
+        assertEquals(first.fingerprint(), second.fingerprint());
+        // the fingerprint computed while parsing is the same as the one computed from the stored log
+        assertEquals(FailureFingerprint.of(first.throwableClass(), first.failureMessage(), first.testRunLog()),
+                first.fingerprint());
+    }
+
+    @Test
+    void testFingerprintDiffersForDifferentStackTraces() throws Exception {
+        Failure first = parser.parseTestReport(toStream(createStackTraceReport("FirstIT", """
+                java.net.ConnectException: Connection refused
+                \tat io.vertx.core.net.impl.ChannelProvider.connect(ChannelProvider.java:42)
+                """)), "/tmp/module").get(0);
+        Failure second = parser.parseTestReport(toStream(createStackTraceReport("SecondIT", """
+                java.net.ConnectException: Connection refused
+                \tat io.vertx.core.http.impl.HttpClientImpl.request(HttpClientImpl.java:42)
+                """)), "/tmp/module").get(0);
+
+        assertNotEquals(first.fingerprint(), second.fingerprint());
+    }
+
+    @Test
+    void testFingerprintDiffersForAssertionsWithDifferentExpectedValues() throws Exception {
+        Failure first = parser.parseTestReport(toStream(createAssertionReport("HttpIT", "200", "500")),
+                "/tmp/http-module").get(0);
+        Failure second = parser.parseTestReport(toStream(createAssertionReport("SecurityIT", "401", "500")),
+                "/tmp/security-module").get(0);
+        Failure sameExpectedValue = parser.parseTestReport(toStream(createAssertionReport("SecurityIT", "200", "500")),
+                "/tmp/security-module").get(0);
+
+        assertNotEquals(first.fingerprint(), second.fingerprint(), "Expected values differ");
+        assertNotEquals(first.fingerprint(), sameExpectedValue.fingerprint(),
+                "Failing test classes differ, the assertion frames are the same");
+    }
+
+    @Test
+    void testLargeCDataIsReadInBoundedChunks() throws Exception {
+        String stackTrace = "java.lang.AssertionError: Boom\n" + "\tat io.quarkus.ts.example.LargeIT.test(LargeIT.java:42)\n"
+                .repeat(20_000);
+        String report = """
+                <?xml version="1.0" encoding="UTF-8"?>
+                <testsuite name="io.quarkus.ts.example.LargeIT" tests="1" errors="0" skipped="0" failures="1">
+                  <testcase name="testLarge" classname="io.quarkus.ts.example.LargeIT">
+                    <failure message="Boom" type="java.lang.AssertionError"><![CDATA[%s]]></failure>
+                    <system-out><![CDATA[%s]]></system-out>
+                  </testcase>
+                </testsuite>
+                """.formatted(stackTrace, "log line of the test application\n".repeat(200_000));
+
+        // the text of the CDATA sections never has to be held in the heap at once
+        XMLStreamReader reader = FailsafeReportParser.createXmlInputFactory().createXMLStreamReader(toStream(report));
+        int textEvents = 0;
+        try {
+            while (reader.hasNext()) {
+                int event = reader.next();
+                // the JDK parser reports the CDATA sections as characters
+                if (event == XMLStreamConstants.CDATA || event == XMLStreamConstants.CHARACTERS) {
+                    textEvents++;
+                    assertTrue(reader.getTextLength() <= FailsafeReportParser.CDATA_CHUNK_SIZE,
+                            "Text chunk of " + reader.getTextLength() + " characters is over the limit");
+                }
+            }
+        } finally {
+            reader.close();
+        }
+        assertTrue(textEvents > 10, "Large CDATA sections should be split into chunks");
+
+        List<Failure> failures = parser.parseTestReport(toStream(report), "/tmp/module");
+        assertEquals(1, failures.size());
+        assertEquals(stackTrace, failures.get(0).testRunLog());
+    }
+
+    private static InputStream createReport(String failures, String errors, int passingTests) {
+        StringBuilder report = new StringBuilder("""
+                <?xml version="1.0" encoding="UTF-8"?>
+                <testsuite name="io.quarkus.ts.example.ManyIT" tests="%d" errors="%s" skipped="0" failures="%s">
+                """.formatted(passingTests + 1, errors, failures));
+        for (int i = 0; i < passingTests; i++) {
+            report.append("<testcase name=\"testPassing").append(i)
+                    .append("\" classname=\"io.quarkus.ts.example.ManyIT\"/>\n");
+        }
+        report.append("""
+                <testcase name="testFailing" classname="io.quarkus.ts.example.ManyIT">
+                  <failure message="Boom" type="java.lang.AssertionError">java.lang.AssertionError: Boom</failure>
+                </testcase>
+                </testsuite>
+                """);
+        return toStream(report.toString());
+    }
+
+    @Test
+    void testRerunInformationIsParsed() throws Exception {
+        String report = """
+                <?xml version="1.0" encoding="UTF-8"?>
+                <testsuite name="io.quarkus.ts.example.RerunIT" tests="2" errors="0" skipped="0" failures="1" flakes="1">
+                  <testcase name="testFlaky" classname="io.quarkus.ts.example.RerunIT">
+                    <flakyFailure message="Boom" type="java.lang.AssertionError">
+                      <stackTrace>java.lang.AssertionError: Boom</stackTrace>
+                      <system-out>output of the flaky test</system-out>
+                    </flakyFailure>
+                    <flakyFailure message="Boom again" type="java.lang.AssertionError">
+                      <stackTrace>java.lang.AssertionError: Boom again</stackTrace>
+                    </flakyFailure>
+                  </testcase>
+                  <testcase name="testBroken" classname="io.quarkus.ts.example.RerunIT">
+                    <failure message="Bang" type="java.lang.AssertionError">java.lang.AssertionError: Bang</failure>
+                    <rerunFailure message="Bang" type="java.lang.AssertionError">
+                      <stackTrace>java.lang.AssertionError: Bang</stackTrace>
+                    </rerunFailure>
+                  </testcase>
+                </testsuite>
+                """;
+
+        List<Failure> failures = parser.parseTestReport(toStream(report), "/tmp/module", true);
+
+        assertEquals(2, failures.size());
+        assertEquals("testFlaky", failures.get(0).testMethodName());
+        assertTrue(failures.get(0).flaky());
+        assertEquals("Boom", failures.get(0).failureMessage());
+        assertEquals("java.lang.AssertionError: Boom", failures.get(0).testRunLog());
+        assertEquals("testBroken", failures.get(1).testMethodName());
+        assertFalse(failures.get(1).flaky());
+        assertEquals("java.lang.AssertionError: Bang", failures.get(1).testRunLog());
+    }
+
+    @Test
+    void testReportWithFlakyTestsIsParsedWhenSummaryHasFlakes() throws Exception {
+        String report = """
+                <?xml version="1.0" encoding="UTF-8"?>
+                <testsuite name="io.quarkus.ts.example.FlakyIT" tests="1" errors="0" skipped="0" failures="0">
+                  <testcase name="testFlaky" classname="io.quarkus.ts.example.FlakyIT">
+                    <flakyError message="Boom" type="java.lang.RuntimeException">
+                      <stackTrace>java.lang.RuntimeException: Boom</stackTrace>
+                    </flakyError>
+                  </testcase>
+                </testsuite>
+                """;
+
+        assertTrue(parser.parseTestReport(toStream(report), "/tmp/module").isEmpty());
+        List<Failure> failures = parser.parseTestReport(toStream(report), "/tmp/module", true);
+        assertEquals(1, failures.size());
+        assertEquals(Failure.FailureType.ERROR, failures.get(0).failureType());
+        assertTrue(failures.get(0).flaky());
+
+        FailsafeReportParser.SummaryCounts counts = parser.parseSummary(toStream("""
+                <failsafe-summary result="0" timeout="false">
+                    <completed>1</completed>
+                    <errors>0</errors>
+                    <failures>0</failures>
+                    <skipped>0</skipped>
+                    <flakes>1</flakes>
+                </failsafe-summary>
+                """));
+        assertFalse(counts.hasFailures());
+        assertTrue(counts.hasFlakes());
+    }
+
+    private static String createStackTraceReport(String simpleClassName, String stackTrace) {
+        return """
+                <?xml version="1.0" encoding="UTF-8"?>
+                <testsuite name="io.quarkus.ts.example.%1$s" tests="1" errors="1" skipped="0" failures="0">
+                  <testcase name="testConnect" classname="io.quarkus.ts.example.%1$s">
+                    <error message="Connection refused" type="java.net.ConnectException">%2$s</error>
+                  </testcase>
+                </testsuite>
+                """.formatted(simpleClassName, stackTrace);
+    }
+
+    private static String createAssertionReport(String simpleClassName, String expected, String actual) {
+        return """
+                <?xml version="1.0" encoding="UTF-8"?>
+                <testsuite name="io.quarkus.ts.example.%1$s" tests="1" errors="0" skipped="0" failures="1">
+                  <testcase name="testStatus" classname="io.quarkus.ts.example.%1$s">
+                    <failure message="expected: &lt;%2$s&gt; but was: &lt;%3$s&gt;" \
+                type="org.opentest4j.AssertionFailedError">org.opentest4j.AssertionFailedError: \
+                expected: &lt;%2$s&gt; but was: &lt;%3$s&gt;
+                \tat org.junit.jupiter.api.AssertionFailureBuilder.build(AssertionFailureBuilder.java:151)
+                \tat org.junit.jupiter.api.AssertionFailureBuilder.buildAndThrow(AssertionFailureBuilder.java:132)
+                \tat org.junit.jupiter.api.AssertEquals.failNotEqual(AssertEquals.java:197)
+                \tat org.junit.jupiter.api.AssertEquals.assertEquals(AssertEquals.java:150)
+                \tat org.junit.jupiter.api.AssertEquals.assertEquals(AssertEquals.java:145)
+                \tat org.junit.jupiter.api.Assertions.assertEquals(Assertions.java:531)
+                \tat io.quarkus.ts.example.%1$s.testStatus(%1$s.java:42)
+                \tat java.base/jdk.internal.reflect.DirectMethodHandleAccessor.invoke(DirectMethodHandleAccessor.java:103)
+                \tat java.base/java.lang.reflect.Method.invoke(Method.java:580)
+                </failure>
+                  </testcase>
+                </testsuite>
+                """.formatted(simpleClassName, expected, actual);
+    }
+
+    private static InputStream toStream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static final class CountingInputStream extends FilterInputStream {
+
+        private long bytesRead = 0;
+
+        private CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int result = super.read();
+            if (result >= 0) {
+                bytesRead++;
+            }
+            return result;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int result = super.read(b, off, len);
+            if (result > 0) {
+                bytesRead += result;
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package io.quarkus.qe.test.failure.detector.find.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ParallelTasksTest {
+
+    @Test
+    void testClosedStreamWaitsForRunningTasks() throws Exception {
+        CountDownLatch started = new CountDownLatch(2);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger runningWhenClosed = new AtomicInteger(-1);
+
+        Stream<Integer> results = ParallelTasks.stream(List.of(1, 2, 3, 4), 2, input -> {
+            running.incrementAndGet();
+            started.countDown();
+            try {
+                if (input == 1) {
+                    // the consumer of the results fails while the second task is still running
+                    awaitQuietly(started);
+                    throw new IllegalStateException("Boom");
+                }
+                // like parsing, the task does not stop when interrupted
+                long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(300);
+                while (System.nanoTime() < end) {
+                    Thread.onSpinWait();
+                }
+                return input;
+            } finally {
+                running.decrementAndGet();
+            }
+        }).onClose(() -> runningWhenClosed.set(running.get()));
+
+        started.await(10, TimeUnit.SECONDS);
+        try (results) {
+            assertThrows(RuntimeException.class, results::toList);
+        }
+
+        assertEquals(0, runningWhenClosed.get(), "Close handlers must not run while tasks are still running");
+    }
+
+    @Test
+    void testResultsAreInOrderOfInputs() {
+        List<Integer> inputs = IntStream.range(0, 50).boxed().toList();
+        assertEquals(inputs, ParallelTasks.map(inputs, 8, input -> input));
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
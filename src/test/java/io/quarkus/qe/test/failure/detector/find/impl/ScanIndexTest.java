@@ -0,0 +1,191 @@
+package io.quarkus.qe.test.failure.detector.find.impl;
+
+import io.quarkus.qe.test.failure.detector.TestAppConfig;
+import io.quarkus.qe.test.failure.detector.TestBeanProfile;
+import io.quarkus.qe.test.failure.detector.configuration.AppConfig;
+import io.quarkus.qe.test.failure.detector.find.Failure;
+import io.quarkus.qe.test.failure.detector.lifecycle.OnCommandExit;
+import io.quarkus.qe.test.failure.detector.project.ProjectSource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.TestProfile;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@QuarkusTest
+@TestProfile(TestBeanProfile.class)
+class ScanIndexTest {
+
+    @Inject
+    FailSafeFinderStrategy strategy;
+
+    @Inject
+    ScanIndex scanIndex;
+
+    @TempDir
+    Path tempDir;
+
+    @AfterEach
+    void disableScanIndex() {
+        scanIndex.closeLogFiles(new OnCommandExit());
+        configure(ProjectSource.GITHUB_ACTION_ARTIFACTS, AppConfig.ScanIndexMode.ENABLED);
+    }
+
+    @Test
+    void testUnchangedReportIsServedFromIndex() throws IOException {
+        configure(ProjectSource.LOCAL_DIRECTORY, AppConfig.ScanIndexMode.ENABLED);
+        Path report = writeFailingReport("Boom");
+
+        List<Failure> failures = List.copyOf(strategy.find(tempDir.resolve("project")));
+        assertEquals(1, failures.size());
+        assertEquals("Boom", failures.get(0).failureMessage());
+        assertTrue(Files.exists(indexFile()));
+        assertEquals(List.of("scan-index.json", "scan-index.json.logs"), indexDirFileKinds(),
+                "Only the index and its logs should be left");
+
+        // same size and last modified time, the index can't tell the difference
+        rewriteKeepingAttributes(report, "Bang");
+        failures = List.copyOf(strategy.find(tempDir.resolve("project")));
+        assertEquals(1, failures.size());
+        assertEquals("Boom", failures.get(0).failureMessage());
+        assertEquals("java.lang.AssertionError: Boom", failures.get(0).testRunLog());
+        assertTrue(failures.get(0).modulePath().endsWith("module"));
+    }
+
+    @Test
+    void testChangedReportIsParsedAgain() throws IOException {
+        configure(ProjectSource.LOCAL_DIRECTORY, AppConfig.ScanIndexMode.ENABLED);
+        writeFailingReport("Boom");
+        assertEquals("Boom", strategy.find(tempDir.resolve("project")).iterator().next().failureMessage());
+
+        writeFailingReport("Boom again");
+        Failure failure = strategy.find(tempDir.resolve("project")).iterator().next();
+        assertEquals("Boom again", failure.failureMessage());
+        assertEquals("java.lang.AssertionError: Boom again", failure.testRunLog());
+    }
+
+    @Test
+    void testIndexIsNotCombinedWithOtherLogs() throws IOException {
+        configure(ProjectSource.LOCAL_DIRECTORY, AppConfig.ScanIndexMode.ENABLED);
+        Path report = writeFailingReport("Boom");
+        strategy.find(tempDir.resolve("project"));
+        writeFailingReport("Boom again");
+        strategy.find(tempDir.resolve("project"));
+        assertEquals(List.of("scan-index.json", "scan-index.json.logs"), indexDirFileKinds(),
+                "Logs of the replaced index should be deleted");
+
+        // logs that don't belong to the index, e.g. written by another run, are never served
+        Path logsFile = indexDirFiles().stream().filter(file -> !file.equals(indexFile())).findFirst().orElseThrow();
+        Files.writeString(logsFile, "java.lang.AssertionError: Bang!");
+        rewriteKeepingAttributes(report, "Bang again");
+        Failure failure = strategy.find(tempDir.resolve("project")).iterator().next();
+        assertEquals("Bang again", failure.failureMessage());
+        assertEquals("java.lang.AssertionError: Bang again", failure.testRunLog());
+    }
+
+    @Test
+    void testChecksumDetectsContentChange() throws IOException {
+        configure(ProjectSource.LOCAL_DIRECTORY, AppConfig.ScanIndexMode.CHECKSUM);
+        Path report = writeFailingReport("Boom");
+        assertEquals("Boom", strategy.find(tempDir.resolve("project")).iterator().next().failureMessage());
+
+        rewriteKeepingAttributes(report, "Bang");
+        assertEquals("Bang", strategy.find(tempDir.resolve("project")).iterator().next().failureMessage());
+    }
+
+    @Test
+    void testRebuildIgnoresExistingIndex() throws IOException {
+        configure(ProjectSource.LOCAL_DIRECTORY, AppConfig.ScanIndexMode.ENABLED);
+        Path report = writeFailingReport("Boom");
+        strategy.find(tempDir.resolve("project"));
+
+        rewriteKeepingAttributes(report, "Bang");
+        configure(ProjectSource.LOCAL_DIRECTORY, AppConfig.ScanIndexMode.REBUILD);
+        assertEquals("Bang", strategy.find(tempDir.resolve("project")).iterator().next().failureMessage());
+
+        // rebuilt index contains the new content
+        configure(ProjectSource.LOCAL_DIRECTORY, AppConfig.ScanIndexMode.ENABLED);
+        assertEquals("Bang", strategy.find(tempDir.resolve("project")).iterator().next().failureMessage());
+    }
+
+    @Test
+    void testIndexIsNotUsedWhenIgnored() throws IOException {
+        configure(ProjectSource.LOCAL_DIRECTORY, AppConfig.ScanIndexMode.IGNORE);
+        writeFailingReport("Boom");
+
+        assertEquals(1, strategy.find(tempDir.resolve("project")).size());
+        assertFalse(Files.exists(indexFile()));
+    }
+
+    private void configure(ProjectSource projectSource, AppConfig.ScanIndexMode scanIndexMode) {
+        scanIndex.updateConfiguration(TestAppConfig.builder()
+                .projectSource(projectSource)
+                .scanIndex(scanIndexMode, indexFile())
+                .build());
+    }
+
+    private List<Path> indexDirFiles() throws IOException {
+        try (Stream<Path> files = Files.list(indexFile().getParent())) {
+            return files.sorted().toList();
+        }
+    }
+
+    /**
+     * @return file names without the logs generation
+     */
+    private List<String> indexDirFileKinds() throws IOException {
+        return indexDirFiles().stream()
+                .map(file -> file.getFileName().toString().replaceFirst("\\.logs\\..*", ".logs"))
+                .toList();
+    }
+
+    private Path indexFile() {
+        return tempDir.resolve("index/scan-index.json");
+    }
+
+    private Path writeFailingReport(String message) throws IOException {
+        Path moduleDir = tempDir.resolve("project/module");
+        Path reportsDir = moduleDir.resolve("target/failsafe-reports");
+        Files.createDirectories(reportsDir);
+        Files.writeString(moduleDir.resolve("pom.xml"), "<project/>");
+        Files.writeString(reportsDir.resolve("failsafe-summary.xml"), """
+                <?xml version="1.0" encoding="UTF-8"?>
+                <failsafe-summary result="255" timeout="false">
+                    <completed>1</completed>
+                    <errors>0</errors>
+                    <failures>1</failures>
+                    <skipped>0</skipped>
+                </failsafe-summary>
+                """);
+        Path report = reportsDir.resolve("TEST-io.quarkus.ts.index.IndexIT.xml");
+        Files.writeString(report, createReport(message));
+        return report;
+    }
+
+    private static void rewriteKeepingAttributes(Path report, String message) throws IOException {
+        FileTime lastModified = Files.getLastModifiedTime(report);
+        Files.writeString(report, createReport(message));
+        Files.setLastModifiedTime(report, lastModified);
+    }
+
+    private static String createReport(String message) {
+        return """
+                <?xml version="1.0" encoding="UTF-8"?>
+                <testsuite name="io.quarkus.ts.index.IndexIT" tests="1" errors="0" skipped="0" failures="1">
+                  <testcase name="testFailing" classname="io.quarkus.ts.index.IndexIT">
+                    <failure message="%1$s" type="java.lang.AssertionError">java.lang.AssertionError: %1$s</failure>
+                  </testcase>
+                </testsuite>
+                """.formatted(message);
+    }
+}
@@ -0,0 +1,51 @@
+package io.quarkus.qe.test.failure.detector.find.impl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TestRunLogStoreTest {
+
+    private final TestRunLogStore testRunLogStore = new TestRunLogStore();
+
+    @AfterEach
+    void closeTestRunLogStore() {
+        testRunLogStore.close();
+    }
+
+    @Test
+    void testUnfinishedLogDoesNotBlockOtherThreads() throws Exception {
+        TestRunLogStore.LogWriter first = testRunLogStore.newLog();
+        append(first, "first log, its report is still being read");
+
+        // the other thread would wait for the first log to be finished if the store was locked while reading
+        TestRunLogStore.TestRunLog second = CompletableFuture.supplyAsync(() -> {
+            TestRunLogStore.LogWriter writer = testRunLogStore.newLog();
+            append(writer, "second log");
+            return writer.finish();
+        }).get(10, TimeUnit.SECONDS);
+        append(first, " 💥");
+
+        assertEquals("first log, its report is still being read 💥", first.finish().read());
+        assertEquals("second log", second.read());
+        assertEquals(0, second.offset(), "The log finished first should be appended first");
+    }
+
+    @Test
+    void testLargeLogIsAppendedWhole() {
+        String log = "\tat io.quarkus.ts.example.LargeIT.test(LargeIT.java:42)\n".repeat(10_000);
+        TestRunLogStore.LogWriter writer = testRunLogStore.newLog();
+        append(writer, log);
+
+        assertEquals(log, writer.finish().read());
+        assertEquals(TestRunLogStore.TestRunLog.EMPTY, testRunLogStore.newLog().finish());
+    }
+
+    private static void append(TestRunLogStore.LogWriter writer, String text) {
+        writer.append(text.toCharArray(), 0, text.length());
+    }
+}
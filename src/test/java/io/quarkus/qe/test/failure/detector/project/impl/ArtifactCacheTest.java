@@ -0,0 +1,79 @@
+package io.quarkus.qe.test.failure.detector.project.impl;
+
+import io.quarkus.qe.test.failure.detector.TestAppConfig;
+import io.quarkus.qe.test.failure.detector.TestLogger;
+import io.quarkus.qe.test.failure.detector.project.ProjectSource;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ArtifactCacheTest {
+
+    private static final int ARTIFACT_SIZE = 400 * 1024;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testLeastRecentlyUsedArtifactsAreEvicted() throws IOException {
+        Path cacheDir = tempDir.resolve("cache");
+        ArtifactCache previousRun = createCache(cacheDir);
+        for (String key : new String[] { "1", "2", "3" }) {
+            previousRun.put(key, stageArchive(previousRun));
+        }
+        setLastUsed(cacheDir.resolve("1"), Duration.ofHours(3));
+        setLastUsed(cacheDir.resolve("2"), Duration.ofHours(2));
+        setLastUsed(cacheDir.resolve("3"), Duration.ofHours(1));
+
+        ArtifactCache cache = createCache(cacheDir);
+        assertNotNull(cache.get("1", false));
+        assertNull(cache.get("1", true), "Artifact was not extracted");
+        cache.evict();
+
+        // the cache is over 1 MB, the least recently used artifact is the second one
+        assertTrue(Files.exists(cacheDir.resolve("1")));
+        assertFalse(Files.exists(cacheDir.resolve("2")));
+        assertTrue(Files.exists(cacheDir.resolve("3")));
+    }
+
+    @Test
+    void testArtifactsOfCurrentRunAreNotEvicted() throws IOException {
+        Path cacheDir = tempDir.resolve("cache");
+        ArtifactCache cache = createCache(cacheDir);
+        for (String key : new String[] { "1", "2", "3", "4" }) {
+            cache.put(key, stageArchive(cache));
+        }
+
+        cache.evict();
+
+        for (String key : new String[] { "1", "2", "3", "4" }) {
+            assertNotNull(cache.get(key, false));
+        }
+    }
+
+    private static ArtifactCache createCache(Path cacheDir) {
+        ArtifactCache cache = new ArtifactCache(new TestLogger());
+        cache.updateConfiguration(TestAppConfig.builder()
+                .projectSource(ProjectSource.GITHUB_ACTION_ARTIFACTS)
+                .artifactCache(cacheDir, 1)
+                .build());
+        return cache;
+    }
+
+    private static Path stageArchive(ArtifactCache cache) throws IOException {
+        Path archive = cache.createStagingDir().resolve(ArtifactCache.ARCHIVE);
+        return Files.write(archive, new byte[ARTIFACT_SIZE]);
+    }
+
+    private static void setLastUsed(Path entry, Duration ago) throws IOException {
+        Files.setLastModifiedTime(entry, FileTime.from(Instant.now().minus(ago)));
+    }
+}
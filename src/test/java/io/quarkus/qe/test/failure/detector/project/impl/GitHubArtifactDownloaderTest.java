@@ -0,0 +1,297 @@
+package io.quarkus.qe.test.failure.detector.project.impl;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.quarkus.qe.test.failure.detector.TestAppConfig;
+import io.quarkus.qe.test.failure.detector.TestLogger;
+import io.quarkus.qe.test.failure.detector.configuration.AppConfig;
+import io.quarkus.qe.test.failure.detector.find.ReportArchive;
+import io.quarkus.qe.test.failure.detector.project.ProjectSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the {@link GitHubArtifactDownloader} against a local stub of the GitHub REST API.
+ */
+class GitHubArtifactDownloaderTest {
+
+    private static final String TOKEN = "test-token";
+    private static final String REPOSITORY_URL = "https://github.com/quarkus-qe/mock-quarkus-test-suite";
+    private static final String API_PREFIX = "/repos/quarkus-qe/mock-quarkus-test-suite/actions";
+
+    @TempDir
+    Path tempDir;
+
+    private HttpServer server;
+    private String apiUrl;
+    // archives are created once, so that they have the same digest in the listing and in the download
+    private byte[] firstArtifactZip;
+    private byte[] secondArtifactZip;
+    // path of the request -> authorization header (empty if not sent)
+    private final Map<String, String> authorizations = new ConcurrentHashMap<>();
+    private final List<String> requests = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void startServer() throws IOException {
+        firstArtifactZip = createArtifactZip("first", true);
+        secondArtifactZip = createArtifactZip("second", false);
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", this::handle);
+        server.start();
+        apiUrl = "http://localhost:" + server.getAddress().getPort();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void testWorkflowUrlDownloadsAndExtractsArtifactsOfLatestCompletedRun() throws Exception {
+        Path outputDir = tempDir.resolve("output");
+
+        createDownloader(true).download(REPOSITORY_URL + "/actions/workflows/daily.yaml", outputDir, true);
+
+        // the in-progress run 2 is ignored
+        assertTrue(requests.contains(API_PREFIX + "/runs/1/artifacts"), requests.toString());
+        // the second page of the artifacts is downloaded as well
+        assertTrue(requests.contains(API_PREFIX + "/runs/1/artifacts/page2"), requests.toString());
+        // the nested archive is extracted as well
+        assertEquals("first", Files.readString(outputDir.resolve("artifact-1/module/report.txt")));
+        assertEquals("second", Files.readString(outputDir.resolve("artifact-2/module/report.txt")));
+        assertFalse(Files.exists(outputDir.resolve("artifact-1/reports.zip")));
+        // expired artifacts can't be downloaded
+        assertFalse(Files.exists(outputDir.resolve("artifact-3")));
+        assertFalse(Files.exists(outputDir.resolve(".temp-download")));
+
+        assertEquals("Bearer " + TOKEN, authorizations.get(API_PREFIX + "/artifacts/11/zip"));
+        // the token must not leak to the artifact storage
+        assertEquals("", authorizations.get("/storage/11"));
+    }
+
+    @Test
+    void testRunUrlWithoutExtraction() throws Exception {
+        Path outputDir = tempDir.resolve("output");
+
+        createDownloader(true).download(REPOSITORY_URL + "/actions/runs/1", outputDir, false);
+
+        assertFalse(requests.stream().anyMatch(request -> request.contains("/workflows/")), requests.toString());
+        assertTrue(Files.isRegularFile(outputDir.resolve("artifact-1.zip")));
+        assertTrue(Files.isRegularFile(outputDir.resolve("artifact-2.zip")));
+        assertFalse(Files.exists(outputDir.resolve("artifact-1")));
+    }
+
+    @Test
+    void testOnlyArtifactsOfFailedJobsAreDownloaded() throws Exception {
+        Path outputDir = tempDir.resolve("output");
+
+        createDownloader(false).download(REPOSITORY_URL + "/actions/runs/1", outputDir, false);
+
+        assertTrue(Files.isRegularFile(outputDir.resolve("artifact-1.zip")));
+        // the job of the second artifact succeeded
+        assertFalse(Files.exists(outputDir.resolve("artifact-2.zip")));
+        assertFalse(requests.contains(API_PREFIX + "/artifacts/12/zip"), requests.toString());
+    }
+
+    @Test
+    void testArtifactsAreMatchedToJobsByName() {
+        List<GitHubArtifactDownloader.Job> jobs = List.of(
+                new GitHubArtifactDownloader.Job("Linux JVM 17 - root-modules", "success"),
+                new GitHubArtifactDownloader.Job("Linux JVM 21 - root-modules", "failure"),
+                new GitHubArtifactDownloader.Job("Linux JVM 21 - root-modules - security", "success"),
+                new GitHubArtifactDownloader.Job("Detect changes", "success"));
+
+        assertEquals(jobs.get(1), GitHubArtifactDownloader.findJob("artifacts-linux-jvm21-rootmodules", jobs));
+        // the most specific job wins
+        assertEquals(jobs.get(2), GitHubArtifactDownloader.findJob("artifacts-linux-jvm21-rootmodules-security", jobs));
+        assertNull(GitHubArtifactDownloader.findJob("artifacts-windows-jvm21", jobs));
+        // the artifact has a word the job name doesn't have, it can belong to another job
+        assertNull(GitHubArtifactDownloader.findJob("artifacts-linux-jvm21-rootmodules-native", jobs));
+        // short words of the job name are in the artifact name, but the artifact is of some other job
+        assertNull(GitHubArtifactDownloader.findJob("linux-jvm21-rootmodules-windows-logs",
+                List.of(new GitHubArtifactDownloader.Job("Linux JVM 21", "success"))));
+        // more jobs match equally well
+        assertNull(GitHubArtifactDownloader.findJob("artifacts-jvm21-linux", List.of(
+                new GitHubArtifactDownloader.Job("JVM 21 - Linux", "success"),
+                new GitHubArtifactDownloader.Job("Linux - JVM 21", "failure"))));
+        assertTrue(jobs.get(1).failed());
+        assertFalse(jobs.get(0).failed());
+    }
+
+    @Test
+    void testRunWithoutArtifactsFails() {
+        IOException exception = assertThrows(IOException.class, () -> createDownloader()
+                .download(REPOSITORY_URL + "/actions/runs/3", tempDir.resolve("output"), true));
+        assertTrue(exception.getMessage().contains("No artifacts found for run 3"), exception.getMessage());
+    }
+
+    @Test
+    void testInvalidUrlFails() {
+        IOException exception = assertThrows(IOException.class, () -> createDownloader()
+                .download(REPOSITORY_URL + "/pulls", tempDir.resolve("output"), true));
+        assertTrue(exception.getMessage().contains("Could not extract workflow file"), exception.getMessage());
+    }
+
+    @Test
+    void testCachedArtifactsAreNotDownloadedAgain() throws Exception {
+        Path cacheDir = tempDir.resolve("cache");
+        createDownloader(true, cacheDir).download(REPOSITORY_URL + "/actions/runs/1", tempDir.resolve("first"), true);
+        // the digest of the artifact is a part of the cache key
+        assertTrue(Files.isDirectory(cacheDir.resolve("11-" + sha256(firstArtifactZip))));
+        requests.clear();
+
+        Path outputDir = tempDir.resolve("second");
+        createDownloader(true, cacheDir).download(REPOSITORY_URL + "/actions/runs/1", outputDir, true);
+
+        assertFalse(requests.stream().anyMatch(request -> request.endsWith("/zip") || request.startsWith("/storage")),
+                requests.toString());
+        assertEquals("first", Files.readString(outputDir.resolve("artifact-1/module/report.txt")));
+        assertEquals("second", Files.readString(outputDir.resolve("artifact-2/module/report.txt")));
+        assertTrue(Files.isSymbolicLink(outputDir.resolve("artifact-1")));
+
+        // archives are cached separately from the extracted artifacts
+        requests.clear();
+        Path zipsDir = tempDir.resolve("zips");
+        createDownloader(true, cacheDir).download(REPOSITORY_URL + "/actions/runs/1", zipsDir, false);
+        assertTrue(requests.contains("/storage/11"), requests.toString());
+        assertArrayEquals(firstArtifactZip, Files.readAllBytes(zipsDir.resolve("artifact-1.zip")));
+    }
+
+    @Test
+    void testReportArchivesAreStreamedWhenRead() throws Exception {
+        List<ReportArchive> archives = createDownloader(true).listReportArchives(REPOSITORY_URL + "/actions/runs/1");
+
+        // expired artifacts can't be downloaded
+        assertEquals(List.of("artifact-1", "artifact-2"), archives.stream().map(ReportArchive::name).toList());
+        // nothing is downloaded before the archive is read
+        assertFalse(requests.stream().anyMatch(request -> request.startsWith("/storage")), requests.toString());
+        try (InputStream content = archives.getFirst().open()) {
+            assertArrayEquals(firstArtifactZip, content.readAllBytes());
+        }
+        assertEquals("", authorizations.get("/storage/11"));
+    }
+
+    private GitHubArtifactDownloader createDownloader() {
+        return createDownloader(false);
+    }
+
+    private GitHubArtifactDownloader createDownloader(boolean allArtifacts) {
+        return createDownloader(allArtifacts, null);
+    }
+
+    private GitHubArtifactDownloader createDownloader(boolean allArtifacts, Path cacheDir) {
+        TestLogger logger = new TestLogger();
+        TestAppConfig appConfigBuilder = TestAppConfig.builder()
+                .projectSource(ProjectSource.GITHUB_ACTION_ARTIFACTS)
+                .projectSourceArgument(REPOSITORY_URL)
+                .allArtifacts(allArtifacts);
+        if (cacheDir != null) {
+            appConfigBuilder.artifactCache(cacheDir, 100);
+        }
+        AppConfig appConfig = appConfigBuilder.build();
+        ArtifactCache artifactCache = new ArtifactCache(logger);
+        artifactCache.updateConfiguration(appConfig);
+        GitHubArtifactDownloader downloader = new GitHubArtifactDownloader(logger, artifactCache, apiUrl, TOKEN);
+        downloader.updateConfiguration(appConfig);
+        return downloader;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        requests.add(path);
+        authorizations.put(path, exchange.getRequestHeaders().getOrDefault("Authorization", List.of("")).get(0));
+        switch (path) {
+            case API_PREFIX + "/workflows/daily.yaml/runs" -> respond(exchange, """
+                    {"workflow_runs": [{"id": 2, "status": "in_progress"}, {"id": 1, "status": "completed"}]}
+                    """);
+            case API_PREFIX + "/runs/1/artifacts" -> {
+                exchange.getResponseHeaders().add("Link", "<" + apiUrl + API_PREFIX
+                        + "/runs/1/artifacts/page2>; rel=\"next\", <" + apiUrl + API_PREFIX
+                        + "/runs/1/artifacts/page2>; rel=\"last\"");
+                respond(exchange, """
+                        {"total_count": 3, "artifacts": [{"id": 11, "name": "artifact-1", "expired": false,
+                                                          "digest": "sha256:%s"}]}
+                        """.formatted(sha256(firstArtifactZip)));
+            }
+            case API_PREFIX + "/runs/1/artifacts/page2" -> respond(exchange, """
+                    {"total_count": 3, "artifacts": [{"id": 12, "name": "artifact-2", "expired": false},
+                                                     {"id": 13, "name": "artifact-3", "expired": true}]}
+                    """);
+            case API_PREFIX + "/runs/1/jobs" -> respond(exchange, """
+                    {"total_count": 2, "jobs": [{"name": "Artifact 1", "conclusion": "failure"},
+                                                {"name": "Artifact 2", "conclusion": "success"}]}
+                    """);
+            case API_PREFIX + "/runs/3/artifacts" -> respond(exchange, """
+                    {"total_count": 0, "artifacts": []}
+                    """);
+            case API_PREFIX + "/artifacts/11/zip", API_PREFIX + "/artifacts/12/zip" -> {
+                String id = path.substring(API_PREFIX.length() + "/artifacts/".length(), path.length() - "/zip".length());
+                exchange.getResponseHeaders().add("Location", apiUrl + "/storage/" + id);
+                exchange.sendResponseHeaders(302, -1);
+                exchange.close();
+            }
+            case "/storage/11" -> respond(exchange, firstArtifactZip);
+            case "/storage/12" -> respond(exchange, secondArtifactZip);
+            default -> {
+                exchange.sendResponseHeaders(404, -1);
+                exchange.close();
+            }
+        }
+    }
+
+    private static void respond(HttpExchange exchange, String json) throws IOException {
+        respond(exchange, json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void respond(HttpExchange exchange, byte[] body) throws IOException {
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(body);
+        }
+    }
+
+    private static String sha256(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static byte[] createArtifactZip(String content, boolean nested) throws IOException {
+        byte[] reports = zip("module/report.txt", content.getBytes(StandardCharsets.UTF_8));
+        return nested ? zip("reports.zip", reports) : reports;
+    }
+
+    private static byte[] zip(String entryName, byte[] content) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(bytes)) {
+            zip.putNextEntry(new ZipEntry(entryName));
+            zip.write(content);
+            zip.closeEntry();
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -1,25 +1,41 @@
 package io.quarkus.qe.test.failure.detector.project.impl;
 
+import io.quarkus.qe.test.failure.detector.TestAppConfig;
+import io.quarkus.qe.test.failure.detector.configuration.AppConfig;
 import io.quarkus.qe.test.failure.detector.find.Failure;
 import io.quarkus.qe.test.failure.detector.find.FailuresFinder;
+import io.quarkus.qe.test.failure.detector.find.ReportArchive;
 import io.quarkus.qe.test.failure.detector.TestLogger;
+import io.quarkus.qe.test.failure.detector.project.ProjectSource;
 import io.quarkus.test.junit.QuarkusTest;
 import io.quarkus.test.junit.QuarkusTestProfile;
 import io.quarkus.test.junit.TestProfile;
+import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URISyntaxException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Collection;
+import java.util.List;
 import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
  * Test to verify that FailuresFinder can handle the artifact structure
- * that would be downloaded by the download-github-artifacts.sh script.
+ * that would be downloaded by the {@link GitHubArtifactDownloader}.
  */
 @QuarkusTest
 @TestProfile(GitHubWorkflowProjectSourceTest.MockScriptProfile.class)
@@ -28,6 +44,9 @@ class GitHubWorkflowProjectSourceTest {
     @Inject
     FailuresFinder failuresFinder;
 
+    @Inject
+    Event<AppConfig> appConfigEvent;
+
     public static class MockScriptProfile implements QuarkusTestProfile {
         @Override
         public Set<Class<?>> getEnabledAlternatives() {
@@ -54,6 +73,115 @@ class GitHubWorkflowProjectSourceTest {
         assertTrue(failure.testRunLog().contains("GitHubArtifactIT.java:30"));
     }
 
+    @Test
+    void testFailuresFinderReadsArtifactZipsWithoutExtraction(@TempDir Path tempDir) throws Exception {
+        Path artifactDir = getTestResourcePath("github-artifacts/mock-artifact");
+        Path artifactsDir = Files.createDirectory(tempDir.resolve("github-artifacts-" + UUID.randomUUID()));
+        // GitHub API returns a ZIP that can contain another ZIP with the uploaded files
+        Path innerZip = tempDir.resolve("reports.zip");
+        zipDirectory(artifactDir, innerZip);
+        try (ZipOutputStream zip = new ZipOutputStream(
+                Files.newOutputStream(artifactsDir.resolve("artifacts-linux-jvm21-rootmodules.zip")))) {
+            zip.putNextEntry(new ZipEntry("reports.zip"));
+            Files.copy(innerZip, zip);
+            zip.closeEntry();
+        }
+
+        appConfigEvent.fire(createAppConfig(ProjectSource.GITHUB_ACTION_ARTIFACT_ZIPS));
+        try {
+            Collection<Failure> failures = failuresFinder.find(artifactsDir);
+
+            assertEquals(1, failures.size(), "Should find exactly one failure");
+            Failure failure = failures.iterator().next();
+            assertEquals("io.quarkus.ts.github.GitHubArtifactIT", failure.testClassName());
+            assertEquals("testFromGitHub", failure.testMethodName());
+            assertTrue(failure.testRunLog().contains("GitHubArtifactIT.java:30"));
+            // the module path is the same as if the artifact was extracted
+            assertEquals(artifactsDir.resolve("artifacts-linux-jvm21-rootmodules/module-with-failure")
+                    .toAbsolutePath().toString(), failure.modulePath());
+        } finally {
+            appConfigEvent.fire(createAppConfig(ProjectSource.GITHUB_ACTION_ARTIFACTS));
+        }
+    }
+
+    @Test
+    void testFailuresFinderFollowsLinksToCachedArtifacts(@TempDir Path tempDir) throws Exception {
+        Path cachedArtifactDir = getTestResourcePath("github-artifacts/mock-artifact");
+        Path artifactsDir = Files.createDirectory(tempDir.resolve("github-artifacts-" + UUID.randomUUID()));
+        Files.createSymbolicLink(artifactsDir.resolve("artifacts-linux-jvm21-rootmodules"),
+                cachedArtifactDir.toAbsolutePath());
+
+        appConfigEvent.fire(createAppConfig(ProjectSource.GITHUB_ACTION_ARTIFACTS));
+        Collection<Failure> failures = failuresFinder.find(artifactsDir);
+
+        assertEquals(1, failures.size(), "Should find exactly one failure");
+        assertEquals("io.quarkus.ts.github.GitHubArtifactIT", failures.iterator().next().testClassName());
+    }
+
+    @Test
+    void testFailuresFinderStreamsArtifactArchives(@TempDir Path tempDir) throws Exception {
+        Path innerZip = tempDir.resolve("reports.zip");
+        zipDirectory(getTestResourcePath("github-artifacts/mock-artifact"), innerZip);
+        ByteArrayOutputStream artifact = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(artifact)) {
+            zip.putNextEntry(new ZipEntry("reports.zip"));
+            Files.copy(innerZip, zip);
+            zip.closeEntry();
+        }
+        Path projectDir = tempDir.resolve("github-artifacts-" + UUID.randomUUID());
+        List<ReportArchive> archives = List.of(
+                streamedArchive("artifacts-linux-jvm21-rootmodules", artifact.toByteArray()),
+                streamedArchive("artifacts-broken", new byte[] { 1, 2, 3 }));
+
+        try (Stream<Failure> failures = failuresFinder.stream(projectDir, archives)) {
+            List<Failure> failureList = failures.toList();
+
+            assertEquals(1, failureList.size(), "Should find exactly one failure");
+            Failure failure = failureList.getFirst();
+            assertEquals("io.quarkus.ts.github.GitHubArtifactIT", failure.testClassName());
+            assertTrue(failure.testRunLog().contains("GitHubArtifactIT.java:30"));
+            // the module path is the same as if the artifact was extracted
+            assertEquals(projectDir.resolve("artifacts-linux-jvm21-rootmodules/module-with-failure")
+                    .toAbsolutePath().toString(), failure.modulePath());
+        }
+        // nothing was extracted
+        assertFalse(Files.exists(projectDir));
+    }
+
+    private static ReportArchive streamedArchive(String name, byte[] content) {
+        return new ReportArchive() {
+            @Override
+            public String name() {
+                return name;
+            }
+
+            @Override
+            public InputStream open() {
+                return new ByteArrayInputStream(content);
+            }
+        };
+    }
+
+    private static AppConfig createAppConfig(ProjectSource projectSource) {
+        return TestAppConfig.builder()
+                .projectSource(projectSource)
+                .projectSourceArgument("")
+                .scanParallelism(Runtime.getRuntime().availableProcessors())
+                .downloadParallelism(4)
+                .build();
+    }
+
+    private static void zipDirectory(Path dir, Path zipFile) throws IOException {
+        try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(zipFile));
+             Stream<Path> files = Files.walk(dir)) {
+            for (Path file : files.filter(Files::isRegularFile).toList()) {
+                zip.putNextEntry(new ZipEntry(dir.relativize(file).toString()));
+                Files.copy(file, zip);
+                zip.closeEntry();
+            }
+        }
+    }
+
     private Path getTestResourcePath(String resourcePath) throws URISyntaxException {
         return Paths.get(getClass().getClassLoader().getResource(resourcePath).toURI());
     }
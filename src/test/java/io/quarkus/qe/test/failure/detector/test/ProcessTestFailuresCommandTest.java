@@ -10,6 +10,7 @@ import org.junit.jupiter.api.Test;
 import java.nio.file.Files;
 import java.nio.file.Path;
 
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @QuarkusMainTest
@@ -66,4 +67,39 @@ class ProcessTestFailuresCommandTest {
         // Clean up
         Files.deleteIfExists(outputFile);
     }
+
+    @Launch(value = {
+            "LOCAL_DIRECTORY", "src/test/resources/failsafe-reports/multi-module", "--plan-only"
+    })
+    @Test
+    void testPlanOnlyPrintsAnalysisPlan(LaunchResult result) {
+        assertTrue(result.getOutput().contains("=== Analysis Plan ==="), result.getOutput());
+        assertTrue(result.getOutput().contains("upstream change lookup(s)"), result.getOutput());
+        assertFalse(result.getOutput().contains("Test Failure Analysis Report"), result.getOutput());
+    }
+
+    @Launch(value = {
+            "LOCAL_DIRECTORY", "src/test/resources/failsafe-reports/single-module",
+            "src/test/resources/github-artifacts/mock-artifact", "--output-file", "target/test-batch-report.txt"
+    })
+    @Test
+    void testBatchCreatesReportPerInputAndCombinedReport(LaunchResult result) throws Exception {
+        assertTrue(result.getOutput().contains("Analyzing input 2 of 2"), result.getOutput());
+
+        Path firstReport = Path.of("target/test-batch-report-1.txt");
+        Path secondReport = Path.of("target/test-batch-report-2.txt");
+        Path combinedReport = Path.of("target/test-batch-report.txt");
+        try {
+            assertTrue(Files.readString(firstReport).contains("GreetingResourceIT"));
+            assertFalse(Files.readString(firstReport).contains("GitHubArtifactIT"));
+            assertTrue(Files.readString(secondReport).contains("GitHubArtifactIT"));
+            String combined = Files.readString(combinedReport);
+            assertTrue(combined.contains("GreetingResourceIT"), combined);
+            assertTrue(combined.contains("GitHubArtifactIT"), combined);
+        } finally {
+            Files.deleteIfExists(firstReport);
+            Files.deleteIfExists(secondReport);
+            Files.deleteIfExists(combinedReport);
+        }
+    }
 }